@@ -0,0 +1,146 @@
+package nablarch.integration.router;
+
+import nablarch.fw.MethodBinder;
+import nablarch.fw.web.handler.MethodBinderFactory;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ルーティング定義ごとに、アクションクラスと{@link MethodBinder}を事前に特定した結果を保持するクラス。
+ * <p>
+ * 生成時に全てのルーティング定義のアクションクラスをロードし、ディスパッチ先のメソッドが存在することを確認した上で、
+ * {@link MethodBinder}を生成する。いずれかのルーティング定義で特定に失敗した場合は、その時点で例外を送出する。
+ * </p>
+ * <p>
+ * ディスパッチ先のメソッドの引数は{@link MethodBinder}によって異なる(JAX-RSのリソースメソッドは任意の引数をとる)ため、
+ * メソッドの存在は、ルーティング定義に指定された名前のpublicメソッドがあるか否かで確認する。
+ * 引数の型の検証は、リクエストの処理時に{@link MethodBinder}が行う。
+ * </p>
+ */
+final class ActionDispatchTable {
+
+    /** アクションクラス名とメソッド名ごとの特定結果 */
+    private final Map<String, Map<String, Entry>> entries;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param entries アクションクラス名とメソッド名ごとの特定結果
+     */
+    private ActionDispatchTable(Map<String, Map<String, Entry>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * ルーティング定義のアクションクラスと{@link MethodBinder}を特定する。
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @param methodBinderFactory {@link MethodBinder}を生成するファクトリ
+     * @param loader アクションクラスをロードするクラスローダ
+     * @return 特定した結果
+     * @throws IllegalStateException アクションクラスのロード、またはディスパッチ先のメソッドの特定に失敗した場合
+     */
+    static ActionDispatchTable create(List<PathOptions> pathOptionsList, MethodBinderFactory<?> methodBinderFactory,
+                                      ClassLoader loader) {
+        Map<String, Map<String, Entry>> entries = new HashMap<String, Map<String, Entry>>();
+        for (PathOptions pathOptions : pathOptionsList) {
+            String controller = pathOptions.getOptions().getString("controller");
+            String action = pathOptions.getOptions().getString("action");
+
+            Map<String, Entry> actions = entries.get(controller);
+            if (actions == null) {
+                actions = new HashMap<String, Entry>();
+                entries.put(controller, actions);
+            }
+            if (actions.containsKey(action)) {
+                continue;
+            }
+
+            Class<?> controllerClass;
+            try {
+                controllerClass = loader.loadClass(controller);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("action class could not be loaded. path = ["
+                        + pathOptions.getPath() + "], controller = [" + controller + "]", e);
+            }
+            if (!hasPublicMethod(controllerClass, action)) {
+                throw new IllegalStateException("action method could not be found. path = ["
+                        + pathOptions.getPath() + "], controller = [" + controller + "], action = [" + action + "]");
+            }
+            actions.put(action, new Entry(controllerClass, methodBinderFactory.create(action)));
+        }
+        for (Map.Entry<String, Map<String, Entry>> entry : entries.entrySet()) {
+            entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+        }
+        return new ActionDispatchTable(Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * 指定した名前のpublicメソッドがクラスに存在するか否かを判定する。
+     *
+     * @param controllerClass アクションクラス
+     * @param action メソッド名
+     * @return 存在する場合は{@code true}
+     */
+    private static boolean hasPublicMethod(Class<?> controllerClass, String action) {
+        for (Method method : controllerClass.getMethods()) {
+            if (method.getName().equals(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * アクションクラス名とメソッド名に対応する特定結果を取得する。
+     *
+     * @param controller アクションクラス名
+     * @param action メソッド名
+     * @return 特定結果。存在しない場合は{@code null}
+     */
+    Entry find(String controller, String action) {
+        Map<String, Entry> actions = entries.get(controller);
+        return actions == null ? null : actions.get(action);
+    }
+
+    /**
+     * アクションクラスと{@link MethodBinder}の特定結果。
+     */
+    static final class Entry {
+
+        /** アクションクラス */
+        private final Class<?> controllerClass;
+
+        /** {@link MethodBinder} */
+        private final MethodBinder<?, ?> methodBinder;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param controllerClass アクションクラス
+         * @param methodBinder {@link MethodBinder}
+         */
+        private Entry(Class<?> controllerClass, MethodBinder<?, ?> methodBinder) {
+            this.controllerClass = controllerClass;
+            this.methodBinder = methodBinder;
+        }
+
+        /**
+         * @return アクションクラス
+         */
+        Class<?> getControllerClass() {
+            return controllerClass;
+        }
+
+        /**
+         * @return {@link MethodBinder}
+         */
+        MethodBinder<?, ?> getMethodBinder() {
+            return methodBinder;
+        }
+    }
+}
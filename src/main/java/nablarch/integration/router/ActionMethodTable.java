@@ -0,0 +1,80 @@
+package nablarch.integration.router;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * アクションクラスごとに、ディスパッチ対象となり得るメソッドを保持するクラス。
+ * <p>
+ * ディスパッチ対象となるのは、引数が{@link HttpRequest}と{@link ExecutionContext}のpublicメソッドである。
+ * アクションクラスごとに初回参照時に一度だけ全てのpublicメソッドを調べ、メソッド名をキーに保持する。
+ * 以降は同じアクションクラスに対してリフレクションによる検索を行わない。
+ * </p>
+ * <p>
+ * 保持する件数はアクションクラスのメソッド数が上限となるため、存在しないメソッド名を指定された場合でも
+ * 保持する件数が増えることはない。また、保持する内容は{@link ClassValue}でクラスに関連付けるため、
+ * アクションクラスがアンロードされる際に合わせて破棄される。
+ * </p>
+ */
+final class ActionMethodTable {
+
+    /** ディスパッチ対象となるメソッドの引数の型 */
+    private static final Class<?>[] PARAMETER_TYPES = {HttpRequest.class, ExecutionContext.class};
+
+    /** アクションクラスごとの、メソッド名とメソッド */
+    private static final ClassValue<Map<String, Method>> METHODS = new ClassValue<Map<String, Method>>() {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> actionClass) {
+            return collect(actionClass);
+        }
+    };
+
+    /**
+     * アクションクラスのディスパッチ対象となるメソッドを取得する。
+     * <p>
+     * {@link Class#getMethod(String, Class[])} に、引数の型として{@link HttpRequest}と{@link ExecutionContext}を
+     * 指定した場合と同じメソッドを返す。
+     * </p>
+     *
+     * @param actionClass アクションクラス
+     * @param methodName メソッド名
+     * @return メソッド。存在しない場合は{@code null}
+     */
+    static Method getMethod(Class<?> actionClass, String methodName) {
+        return METHODS.get(actionClass).get(methodName);
+    }
+
+    /**
+     * アクションクラスのディスパッチ対象となるメソッドを収集する。
+     *
+     * @param actionClass アクションクラス
+     * @return メソッド名とメソッド
+     */
+    private static Map<String, Method> collect(Class<?> actionClass) {
+        Map<String, Method> methods = new HashMap<String, Method>();
+        for (Method method : actionClass.getMethods()) {
+            if (!Arrays.equals(method.getParameterTypes(), PARAMETER_TYPES)) {
+                continue;
+            }
+            Method current = methods.get(method.getName());
+            if (current == null || (current.getReturnType() != method.getReturnType()
+                    && current.getReturnType().isAssignableFrom(method.getReturnType()))) {
+                // 戻り値の型だけが異なるメソッド(ブリッジメソッド)は、Class#getMethodと同様に戻り値の型がより具体的なものを優先する
+                methods.put(method.getName(), method);
+            }
+        }
+        return Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ActionMethodTable() {
+    }
+}
@@ -0,0 +1,21 @@
+package nablarch.integration.router;
+
+/**
+ * 収集結果をキャッシュできる {@link PathOptionsProvider} 。
+ * <p>
+ * {@link SnapshotPathOptionsProvider} は、このインターフェースを実装した {@link PathOptionsProvider} のキーを
+ * スナップショットファイルの有効性の判定に使用する。
+ * </p>
+ */
+public interface CacheablePathOptionsProvider extends PathOptionsProvider {
+
+    /**
+     * 収集結果のキャッシュに使用するキーを取得する。
+     * <p>
+     * アプリケーションパスなど、収集結果が変わる全ての設定値を含めること。
+     * 設定値が変わった場合は異なるキーを返さなければならない。
+     * </p>
+     * @return キー
+     */
+    String getCacheKey();
+}
@@ -0,0 +1,54 @@
+package nablarch.integration.router;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * routes定義ファイルやクラスパスの変更の検知に使用する、チェックサム(SHA-256)を算出するクラス。
+ */
+final class Checksums {
+
+    /**
+     * チェックサムを算出する {@link MessageDigest} を生成する。
+     *
+     * @return {@link MessageDigest}
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256は全てのJava実装で使用できるため、発生しない。
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * チェックサムを算出する。
+     *
+     * @param content 内容
+     * @return チェックサム
+     */
+    static byte[] of(byte[] content) {
+        return newDigest().digest(content);
+    }
+
+    /**
+     * チェックサムを16進数の文字列に変換する。
+     * <p>
+     * {@link RoutesSourceGenerator} が生成したクラスのチェックサムの定数は、この形式で出力する。
+     * </p>
+     *
+     * @param checksum チェックサム
+     * @return 16進数の文字列
+     */
+    static String toHex(byte[] checksum) {
+        return HexFormat.of().formatHex(checksum);
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private Checksums() {
+    }
+}
@@ -0,0 +1,471 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.ControllerDetector;
+import net.unit8.http.router.Options;
+import net.unit8.http.router.Route;
+import net.unit8.http.router.RouteBuilder;
+import net.unit8.http.router.Segment;
+import net.unit8.http.router.segment.DividerSegment;
+import net.unit8.http.router.segment.DynamicSegment;
+import net.unit8.http.router.segment.StaticSegment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PathOptions} から構築した {@link Route} と、その構造を解析した結果を保持するクラス。
+ * <p>
+ * パスが"/"区切りの固定文字列とパスパラメータ("(:param)")だけで構成されている場合、
+ * 各セグメントの値を {@link #getSegments()} で参照できる("/"をまたいでマッチする可能性がある定義は対象外)。
+ * パスパラメータに対応するセグメントは {@code null} となる。
+ * </p>
+ */
+final class CompiledRoute {
+
+    /** 正規表現のメタ文字 */
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    /** 定義順 */
+    private final int order;
+
+    /** ルーティング定義 */
+    private final PathOptions pathOptions;
+
+    /** http-request-routerのルート */
+    private final Route route;
+
+    /** 構築前のルーティング定義の内容 */
+    private final List<Object> definition;
+
+    /** 許可するHTTPメソッド(空の場合は全てのHTTPメソッドを許可) */
+    private final List<String> methods;
+
+    /** セグメントの値(パスパラメータは{@code null})。セグメント単位で照合できない場合は{@code null} */
+    private final String[] segments;
+
+    /** 省略できないセグメントの数 */
+    private final int requiredSegmentCount;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param order 定義順
+     * @param pathOptions ルーティング定義
+     * @param route http-request-routerのルート
+     * @param definition 構築前のルーティング定義の内容
+     */
+    private CompiledRoute(int order, PathOptions pathOptions, Route route, List<Object> definition) {
+        this.order = order;
+        this.pathOptions = pathOptions;
+        this.route = route;
+        this.definition = definition;
+        this.methods = methodsOf(pathOptions.getOptions());
+
+        List<String> values = new ArrayList<String>();
+        int required = analyze(route.getSegments(), values);
+        if (required < 0) {
+            segments = null;
+            requiredSegmentCount = 0;
+        } else {
+            segments = values.toArray(new String[0]);
+            requiredSegmentCount = required;
+        }
+    }
+
+    /**
+     * ルーティング定義のリストを定義順に構築する。
+     * <p>
+     * {@link PathOptions#getControllerDetector()} が設定されているルーティング定義は、
+     * パスの":controller"にマッチするコントローラをその {@link ControllerDetector} で検出するルートとして構築する。
+     * </p>
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @return 構築結果
+     */
+    static List<CompiledRoute> compile(List<PathOptions> pathOptionsList) {
+        return compile(pathOptionsList, Collections.<CompiledRoute>nCopies(pathOptionsList.size(), null));
+    }
+
+    /**
+     * ルーティング定義のリストを定義順に構築する。
+     * <p>
+     * 再利用するルートが指定されたルーティング定義は構築せず、そのルートの {@link Route} を再利用する。
+     * </p>
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @param reusable ルーティング定義と同じ位置に、再利用するルートを格納したリスト(再利用しない位置は{@code null})
+     * @return 構築結果
+     */
+    static List<CompiledRoute> compile(List<PathOptions> pathOptionsList, List<CompiledRoute> reusable) {
+        RouteBuilder defaultBuilder = new RouteBuilder();
+        Map<ControllerDetector, RouteBuilder> scopedBuilders = new IdentityHashMap<ControllerDetector, RouteBuilder>();
+        List<CompiledRoute> compiledRoutes = new ArrayList<CompiledRoute>(pathOptionsList.size());
+        for (PathOptions pathOptions : pathOptionsList) {
+            CompiledRoute reused = reusable.get(compiledRoutes.size());
+            if (reused != null) {
+                compiledRoutes.add(new CompiledRoute(compiledRoutes.size(), pathOptions, reused.route, reused.definition));
+                continue;
+            }
+            // http-request-routerは構築時に設定を書き換えるため、構築前の内容を保持しておく
+            List<Object> definition = definitionOf(pathOptions);
+            ControllerDetector controllerDetector = pathOptions.getControllerDetector();
+            RouteBuilder builder = defaultBuilder;
+            if (controllerDetector != null) {
+                builder = scopedBuilders.get(controllerDetector);
+                if (builder == null) {
+                    builder = new ControllerScopedRouteBuilder(controllerDetector);
+                    scopedBuilders.put(controllerDetector, builder);
+                }
+            }
+            Route route = builder.build(pathOptions.getPath(), pathOptions.getOptions());
+            compiledRoutes.add(new CompiledRoute(compiledRoutes.size(), pathOptions, route, definition));
+        }
+        return compiledRoutes;
+    }
+
+    /**
+     * 構築済みのルートのリストを、リスト内の位置を定義順とするルートのリストに変換する。
+     * <p>
+     * ルートは構築し直さずに再利用する。定義順が既にリスト内の位置と同じルートは、そのまま使用する。
+     * </p>
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @return 定義順を振り直したルートのリスト
+     */
+    static List<CompiledRoute> renumber(List<CompiledRoute> compiledRoutes) {
+        List<CompiledRoute> renumbered = new ArrayList<CompiledRoute>(compiledRoutes.size());
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            int order = renumbered.size();
+            renumbered.add(compiledRoute.order == order ? compiledRoute
+                    : new CompiledRoute(order, compiledRoute.pathOptions, compiledRoute.route, compiledRoute.definition));
+        }
+        return renumbered;
+    }
+
+    /**
+     * ルーティング定義の内容を、同じ内容であれば等価となる形式に変換する。
+     *
+     * @param pathOptions ルーティング定義
+     * @return パスと設定を格納したリスト
+     */
+    static List<Object> definitionOf(PathOptions pathOptions) {
+        return Arrays.asList(pathOptions.getPath(), comparable(pathOptions.getOptions()));
+    }
+
+    /**
+     * 値を比較できる形式に変換する。
+     * <p>
+     * {@link Pattern} は等価性を判定できないため、正規表現とフラグの文字列に変換する。
+     * </p>
+     *
+     * @param value 値
+     * @return 変換した値
+     */
+    private static Object comparable(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> map = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), comparable(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<Object>();
+            for (Object element : (List<?>) value) {
+                list.add(comparable(element));
+            }
+            return list;
+        }
+        if (value instanceof Pattern) {
+            return "/" + ((Pattern) value).pattern() + "/" + ((Pattern) value).flags();
+        }
+        return value;
+    }
+
+    /**
+     * 構築済みのルートのリストから、http-request-routerのルートのリストを取得する。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @return http-request-routerのルートのリスト
+     */
+    static List<Route> routesOf(List<CompiledRoute> compiledRoutes) {
+        List<Route> routes = new ArrayList<Route>(compiledRoutes.size());
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            routes.add(compiledRoute.getRoute());
+        }
+        return routes;
+    }
+
+    /**
+     * リクエストパスをセグメントに分割する。
+     * <p>
+     * 先頭の"/"を取り除いた上で"/"で分割する。空のセグメントも結果に含める。
+     * ルートパス("/"または空文字)の場合は空のリストを返す。
+     * </p>
+     *
+     * @param path リクエストパス
+     * @return セグメントのリスト
+     */
+    static List<String> splitPath(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        if (start == path.length()) {
+            return Collections.emptyList();
+        }
+        List<String> segments = new ArrayList<String>();
+        int end;
+        while ((end = path.indexOf('/', start)) >= 0) {
+            segments.add(path.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(path.substring(start));
+        return segments;
+    }
+
+    /**
+     * パスとHTTPメソッドがこのルートにマッチする場合、その設定を返す。
+     *
+     * @param path リクエストパス
+     * @param method HTTPメソッド
+     * @return マッチした場合は設定、マッチしない場合は{@code null}
+     */
+    Options recognize(String path, String method) {
+        return route.recognize(path, method);
+    }
+
+    /**
+     * 指定されたHTTPメソッドを許可するか否か。
+     *
+     * @param method HTTPメソッド
+     * @return 許可する場合は{@code true}
+     */
+    boolean acceptsMethod(String method) {
+        return methods.isEmpty() || methods.contains(method);
+    }
+
+    /**
+     * @return 定義順
+     */
+    int getOrder() {
+        return order;
+    }
+
+    /**
+     * @return ルーティング定義
+     */
+    PathOptions getPathOptions() {
+        return pathOptions;
+    }
+
+    /**
+     * @return 構築前のルーティング定義の内容。同じ内容のルーティング定義から構築した場合は等価となる
+     */
+    List<Object> getDefinition() {
+        return definition;
+    }
+
+    /**
+     * @return http-request-routerのルート
+     */
+    Route getRoute() {
+        return route;
+    }
+
+    /**
+     * @return 許可するHTTPメソッド(空の場合は全てのHTTPメソッドを許可)
+     */
+    List<String> getMethods() {
+        return methods;
+    }
+
+    /**
+     * セグメント単位で照合できるか否か。
+     *
+     * @return セグメント単位で照合できる場合は{@code true}
+     */
+    boolean isSegmentBound() {
+        return segments != null;
+    }
+
+    /**
+     * セグメントの値を取得する。パスパラメータに対応するセグメントは{@code null}となる。
+     *
+     * @return セグメントの値。セグメント単位で照合できない場合は{@code null}
+     */
+    String[] getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return 省略できないセグメントの数
+     */
+    int getRequiredSegmentCount() {
+        return requiredSegmentCount;
+    }
+
+    /**
+     * パスパラメータを含まないルーティング定義の場合、そのパスを返す。
+     *
+     * @return パス("/"で始まる)。パスパラメータなどを含む場合は{@code null}
+     */
+    String getStaticPath() {
+        if (segments == null || requiredSegmentCount != segments.length) {
+            return null;
+        }
+        if (segments.length == 0) {
+            return "/";
+        }
+        StringBuilder path = new StringBuilder();
+        for (String segment : segments) {
+            if (segment == null) {
+                return null;
+            }
+            path.append('/').append(segment);
+        }
+        return path.toString();
+    }
+
+    /**
+     * ルーティング定義の設定から、許可するHTTPメソッドを取得する。
+     *
+     * @param options ルーティング定義の設定
+     * @return 許可するHTTPメソッド
+     */
+    static List<String> methodsOf(Options options) {
+        Object conditions = options.get("conditions");
+        if (!(conditions instanceof Options)) {
+            return Collections.emptyList();
+        }
+        List<String> methods = new ArrayList<String>();
+        for (Object method : ((Options) conditions).getList("method")) {
+            methods.add(String.valueOf(method));
+        }
+        return Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * ルートのセグメントを解析し、"/"で区切られた各セグメントの値を{@code values}に格納する。
+     *
+     * @param routeSegments ルートのセグメント
+     * @param values 解析結果の格納先
+     * @return 省略できないセグメントの数。セグメント単位で照合できない場合は{@code -1}
+     */
+    private static int analyze(List<Segment> routeSegments, List<String> values) {
+        int size = routeSegments.size();
+        if (size == 1 && isSlash(routeSegments.get(0))) {
+            // ルートパス("/")
+            return 0;
+        }
+        int required = 0;
+        boolean optionalFound = false;
+        for (int i = 0; i < size; i += 2) {
+            if (i + 1 >= size || !isSlash(routeSegments.get(i))) {
+                return -1;
+            }
+            Segment divider = routeSegments.get(i);
+            Segment segment = routeSegments.get(i + 1);
+            if (segment instanceof DividerSegment) {
+                return -1;
+            }
+            if (segment instanceof StaticSegment && isLiteral(segment.getValue())) {
+                values.add(segment.getValue());
+            } else if (segment.getClass() == DynamicSegment.class && isSegmentLocal((DynamicSegment) segment)) {
+                values.add(null);
+            } else {
+                return -1;
+            }
+            if (divider.isOptional() != segment.isOptional()) {
+                // 区切り文字だけ、あるいはセグメントだけが省略可能な場合、セグメントの境界が一意に定まらない
+                return -1;
+            }
+            if (segment.isOptional()) {
+                optionalFound = true;
+            } else if (optionalFound) {
+                // 省略可能なセグメントの後に省略できないセグメントがある
+                return -1;
+            } else {
+                required++;
+            }
+        }
+        return required;
+    }
+
+    /**
+     * "/"の区切りセグメントか否か。
+     *
+     * @param segment セグメント
+     * @return "/"の区切りセグメントの場合は{@code true}
+     */
+    private static boolean isSlash(Segment segment) {
+        return segment instanceof DividerSegment && "/".equals(segment.getValue());
+    }
+
+    /**
+     * 正規表現のメタ文字を含まない固定文字列か否か。
+     *
+     * @param value 値
+     * @return 固定文字列の場合は{@code true}
+     */
+    private static boolean isLiteral(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '/' || REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * パスパラメータの書式が"/"を含む文字列にマッチしないことが明らかか否か。
+     * <p>
+     * 判定できない書式は"/"にマッチする可能性があるものとして扱う。
+     * </p>
+     *
+     * @param segment パスパラメータのセグメント
+     * @return "/"を含む文字列にマッチしないことが明らかな場合は{@code true}
+     */
+    private static boolean isSegmentLocal(DynamicSegment segment) {
+        String regex = segment.regexpChunk();
+        if (regex.equals(segment.defaultRegexpChunk())) {
+            return true;
+        }
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '/') {
+                return false;
+            }
+            if (c == '\\') {
+                if (++i >= regex.length() || "dwsbB.-_+*?()[]{}|^$\\".indexOf(regex.charAt(i)) < 0) {
+                    return false;
+                }
+                continue;
+            }
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                } else if (c == '-' && i + 1 < regex.length() && regex.charAt(i + 1) != ']'
+                        && regex.charAt(i - 1) <= '/' && '/' <= regex.charAt(i + 1)) {
+                    return false;
+                }
+            } else if (c == '[') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    return false;
+                }
+                inClass = true;
+            } else if (c == '.') {
+                return false;
+            }
+        }
+        return !inClass;
+    }
+}
@@ -0,0 +1,24 @@
+package nablarch.integration.router;
+
+import java.util.List;
+
+/**
+ * 構築済みのルートから {@link RouteMatcher} を生成する {@link RouteMatcherFactory} 。
+ * <p>
+ * {@link RoutesMapping} は、{@link RouteMatcherFactory} がこのインターフェースを実装している場合、
+ * 再読み込みの際に変更のない定義を構築し直さず、構築済みのルートを渡して {@link RouteMatcher} を生成する。
+ * 再読み込み前に生成した {@link RouteMatcher} と差分も渡すため、差分の影響を受けない部分は再利用できる。
+ * </p>
+ */
+interface CompiledRouteMatcherFactory extends RouteMatcherFactory {
+
+    /**
+     * 構築済みのルートのリストから {@link RouteMatcher} を生成する。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト(定義順は0から始まる連番であること)
+     * @param previous 再読み込み前にこのファクトリで生成した {@link RouteMatcher}。初回の読み込みの場合は{@code null}
+     * @param diff 再読み込み前のルーティング定義との差分。初回の読み込みの場合は{@code null}
+     * @return {@link RouteMatcher}
+     */
+    RouteMatcher create(List<CompiledRoute> compiledRoutes, RouteMatcher previous, RoutesDiff diff);
+}
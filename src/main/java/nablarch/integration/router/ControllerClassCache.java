@@ -0,0 +1,130 @@
+package nablarch.integration.router;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * コントローラ名に対応するアクションクラスを、クラスローダごとに保持するクラス。
+ * <p>
+ * クラスローダへの参照は弱参照で保持するため、再デプロイなどでクラスローダが不要になった場合は
+ * 保持している内容も合わせて破棄される。アクションクラスも弱参照で保持し、クラスからクラスローダへの参照によって
+ * クラスローダが破棄されなくなることを防ぐ。
+ * </p>
+ * <p>
+ * 保持するのはロードに成功したアクションクラスのみとするため、保持する件数はアクションクラスの数が上限となる。
+ * </p>
+ */
+final class ControllerClassCache {
+
+    /** 最後に参照したクラスローダの、コントローラ名とアクションクラス(通常はクラスローダが1つのため、排他制御を行わずに参照する) */
+    private volatile LoaderEntry lastEntry;
+
+    /** クラスローダごとの、コントローラ名とアクションクラス */
+    private final Map<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>> classes =
+            new WeakHashMap<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>>();
+
+    /** {@link #classes} の排他制御に使用するロック(仮想スレッドがキャリアスレッドを占有しないよう、synchronizedは使用しない) */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * コントローラ名に対応するアクションクラスを取得する。
+     *
+     * @param loader クラスローダ
+     * @param controller コントローラ名
+     * @return アクションクラス。保持していない場合は{@code null}
+     */
+    Class<?> get(ClassLoader loader, String controller) {
+        if (controller == null) {
+            return null;
+        }
+        ConcurrentMap<String, WeakReference<Class<?>>> controllers = controllersOf(loader, false);
+        if (controllers == null) {
+            return null;
+        }
+        WeakReference<Class<?>> reference = controllers.get(controller);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * コントローラ名に対応するアクションクラスを保持する。
+     *
+     * @param loader クラスローダ
+     * @param controller コントローラ名
+     * @param controllerClass アクションクラス
+     */
+    void put(ClassLoader loader, String controller, Class<?> controllerClass) {
+        if (controller == null) {
+            return;
+        }
+        controllersOf(loader, true).put(controller, new WeakReference<Class<?>>(controllerClass));
+    }
+
+    /**
+     * 保持している内容を全て破棄する。
+     */
+    void clear() {
+        lock.lock();
+        try {
+            lastEntry = null;
+            classes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * クラスローダに対応する、コントローラ名とアクションクラスを取得する。
+     *
+     * @param loader クラスローダ
+     * @param create 存在しない場合に作成する場合は{@code true}
+     * @return コントローラ名とアクションクラス。存在せず、作成もしない場合は{@code null}
+     */
+    private ConcurrentMap<String, WeakReference<Class<?>>> controllersOf(ClassLoader loader, boolean create) {
+        LoaderEntry entry = lastEntry;
+        if (entry != null && entry.loader.get() == loader) {
+            return entry.controllers;
+        }
+        lock.lock();
+        try {
+            ConcurrentMap<String, WeakReference<Class<?>>> controllers = classes.get(loader);
+            if (controllers == null) {
+                if (!create) {
+                    return null;
+                }
+                controllers = new ConcurrentHashMap<String, WeakReference<Class<?>>>();
+                classes.put(loader, controllers);
+            }
+            lastEntry = new LoaderEntry(loader, controllers);
+            return controllers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * クラスローダと、そのクラスローダのコントローラ名とアクションクラスの組み合わせ。
+     */
+    private static final class LoaderEntry {
+
+        /** クラスローダ */
+        private final WeakReference<ClassLoader> loader;
+
+        /** コントローラ名とアクションクラス */
+        private final ConcurrentMap<String, WeakReference<Class<?>>> controllers;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param loader クラスローダ
+         * @param controllers コントローラ名とアクションクラス
+         */
+        private LoaderEntry(ClassLoader loader, ConcurrentMap<String, WeakReference<Class<?>>> controllers) {
+            this.loader = new WeakReference<ClassLoader>(loader);
+            this.controllers = controllers;
+        }
+    }
+}
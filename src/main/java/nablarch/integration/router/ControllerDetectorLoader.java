@@ -0,0 +1,93 @@
+package nablarch.integration.router;
+
+import nablarch.core.util.FileUtil;
+import net.unit8.http.router.ControllerDetector;
+import net.unit8.http.router.Routes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * http-request-routerの設定ファイル(routes.properties)に指定された {@link ControllerDetector} を生成するクラス。
+ * <p>
+ * http-request-routerは、{@link Routes} と同じパッケージのroutes.propertiesの"router.controllerDetector"に
+ * 指定されたクラスで、パスの":controller"にマッチするコントローラを検出する。
+ * このクラスは、同じ設定から {@link RoutesMapping} ごとの {@link ControllerDetector} を生成する。
+ * 指定されたクラスがベースパッケージ({@link String})を引数に取るコンストラクタを持つ場合は、
+ * {@link RoutesMapping} のベースパッケージを指定して生成し、持たない場合は引数のないコンストラクタで生成する。
+ * 設定ファイルや設定値がない場合は、{@link NablarchControllerDetector} を使用する。
+ * </p>
+ */
+final class ControllerDetectorLoader {
+
+    /** {@link ControllerDetector} のクラス名を指定するプロパティ名 */
+    static final String CONTROLLER_DETECTOR_PROPERTY = "router.controllerDetector";
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ControllerDetectorLoader() {
+    }
+
+    /**
+     * routes.propertiesに指定された {@link ControllerDetector} を生成する。
+     *
+     * @param basePackage ベースパッケージ
+     * @return {@link ControllerDetector}
+     * @throws IllegalStateException routes.propertiesを読み込めない場合や、指定されたクラスを生成できない場合
+     */
+    static ControllerDetector load(String basePackage) {
+        return create(configuredClassName(), basePackage);
+    }
+
+    /**
+     * routes.propertiesに指定された {@link ControllerDetector} のクラス名を取得する。
+     *
+     * @return クラス名。routes.propertiesや設定値がない場合は{@code null}
+     * @throws IllegalStateException routes.propertiesを読み込めない場合
+     */
+    private static String configuredClassName() {
+        // http-request-routerと同じ方法で読み込む(クラスリテラルの参照ではRoutesの初期化は行われない)
+        InputStream in = Routes.class.getResourceAsStream("routes.properties");
+        if (in == null) {
+            return null;
+        }
+        try {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty(CONTROLLER_DETECTOR_PROPERTY);
+        } catch (IOException e) {
+            throw new IllegalStateException("routes.properties could not be read.", e);
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * 指定されたクラスの {@link ControllerDetector} を生成する。
+     *
+     * @param className クラス名。{@code null}または空文字の場合は {@link NablarchControllerDetector} を生成する
+     * @param basePackage ベースパッケージ
+     * @return {@link ControllerDetector}
+     * @throws IllegalStateException 指定されたクラスを生成できない場合
+     */
+    static ControllerDetector create(String className, String basePackage) {
+        if (className == null || className.trim().isEmpty()) {
+            return new NablarchControllerDetector(basePackage);
+        }
+        try {
+            Class<? extends ControllerDetector> clazz = Class.forName(
+                    className.trim(), true, Thread.currentThread().getContextClassLoader())
+                    .asSubclass(ControllerDetector.class);
+            try {
+                return clazz.getConstructor(String.class).newInstance(basePackage);
+            } catch (NoSuchMethodException e) {
+                return clazz.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("controller detector could not be created. "
+                    + CONTROLLER_DETECTOR_PROPERTY + " = [" + className + "]", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.ARStringUtil;
+import net.unit8.http.router.ControllerDetector;
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RegexpUtil;
+import net.unit8.http.router.RouteBuilder;
+import net.unit8.http.router.Segment;
+import net.unit8.http.router.segment.ControllerSegment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * パスの":controller"にマッチするコントローラを、指定した {@link ControllerDetector} で検出する {@link RouteBuilder} 。
+ * <p>
+ * http-request-routerの {@link RouteBuilder} は、":controller"にマッチするコントローラを
+ * JVMで共有する {@link net.unit8.http.router.Routes#possibleControllers()} から取得する。
+ * このクラスで構築したルートは、生成時に指定した {@link ControllerDetector} だけを使用するため、
+ * 同じJVMでベースパッケージの異なる複数のルーティング定義を扱うことができる。
+ * </p>
+ */
+final class ControllerScopedRouteBuilder extends RouteBuilder {
+
+    /** コントローラを検出する {@link ControllerDetector} */
+    private final ControllerDetector controllerDetector;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param controllerDetector コントローラを検出する {@link ControllerDetector}
+     */
+    ControllerScopedRouteBuilder(ControllerDetector controllerDetector) {
+        this.controllerDetector = controllerDetector;
+    }
+
+    @Override
+    public Segment segmentFor(StringBuilder sb) {
+        // 親クラスの処理で解析した部分が取り除かれるため、括弧で囲まれているかを先に判定しておく
+        boolean wrapParentheses = sb.length() > 0 && sb.charAt(0) == '(';
+        Segment segment = super.segmentFor(sb);
+        if (!(segment instanceof ControllerSegment)) {
+            return segment;
+        }
+        Options options = new Options();
+        if (wrapParentheses) {
+            options.put("wrapParentheses", Boolean.TRUE);
+        }
+        return new ScopedControllerSegment(segment.getKey(), options, controllerDetector);
+    }
+
+    /**
+     * 指定した {@link ControllerDetector} で検出したコントローラにマッチする {@link ControllerSegment} 。
+     */
+    private static final class ScopedControllerSegment extends ControllerSegment {
+
+        /** コントローラを検出する {@link ControllerDetector} */
+        private final ControllerDetector controllerDetector;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param key キー
+         * @param options セグメントの設定
+         * @param controllerDetector コントローラを検出する {@link ControllerDetector}
+         */
+        private ScopedControllerSegment(String key, Options options, ControllerDetector controllerDetector) {
+            super(key, options);
+            this.controllerDetector = controllerDetector;
+        }
+
+        @Override
+        public String regexpChunk() {
+            List<String> controllers = new ArrayList<String>();
+            for (String controller : controllerDetector.detect()) {
+                controllers.add(RegexpUtil.escape(controller));
+            }
+            return "(?i-:(" + ARStringUtil.join(controllers, "|") + "))";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package nablarch.integration.router;
+
+import nablarch.fw.MethodBinder;
+import nablarch.fw.web.HttpRequest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * メソッド名ごとに{@link MethodBinder}を保持し、同じメソッド名に対して同じインスタンスを再利用するためのクラス。
+ * <p>
+ * メソッド名はリクエストのパスから決まる場合(":action"を使ったルーティング定義など)もあるため、
+ * 保持する件数には上限を設ける。上限に達した後は、保持していないメソッド名に対して都度インスタンスを生成する。
+ * </p>
+ */
+final class MethodBinderCache {
+
+    /** 保持する件数の上限 */
+    private static final int MAX_SIZE = 1024;
+
+    /** メソッド名ごとの{@link MethodBinder} */
+    private final ConcurrentMap<String, MethodBinder<HttpRequest, Object>> binders =
+            new ConcurrentHashMap<String, MethodBinder<HttpRequest, Object>>();
+
+    /**
+     * メソッド名に対応する{@link MethodBinder}を取得する。
+     *
+     * @param methodName メソッド名
+     * @return {@link MethodBinder}。保持していない場合は{@code null}
+     */
+    MethodBinder<HttpRequest, Object> get(String methodName) {
+        return methodName == null ? null : binders.get(methodName);
+    }
+
+    /**
+     * メソッド名に対応する{@link MethodBinder}を保持する。
+     * <p>
+     * 既に保持している場合や、保持する件数が上限に達している場合は保持しない。
+     * </p>
+     *
+     * @param methodName メソッド名
+     * @param binder {@link MethodBinder}
+     * @return 保持している{@link MethodBinder}。保持しなかった場合は引数の{@link MethodBinder}
+     */
+    MethodBinder<HttpRequest, Object> put(String methodName, MethodBinder<HttpRequest, Object> binder) {
+        if (methodName == null || binders.size() >= MAX_SIZE) {
+            return binder;
+        }
+        MethodBinder<HttpRequest, Object> current = binders.putIfAbsent(methodName, binder);
+        return current == null ? binder : current;
+    }
+}
@@ -0,0 +1,272 @@
+package nablarch.integration.router;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.HandlerWrapper;
+import nablarch.fw.Interceptor;
+import nablarch.fw.MethodBinder;
+import nablarch.fw.Result;
+import nablarch.fw.handler.MethodBinding;
+import nablarch.fw.web.HttpRequest;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MethodHandle}から生成したクラスでアクションのメソッドを呼び出す、ルーティング用の{@link MethodBinder}の実装クラス。
+ * <p>
+ * ディスパッチ先のメソッドの特定方法やインターセプタの適用など、{@link RoutesMethodBinder}と同じ振る舞いをする。
+ * ディスパッチ先のメソッドは、アクションクラスとメソッド名ごとに一度だけ、{@link LambdaMetafactory}で
+ * そのメソッドを直接呼び出すクラスに変換し、以降のリクエストでは{@link Method#invoke(Object, Object...)}ではなく
+ * 変換したクラスで呼び出す。変換したクラスでは呼び出すメソッドが定数となるため、JITコンパイラがインライン化できる。
+ * </p>
+ * <p>
+ * アクションクラスがpublicでない場合や、このクラスのクラスローダから参照できない場合は変換できないため、
+ * {@link Method#invoke(Object, Object...)}で呼び出す。
+ * </p>
+ */
+public class MethodHandleRoutesMethodBinder implements MethodBinder<HttpRequest, Object> {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(MethodHandleRoutesMethodBinder.class);
+
+    /** 呼び出し用のクラスを生成する{@link MethodHandles.Lookup} */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** 戻り値のあるメソッドを呼び出す{@link Invoker}のメソッドの型 */
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, HttpRequest.class, ExecutionContext.class);
+
+    /** 戻り値のないメソッドを呼び出す{@link VoidInvoker}のメソッドの型 */
+    private static final MethodType VOID_INVOKER_TYPE =
+            MethodType.methodType(void.class, Object.class, HttpRequest.class, ExecutionContext.class);
+
+    /** アクションクラスごとの、メソッド名と呼び出し情報 */
+    private static final ClassValue<ConcurrentMap<String, ActionInvoker>> INVOKERS =
+            new ClassValue<ConcurrentMap<String, ActionInvoker>>() {
+                @Override
+                protected ConcurrentMap<String, ActionInvoker> computeValue(Class<?> actionClass) {
+                    return new ConcurrentHashMap<String, ActionInvoker>();
+                }
+            };
+
+    /** ディスパッチするメソッド名 */
+    private final String methodName;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param methodName メソッド名
+     */
+    public MethodHandleRoutesMethodBinder(final String methodName) {
+        this.methodName = methodName;
+    }
+
+    @Override
+    public HandlerWrapper<HttpRequest, Object> bind(final Object delegate) {
+        return new MethodBinding<HttpRequest, Object>(delegate) {
+            @Override
+            protected Method getMethodBoundTo(final HttpRequest httpRequest, final ExecutionContext executionContext) {
+                return ActionMethodTable.getMethod(delegate.getClass(), methodName);
+            }
+
+            @Override
+            public Object handle(final HttpRequest httpRequest, final ExecutionContext executionContext) {
+                final ActionInvoker invoker = invokerOf(delegate.getClass(), methodName);
+                if (invoker == null) {
+                    throw new Result.NotFound("Couldn't find method to delegate.: " + httpRequest);
+                }
+                final Handler<HttpRequest, Object> handler = new Handler<HttpRequest, Object>() {
+                    @Override
+                    public Object handle(final HttpRequest request, final ExecutionContext context) {
+                        saveBoundClassAndMethodToRequestScope(context, invoker.method.getDeclaringClass(), invoker.method);
+                        return invoker.invoke(delegate, request, context);
+                    }
+                };
+                return Interceptor.Factory.wrap(handler, invoker.annotations).handle(httpRequest, executionContext);
+            }
+        };
+    }
+
+    /**
+     * アクションクラスとメソッド名に対応する呼び出し情報を取得する。
+     *
+     * @param actionClass アクションクラス
+     * @param methodName メソッド名
+     * @return 呼び出し情報。ディスパッチ対象のメソッドが存在しない場合は{@code null}
+     */
+    private static ActionInvoker invokerOf(final Class<?> actionClass, final String methodName) {
+        final ConcurrentMap<String, ActionInvoker> invokers = INVOKERS.get(actionClass);
+        ActionInvoker invoker = invokers.get(methodName);
+        if (invoker != null) {
+            return invoker;
+        }
+        // ディスパッチ対象のメソッドが存在する場合のみ保持するため、保持する件数はメソッド数が上限となる
+        final Method method = ActionMethodTable.getMethod(actionClass, methodName);
+        if (method == null) {
+            return null;
+        }
+        invoker = new ActionInvoker(method);
+        final ActionInvoker current = invokers.putIfAbsent(methodName, invoker);
+        return current == null ? invoker : current;
+    }
+
+    /**
+     * 戻り値のあるアクションのメソッドを呼び出すインターフェース。
+     */
+    interface Invoker {
+
+        /**
+         * メソッドを呼び出す。
+         *
+         * @param action アクション
+         * @param request リクエスト
+         * @param context 実行コンテキスト
+         * @return メソッドの戻り値
+         * @throws Exception メソッドが送出した例外
+         */
+        Object invoke(Object action, HttpRequest request, ExecutionContext context) throws Exception;
+    }
+
+    /**
+     * 戻り値のないアクションのメソッドを呼び出すインターフェース。
+     */
+    interface VoidInvoker {
+
+        /**
+         * メソッドを呼び出す。
+         *
+         * @param action アクション
+         * @param request リクエスト
+         * @param context 実行コンテキスト
+         * @throws Exception メソッドが送出した例外
+         */
+        void invoke(Object action, HttpRequest request, ExecutionContext context) throws Exception;
+    }
+
+    /**
+     * アクションのメソッドの呼び出し情報。
+     */
+    private static final class ActionInvoker {
+
+        /** ディスパッチ先のメソッド */
+        private final Method method;
+
+        /** メソッドに付与されたアノテーション */
+        private final Annotation[] annotations;
+
+        /** 戻り値のあるメソッドを呼び出す{@link Invoker}。生成していない場合は{@code null} */
+        private final Invoker invoker;
+
+        /** 戻り値のないメソッドを呼び出す{@link VoidInvoker}。生成していない場合は{@code null} */
+        private final VoidInvoker voidInvoker;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param method ディスパッチ先のメソッド
+         */
+        private ActionInvoker(final Method method) {
+            this.method = method;
+            this.annotations = method.getAnnotations();
+            Object generated = null;
+            if (isVisible(method.getDeclaringClass())) {
+                try {
+                    generated = generate(method);
+                } catch (IllegalAccessException | LambdaConversionException e) {
+                    LOGGER.logDebug("action method is invoked by reflection. method = [" + method + "]", e);
+                }
+            }
+            this.invoker = generated instanceof Invoker ? (Invoker) generated : null;
+            this.voidInvoker = generated instanceof VoidInvoker ? (VoidInvoker) generated : null;
+        }
+
+        /**
+         * メソッドを直接呼び出す{@link Invoker}、または{@link VoidInvoker}を生成する。
+         *
+         * @param method ディスパッチ先のメソッド
+         * @return 戻り値のないメソッドの場合は{@link VoidInvoker}、それ以外の場合は{@link Invoker}
+         * @throws IllegalAccessException メソッドにアクセスできない場合
+         * @throws LambdaConversionException 生成に失敗した場合
+         */
+        private static Object generate(final Method method) throws IllegalAccessException, LambdaConversionException {
+            final MethodHandle target = LOOKUP.unreflect(method);
+            final boolean isVoid = method.getReturnType() == void.class;
+            final Class<?> interfaceType = isVoid ? VoidInvoker.class : Invoker.class;
+            final CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "invoke",
+                    MethodType.methodType(interfaceType), isVoid ? VOID_INVOKER_TYPE : INVOKER_TYPE, target,
+                    isVoid ? target.type() : target.type().changeReturnType(
+                            MethodType.methodType(method.getReturnType()).wrap().returnType()));
+            try {
+                return callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                throw new LambdaConversionException("failed to generate invoker. method = [" + method + "]", e);
+            }
+        }
+
+        /**
+         * アクションクラスが、呼び出し用のクラスを定義するこのクラスのクラスローダから参照できるか否か。
+         *
+         * @param actionClass アクションクラス
+         * @return 参照できる場合は{@code true}
+         */
+        private static boolean isVisible(final Class<?> actionClass) {
+            try {
+                return Class.forName(actionClass.getName(), false,
+                        MethodHandleRoutesMethodBinder.class.getClassLoader()) == actionClass;
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        /**
+         * メソッドを呼び出す。
+         * <p>
+         * 例外の扱いは{@link MethodBinding}と同じとする。
+         * 実行時例外とエラーはそのまま送出し、それ以外の例外は{@link RuntimeException}でラップして送出する。
+         * </p>
+         *
+         * @param delegate アクション
+         * @param request リクエスト
+         * @param context 実行コンテキスト
+         * @return メソッドの戻り値
+         */
+        private Object invoke(final Object delegate, final HttpRequest request, final ExecutionContext context) {
+            try {
+                if (invoker != null) {
+                    return invoker.invoke(delegate, request, context);
+                }
+                if (voidInvoker != null) {
+                    voidInvoker.invoke(delegate, request, context);
+                    return null;
+                }
+                return method.invoke(delegate, request, context);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package nablarch.integration.router;
+
+import nablarch.fw.MethodBinder;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.handler.MethodBinderFactory;
+
+/**
+ * {@link MethodHandleRoutesMethodBinder}を生成するファクトリクラス。
+ * <p>
+ * アクションのメソッドを、リフレクションではなく{@link java.lang.invoke.LambdaMetafactory}で生成したクラスで呼び出す場合に、
+ * {@link RoutesMethodBinderFactory}の代わりに使用する。<br>
+ * 同じメソッド名に対しては生成済みのインスタンスを再利用する。
+ * </p>
+ */
+public class MethodHandleRoutesMethodBinderFactory implements MethodBinderFactory {
+
+    /** 生成した{@link MethodHandleRoutesMethodBinder} */
+    private final MethodBinderCache binders = new MethodBinderCache();
+
+    @Override
+    public MethodBinder<HttpRequest, Object> create(final String methodName) {
+        final MethodBinder<HttpRequest, Object> binder = binders.get(methodName);
+        if (binder != null) {
+            return binder;
+        }
+        return binders.put(methodName, new MethodHandleRoutesMethodBinder(methodName));
+    }
+}
@@ -0,0 +1,161 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTTPメソッドごとにルーティング定義を分割してマッチングを行う {@link RouteMatcher} を生成するクラス。
+ * <p>
+ * ルーティング定義の条件(conditions)に指定されたHTTPメソッドごとに、そのHTTPメソッドを許可する定義だけを
+ * 定義順に集めて {@link RouteMatcher} を生成する。
+ * リクエストのHTTPメソッドに対応する {@link RouteMatcher} だけでマッチングを行うため、
+ * 他のHTTPメソッドの定義とパスを照合することはない。
+ * </p>
+ * <p>
+ * HTTPメソッドが指定されていない定義は、全てのHTTPメソッドの {@link RouteMatcher} に含める。<br>
+ * 各HTTPメソッドの {@link RouteMatcher} は、 {@link #setRouteMatcherFactory(RouteMatcherFactory)} で
+ * 設定した {@link RouteMatcherFactory} で生成する(デフォルトは {@link RecognizerRouteMatcherFactory})。
+ * </p>
+ * <p>
+ * {@link RoutesMapping} でroutes定義ファイルを再読み込みした場合は、変更のあった定義を許可するHTTPメソッドの
+ * {@link RouteMatcher} だけを生成し直し、それ以外は再読み込み前のものを再利用する。
+ * </p>
+ */
+public class MethodPartitionedRouteMatcherFactory implements CompiledRouteMatcherFactory {
+
+    /** HTTPメソッドごとの {@link RouteMatcher} を生成する {@link RouteMatcherFactory} */
+    private RouteMatcherFactory routeMatcherFactory = new RecognizerRouteMatcherFactory();
+
+    @Override
+    public RouteMatcher create(List<PathOptions> pathOptionsList) {
+        return create(CompiledRoute.compile(pathOptionsList), null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 再読み込みの場合は、追加された定義と削除された定義のいずれも許可しないHTTPメソッドの {@link RouteMatcher} を、
+     * 再読み込み前に生成したものから再利用する。
+     * それ以外のHTTPメソッドの {@link RouteMatcher} だけを生成し直す。
+     * </p>
+     */
+    @Override
+    public RouteMatcher create(List<CompiledRoute> compiledRoutes, RouteMatcher previous, RoutesDiff diff) {
+        MethodPartitionedRouteMatcher reusable = diff != null && previous instanceof MethodPartitionedRouteMatcher
+                && ((MethodPartitionedRouteMatcher) previous).routeMatcherFactory == routeMatcherFactory
+                ? (MethodPartitionedRouteMatcher) previous : null;
+
+        Set<String> methods = new LinkedHashSet<String>();
+        List<CompiledRoute> anyMethodRoutes = new ArrayList<CompiledRoute>();
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            if (compiledRoute.getMethods().isEmpty()) {
+                anyMethodRoutes.add(compiledRoute);
+            } else {
+                methods.addAll(compiledRoute.getMethods());
+            }
+        }
+
+        Map<String, RouteMatcher> routeMatchers = new HashMap<String, RouteMatcher>();
+        for (String method : methods) {
+            RouteMatcher previousRouteMatcher = reusable == null ? null : reusable.routeMatchers.get(method);
+            if (previousRouteMatcher != null && !diff.affectsMethod(method)) {
+                routeMatchers.put(method, previousRouteMatcher);
+                continue;
+            }
+            List<CompiledRoute> methodRoutes = new ArrayList<CompiledRoute>();
+            for (CompiledRoute compiledRoute : compiledRoutes) {
+                if (compiledRoute.acceptsMethod(method)) {
+                    methodRoutes.add(compiledRoute);
+                }
+            }
+            routeMatchers.put(method, createPartition(methodRoutes, previousRouteMatcher, diff));
+        }
+
+        RouteMatcher anyMethodRouteMatcher = null;
+        if (!anyMethodRoutes.isEmpty()) {
+            RouteMatcher previousRouteMatcher = reusable == null ? null : reusable.anyMethodRouteMatcher;
+            anyMethodRouteMatcher = previousRouteMatcher != null && !diff.affectsMethod(null)
+                    ? previousRouteMatcher : createPartition(anyMethodRoutes, previousRouteMatcher, diff);
+        }
+        return new MethodPartitionedRouteMatcher(routeMatchers, anyMethodRouteMatcher, routeMatcherFactory);
+    }
+
+    /**
+     * HTTPメソッドごとの {@link RouteMatcher} を生成する。
+     * <p>
+     * 設定した {@link RouteMatcherFactory} が {@link CompiledRouteMatcherFactory} の場合は、構築済みのルートを再利用する。
+     * </p>
+     *
+     * @param compiledRoutes HTTPメソッドを許可する構築済みのルートのリスト
+     * @param previous 再読み込み前の同じHTTPメソッドの {@link RouteMatcher}。存在しない場合は{@code null}
+     * @param diff 再読み込み前のルーティング定義との差分。初回の読み込みの場合は{@code null}
+     * @return {@link RouteMatcher}
+     */
+    private RouteMatcher createPartition(List<CompiledRoute> compiledRoutes, RouteMatcher previous, RoutesDiff diff) {
+        if (routeMatcherFactory instanceof CompiledRouteMatcherFactory) {
+            return ((CompiledRouteMatcherFactory) routeMatcherFactory).create(
+                    CompiledRoute.renumber(compiledRoutes), previous, diff);
+        }
+        List<PathOptions> pathOptionsList = new ArrayList<PathOptions>(compiledRoutes.size());
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            pathOptionsList.add(compiledRoute.getPathOptions());
+        }
+        return routeMatcherFactory.create(pathOptionsList);
+    }
+
+    /**
+     * HTTPメソッドごとの {@link RouteMatcher} を生成する {@link RouteMatcherFactory} を設定する。
+     * @param routeMatcherFactory {@link RouteMatcherFactory}
+     */
+    public void setRouteMatcherFactory(RouteMatcherFactory routeMatcherFactory) {
+        this.routeMatcherFactory = routeMatcherFactory;
+    }
+
+    /**
+     * リクエストのHTTPメソッドに対応する {@link RouteMatcher} に処理を委譲する {@link RouteMatcher} 。
+     */
+    private static class MethodPartitionedRouteMatcher implements RouteMatcher {
+
+        /** HTTPメソッドごとの {@link RouteMatcher} */
+        private final Map<String, RouteMatcher> routeMatchers;
+
+        /** HTTPメソッドが指定されていない定義だけを持つ {@link RouteMatcher} (該当する定義がない場合は{@code null}) */
+        private final RouteMatcher anyMethodRouteMatcher;
+
+        /** HTTPメソッドごとの {@link RouteMatcher} を生成した {@link RouteMatcherFactory} */
+        private final RouteMatcherFactory routeMatcherFactory;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param routeMatchers HTTPメソッドごとの {@link RouteMatcher}
+         * @param anyMethodRouteMatcher HTTPメソッドが指定されていない定義だけを持つ {@link RouteMatcher}
+         * @param routeMatcherFactory HTTPメソッドごとの {@link RouteMatcher} を生成した {@link RouteMatcherFactory}
+         */
+        MethodPartitionedRouteMatcher(Map<String, RouteMatcher> routeMatchers, RouteMatcher anyMethodRouteMatcher,
+                                      RouteMatcherFactory routeMatcherFactory) {
+            this.routeMatchers = routeMatchers;
+            this.anyMethodRouteMatcher = anyMethodRouteMatcher;
+            this.routeMatcherFactory = routeMatcherFactory;
+        }
+
+        @Override
+        public Options recognize(String path, String method) {
+            RouteMatcher routeMatcher = routeMatchers.get(method);
+            if (routeMatcher == null) {
+                routeMatcher = anyMethodRouteMatcher;
+            }
+            if (routeMatcher == null) {
+                throw new RoutingException("No route matches " + path);
+            }
+            return routeMatcher.recognize(path, method);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package nablarch.integration.router;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * HTTPメソッドとパスをキーに値を保持する、件数に上限のあるキャッシュ。
+ * <p>
+ * 保持する件数が上限を超えた場合は、最も長く参照されていない値から破棄する。<br>
+ * 複数のスレッドから同時に参照できるよう、キーのハッシュ値で分割した領域ごとに排他制御を行う。
+ * そのため、破棄される値は領域ごとに判定され、全体で厳密に最も長く参照されていない値とは限らない。
+ * なお、仮想スレッドから参照した場合にキャリアスレッドを占有しないよう、排他制御には {@link ReentrantLock} を使用する。
+ * </p>
+ *
+ * @param <V> 値の型
+ */
+final class MethodPathLruCache<V> {
+
+    /** 領域の最大分割数 */
+    private static final int MAX_SEGMENTS = 16;
+
+    /** 領域を分割する単位となる件数 */
+    private static final int SEGMENT_UNIT_SIZE = 64;
+
+    /** ヒット数 */
+    private final AtomicLong hitCount;
+
+    /** ミス数 */
+    private final AtomicLong missCount;
+
+    /** 破棄数 */
+    private final AtomicLong evictionCount;
+
+    /** 最大件数 */
+    private final int maxSize;
+
+    /** 分割した領域 */
+    private volatile List<Segment> segments;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param maxSize 最大件数
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    MethodPathLruCache(int maxSize) {
+        this(validate(maxSize), new AtomicLong(), new AtomicLong(), new AtomicLong());
+    }
+
+    /**
+     * ヒット数、ミス数、破棄数を共有するキャッシュを生成するコンストラクタ。
+     *
+     * @param maxSize 最大件数
+     * @param hitCount ヒット数
+     * @param missCount ミス数
+     * @param evictionCount 破棄数
+     */
+    private MethodPathLruCache(int maxSize, AtomicLong hitCount, AtomicLong missCount, AtomicLong evictionCount) {
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.segments = createSegments();
+    }
+
+    /**
+     * 最大件数を検証する。
+     *
+     * @param maxSize 最大件数
+     * @return 最大件数
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    private static int validate(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0. maxSize = [" + maxSize + "]");
+        }
+        return maxSize;
+    }
+
+    /**
+     * HTTPメソッドとパスに対応する値を取得する。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @return 値。保持していない場合は{@code null}
+     */
+    V get(String method, String path) {
+        Key key = new Key(method, path);
+        V value = segmentFor(key).get(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * HTTPメソッドとパスに対応する値を格納する。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @param value 値
+     */
+    void put(String method, String path, V value) {
+        Key key = new Key(method, path);
+        segmentFor(key).put(key, value);
+    }
+
+    /**
+     * 保持している値を全て破棄する。ヒット数、ミス数、破棄数はクリアしない。
+     */
+    void clear() {
+        segments = createSegments();
+    }
+
+    /**
+     * 条件を満たさない値を引き継いだ、新しいキャッシュを生成する。
+     * <p>
+     * 生成したキャッシュは、最大件数とヒット数、ミス数、破棄数をこのキャッシュと共有する。
+     * 値は参照順を保ったまま引き継ぎ、破棄数には含めない。
+     * 生成した後にこのキャッシュに格納した値は、生成したキャッシュには反映されない。
+     * </p>
+     *
+     * @param condition HTTPメソッドとパスを受け取り、引き継がない場合に{@code true}を返す条件
+     * @return 生成したキャッシュ
+     */
+    MethodPathLruCache<V> renew(BiPredicate<String, String> condition) {
+        MethodPathLruCache<V> renewed = new MethodPathLruCache<V>(maxSize, hitCount, missCount, evictionCount);
+        for (Segment segment : segments) {
+            segment.copyTo(renewed, condition);
+        }
+        return renewed;
+    }
+
+    /**
+     * @return 保持している件数
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return ヒット数
+     */
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return ミス数
+     */
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return 最大件数を超えたために破棄した件数
+     */
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * キーに対応する領域を取得する。
+     *
+     * @param key キー
+     * @return 領域
+     */
+    private Segment segmentFor(Key key) {
+        List<Segment> current = segments;
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return current.get((hash & Integer.MAX_VALUE) % current.size());
+    }
+
+    /**
+     * 最大件数を分割した領域を生成する。
+     *
+     * @return 領域
+     */
+    private List<Segment> createSegments() {
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / SEGMENT_UNIT_SIZE));
+        List<Segment> created = new ArrayList<Segment>(count);
+        for (int i = 0; i < count; i++) {
+            created.add(new Segment(maxSize / count + (i < maxSize % count ? 1 : 0)));
+        }
+        return created;
+    }
+
+    /**
+     * 排他制御の単位となる領域。
+     */
+    private final class Segment {
+
+        /** 参照順に並べた値 */
+        private final LinkedHashMap<Key, V> entries;
+
+        /** 排他制御に使用するロック */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * コンストラクタ。
+         *
+         * @param capacity この領域の最大件数
+         */
+        private Segment(final int capacity) {
+            entries = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                    if (size() > capacity) {
+                        evictionCount.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * キーに対応する値を取得する。
+         *
+         * @param key キー
+         * @return 値。存在しない場合は{@code null}
+         */
+        private V get(Key key) {
+            lock.lock();
+            try {
+                return entries.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * キーに対応する値を格納する。
+         *
+         * @param key キー
+         * @param value 値
+         */
+        private void put(Key key, V value) {
+            lock.lock();
+            try {
+                entries.put(key, value);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 条件を満たさない値を、参照順に別のキャッシュに格納する。
+         *
+         * @param target 格納先のキャッシュ
+         * @param condition HTTPメソッドとパスを受け取り、格納しない場合に{@code true}を返す条件
+         */
+        private void copyTo(MethodPathLruCache<V> target, BiPredicate<String, String> condition) {
+            lock.lock();
+            try {
+                for (Map.Entry<Key, V> entry : entries.entrySet()) {
+                    Key key = entry.getKey();
+                    if (!condition.test(key.method, key.path)) {
+                        target.segmentFor(key).put(key, entry.getValue());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return 格納している件数
+         */
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * HTTPメソッドとパスの組み合わせのキー。
+     */
+    private static final class Key {
+
+        /** HTTPメソッド */
+        private final String method;
+
+        /** パス */
+        private final String path;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param method HTTPメソッド
+         * @param path パス
+         */
+        private Key(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return (method == null ? key.method == null : method.equals(key.method)) && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (method == null ? 0 : method.hashCode()) + path.hashCode();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package nablarch.integration.router;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import net.unit8.http.router.ARStringUtil;
 import net.unit8.http.router.ControllerDetector;
@@ -14,32 +19,149 @@ import nablarch.core.util.ResourcesUtil.Resources;
 import nablarch.core.util.StringUtil;
 
 /**
+ * ベースパッケージ配下のアクションクラスから、コントローラのパスを検出するクラス。
+ * <p>
+ * ベースパッケージを指定せずに生成した場合は、システムリポジトリに"packageMapping"という名前で登録された
+ * {@link RoutesMapping} のベースパッケージを使用する。
+ * </p>
+ * <p>
+ * 検出結果はインスタンスごとにキャッシュし、同じベースパッケージに対しては再度検出しない。
+ * {@link RoutesMapping} はハンドラごとに1つのインスタンスを生成し、全てのルーティング定義で共有して
+ * routes定義ファイルの再読み込みの後も使い続けるため、検出はハンドラごとに1回となる。
+ * アプリケーションの実行中に追加されたアクションクラスを検出する場合は、
+ * {@link RoutesMapping#redetectControllers()} でインスタンスを生成し直す。
+ * ベースパッケージ配下のクラスが複数のリソース(ディレクトリやJARファイル)に含まれる場合は、リソースごとに並列で検出する。
+ * 検出結果の順序は、逐次で検出した場合と同じとなる。
+ * </p>
+ *
  * @author kawasima
  */
 public class NablarchControllerDetector implements ControllerDetector {
+
+    /** ベースパッケージ */
+    private final String basePackage;
+
+    /** 検出結果 */
+    private volatile Detected detected;
+
+    /**
+     * コンストラクタ。
+     * <p>
+     * システムリポジトリに"packageMapping"という名前で登録された {@link RoutesMapping} のベースパッケージを使用する。
+     * </p>
+     */
+    public NablarchControllerDetector() {
+        this(null);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param basePackage ベースパッケージ。{@code null}の場合は"packageMapping"のベースパッケージを使用する
+     */
+    public NablarchControllerDetector(String basePackage) {
+        this.basePackage = basePackage;
+    }
+
     @Override
     public List<String> detect() {
+        final String actionBasePackage = resolveBasePackage();
+        final Detected current = detected;
+        if (current != null && current.basePackage.equals(actionBasePackage)) {
+            return current.controllers;
+        }
+        final List<String> controllers = Collections.unmodifiableList(detect(actionBasePackage));
+        detected = new Detected(actionBasePackage, controllers);
+        return controllers;
+    }
+
+    /**
+     * コントローラを検出するベースパッケージを特定する。
+     *
+     * @return ベースパッケージ
+     * @throws IllegalStateException ベースパッケージを特定できない場合
+     */
+    private String resolveBasePackage() {
+        if (basePackage != null) {
+            return basePackage;
+        }
+        final Object packageMapping = SystemRepository.getObject("packageMapping");
+        if (packageMapping instanceof RoutesMapping && ((RoutesMapping) packageMapping).getBasePackage() != null) {
+            return ((RoutesMapping) packageMapping).getBasePackage();
+        }
+        throw new IllegalStateException("base package of controllers could not be resolved."
+                + " specify the base package or register RoutesMapping with the base package as \"packageMapping\".");
+    }
+
+    /**
+     * ベースパッケージ配下のアクションクラスからコントローラのパスを検出する。
+     * <p>
+     * リソースが複数の場合は、リソースごとに並列で検出し、リソースの順に結合する。
+     * </p>
+     *
+     * @param actionBasePackage ベースパッケージ
+     * @return コントローラのパス
+     */
+    private static List<String> detect(final String actionBasePackage) {
+        final Resources[] resourcesTypes = ResourcesUtil.getResourcesTypes(actionBasePackage);
+        if (resourcesTypes.length == 1) {
+            return detect(resourcesTypes[0], actionBasePackage);
+        }
+        final List<List<String>> detectedByResources = Arrays.asList(resourcesTypes).parallelStream()
+                .map(resources -> detect(resources, actionBasePackage))
+                .collect(Collectors.toList());
         final List<String> controllers = new ArrayList<String>();
-        RoutesMapping mapping = (RoutesMapping) SystemRepository.getObject("packageMapping");
-        final String actionBasePackage = mapping.getBasePackage();
+        for (List<String> detectedByResource : detectedByResources) {
+            controllers.addAll(detectedByResource);
+        }
+        return controllers;
+    }
 
-        for (Resources resources: ResourcesUtil.getResourcesTypes(actionBasePackage)) {
+    /**
+     * リソースに含まれるアクションクラスからコントローラのパスを検出する。
+     *
+     * @param resources リソース
+     * @param actionBasePackage ベースパッケージ
+     * @return コントローラのパス
+     */
+    private static List<String> detect(final Resources resources, final String actionBasePackage) {
+        final List<String> controllers = new ArrayList<String>();
+        // 同じパッケージのクラスは続けて処理されることが多いため、パッケージのパスへの変換結果を再利用する
+        final Map<String, String> packagePaths = new HashMap<String, String>();
+        try {
             resources.forEach(new ClassHandler() {
                 @Override
                 public void process(String packageName, String shortClassName) {
-                    final String pkgPath = ARStringUtil.removeStart(packageName, actionBasePackage);
-                    final String uncapitalizedShortClassName = ControllerUtil.fromClassNameToPath(shortClassName);
-                    final String actionPath = StringUtil.chomp(uncapitalizedShortClassName, "Action");
-
-                    StringBuilder sb = new StringBuilder(256);
-                    if (StringUtil.hasValue(pkgPath)) {
-                        sb.append(pkgPath.substring(1).replace('.', '/')).append('/');
+                    String packagePath = packagePaths.get(packageName);
+                    if (packagePath == null) {
+                        final String pkgPath = ARStringUtil.removeStart(packageName, actionBasePackage);
+                        packagePath = StringUtil.hasValue(pkgPath) ? pkgPath.substring(1).replace('.', '/') + '/' : "";
+                        packagePaths.put(packageName, packagePath);
                     }
-                    sb.append(actionPath);
-                    controllers.add(sb.toString());
+                    final String uncapitalizedShortClassName = ControllerUtil.fromClassNameToPath(shortClassName);
+                    controllers.add(packagePath.concat(StringUtil.chomp(uncapitalizedShortClassName, "Action")));
                 }
             });
+        } finally {
+            resources.close();
         }
         return controllers;
     }
+
+    /**
+     * ベースパッケージと、そのベースパッケージで検出したコントローラのパス。
+     */
+    private static final class Detected {
+
+        /** ベースパッケージ */
+        private final String basePackage;
+
+        /** コントローラのパス */
+        private final List<String> controllers;
+
+        private Detected(String basePackage, List<String> controllers) {
+            this.basePackage = basePackage;
+            this.controllers = controllers;
+        }
+    }
 }
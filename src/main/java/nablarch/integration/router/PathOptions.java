@@ -1,6 +1,7 @@
 package nablarch.integration.router;
 
 import nablarch.core.util.annotation.Published;
+import net.unit8.http.router.ControllerDetector;
 import net.unit8.http.router.Options;
 
 /**
@@ -12,6 +13,7 @@ import net.unit8.http.router.Options;
 public class PathOptions {
     private final String path;
     private final Options options;
+    private final ControllerDetector controllerDetector;
 
     /**
      * コンストラクタ。
@@ -19,8 +21,20 @@ public class PathOptions {
      * @param options パスに割り当てられた設定
      */
     public PathOptions(String path, Options options) {
+        this(path, options, null);
+    }
+
+    /**
+     * コンストラクタ。
+     * @param path パス
+     * @param options パスに割り当てられた設定
+     * @param controllerDetector パスの":controller"にマッチするコントローラを検出する {@link ControllerDetector}
+     *                           ({@code null}の場合はhttp-request-routerの設定に従う)
+     */
+    PathOptions(String path, Options options, ControllerDetector controllerDetector) {
         this.path = path;
         this.options = options;
+        this.controllerDetector = controllerDetector;
     }
 
     /**
@@ -38,4 +52,12 @@ public class PathOptions {
     public Options getOptions() {
         return options;
     }
+
+    /**
+     * パスの":controller"にマッチするコントローラを検出する {@link ControllerDetector} を取得する。
+     * @return {@link ControllerDetector}。http-request-routerの設定に従う場合は{@code null}
+     */
+    ControllerDetector getControllerDetector() {
+        return controllerDetector;
+    }
 }
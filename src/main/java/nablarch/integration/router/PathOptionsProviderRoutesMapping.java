@@ -11,21 +11,39 @@ import nablarch.fw.web.handler.RoutingHandlerSupport;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 import net.unit8.http.router.ARStringUtil;
 import net.unit8.http.router.Options;
-import net.unit8.http.router.RouteSet;
 import net.unit8.http.router.RoutingException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * {@link PathOptionsProvider} から取得したルーティング定義をベースにActionメソッドを特定するハンドラ。
+ * <p>
+ * ルーティング定義のマッチングは、{@link RouteMatcherFactory} で生成した {@link RouteMatcher} で行う。
+ * {@link RouteMatcherFactory} が設定されていない場合は {@link MethodPartitionedRouteMatcherFactory} を使用し、
+ * HTTPメソッドごとに分割したルーティング定義に対してマッチングを行う。<br>
+ * なお、パスパラメータを含まないルーティング定義は、{@link RouteMatcher} によるマッチングの前に
+ * HTTPメソッドとパスの完全一致で検索する。
+ * </p>
+ * <p>
+ * {@link RouteRecognitionCache} を設定した場合、HTTPメソッドとパスごとにルーティングの結果をキャッシュする。
+ * {@link RouteMissCache} を設定した場合、ルーティング定義にマッチしなかったHTTPメソッドとパスをキャッシュし、
+ * 同じリクエストに対してはマッチングを行わずに404を返す。
+ * </p>
  * 
  * @author Tanaka Tomoyuki
  */
 public class PathOptionsProviderRoutesMapping extends RoutingHandlerSupport implements Initializable {
     private static final Logger LOGGER = LoggerManager.get(PathOptionsProviderRoutesMapping.class);
 
-    private final RouteSet routeSet = new RouteSet();
+    private RouteMatcherFactory routeMatcherFactory = new MethodPartitionedRouteMatcherFactory();
+    private RouteMatcher routeMatcher;
+    private RouteRecognitionCache routeRecognitionCache;
+    private RouteMissCache routeMissCache;
+    private final ControllerClassCache controllerClassCache = new ControllerClassCache();
+    private boolean eagerResolution = false;
+    private ActionDispatchTable actionDispatchTable;
     private String baseUri = "";
     private PathOptionsProvider pathOptionsProvider;
     private PathOptionsFormatter pathOptionsFormatter = new SimplePathOptionsFormatter();
@@ -34,22 +52,64 @@ public class PathOptionsProviderRoutesMapping extends RoutingHandlerSupport impl
     protected Class<?> getHandlerClass(HttpRequest request, ExecutionContext executionContext) throws ClassNotFoundException {
         try {
             String path = getPath(request, executionContext);
-            Options options = routeSet.recognizePath(path, request.getMethod());
+            RecognizedRoute route = routeRecognitionCache == null ? null : routeRecognitionCache.get(request.getMethod(), path);
+            if (route == null) {
+                route = recognize(path, request.getMethod());
+                if (routeRecognitionCache != null) {
+                    routeRecognitionCache.put(request.getMethod(), path, route);
+                }
+            }
 
-            executionContext.setMethodBinder(methodBinderFactory.create((String) options.get("action")));
+            executionContext.setMethodBinder(route.getMethodBinder() != null
+                    ? route.getMethodBinder() : methodBinderFactory.create(route.getAction()));
 
-            Options params = options.except("controller", "action");
-            for (Map.Entry<String, Object> option : params.entrySet()) {
-                if (option.getValue() != null) {
-                    request.setParam(option.getKey(), option.getValue().toString());
-                }
+            for (Map.Entry<String, String> param : route.getParams().entrySet()) {
+                request.setParam(param.getKey(), param.getValue());
             }
 
-            return Thread.currentThread().getContextClassLoader().loadClass((String) options.get("controller"));
+            return route.getControllerClass();
         } catch (RoutingException e) {
             throw new HttpErrorResponse(HttpResponse.Status.NOT_FOUND.getStatusCode(), e);
         }
     }
+
+    private RecognizedRoute recognize(String path, String method) throws ClassNotFoundException {
+        if (routeMissCache != null && routeMissCache.contains(method, path)) {
+            throw new RoutingException("No route matches " + path);
+        }
+        Options options;
+        try {
+            options = routeMatcher.recognize(path, method);
+        } catch (RoutingException e) {
+            if (routeMissCache != null) {
+                routeMissCache.put(method, path);
+            }
+            throw e;
+        }
+
+        Map<String, String> params = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, Object> option : options.except("controller", "action").entrySet()) {
+            if (option.getValue() != null) {
+                params.put(option.getKey(), option.getValue().toString());
+            }
+        }
+
+        String controller = (String) options.get("controller");
+        String action = (String) options.get("action");
+        if (actionDispatchTable != null) {
+            ActionDispatchTable.Entry entry = actionDispatchTable.find(controller, action);
+            if (entry != null) {
+                return new RecognizedRoute(entry.getControllerClass(), action, params, entry.getMethodBinder());
+            }
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Class<?> controllerClass = controllerClassCache.get(loader, controller);
+        if (controllerClass == null) {
+            controllerClass = loader.loadClass(controller);
+            controllerClassCache.put(loader, controller, controllerClass);
+        }
+        return new RecognizedRoute(controllerClass, action, params);
+    }
     
     private String getPath(HttpRequest request, ExecutionContext executionContext) {
         String path;
@@ -70,19 +130,46 @@ public class PathOptionsProviderRoutesMapping extends RoutingHandlerSupport impl
 
         List<PathOptions> pathOptionsList = pathOptionsProvider.provide();
 
-        for (PathOptions pathOptions : pathOptionsList) {
-            routeSet.addRoute(pathOptions.getPath() , pathOptions.getOptions());
+        routeMatcher = new StaticPathRouteMatcher(CompiledRoute.compile(pathOptionsList), routeMatcherFactory.create(pathOptionsList));
+        if (routeRecognitionCache != null) {
+            routeRecognitionCache.clear();
+        }
+        if (routeMissCache != null) {
+            routeMissCache.clear();
         }
         
         if (methodBinderFactory == null) {
             setMethodBinderFactory(new RoutesMethodBinderFactory());
         }
+        if (eagerResolution) {
+            actionDispatchTable = ActionDispatchTable.create(
+                    pathOptionsList, methodBinderFactory, Thread.currentThread().getContextClassLoader());
+        } else {
+            prepareMethodBinders(pathOptionsList);
+        }
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.logDebug(pathOptionsFormatter.format(pathOptionsList));
         }
     }
 
+    /**
+     * ルーティング定義に指定されたメソッド名の {@link nablarch.fw.MethodBinder} を事前に生成する。
+     * <p>
+     * {@link RoutesMethodBinderFactory} のように生成したインスタンスを再利用するファクトリの場合、
+     * リクエストの処理中に {@link nablarch.fw.MethodBinder} を生成せずに済む。
+     * </p>
+     * @param pathOptionsList ルーティング定義のリスト
+     */
+    private void prepareMethodBinders(List<PathOptions> pathOptionsList) {
+        for (PathOptions pathOptions : pathOptionsList) {
+            String action = pathOptions.getOptions().getString("action");
+            if (action != null) {
+                methodBinderFactory.create(action);
+            }
+        }
+    }
+
     /**
      * ベースURIを取得する。
      * @return ベースURI
@@ -107,6 +194,55 @@ public class PathOptionsProviderRoutesMapping extends RoutingHandlerSupport impl
         this.pathOptionsProvider = pathOptionsProvider;
     }
 
+    /**
+     * {@link RouteMatcherFactory} を設定する。
+     * @param routeMatcherFactory {@link RouteMatcherFactory}
+     */
+    public void setRouteMatcherFactory(RouteMatcherFactory routeMatcherFactory) {
+        this.routeMatcherFactory = routeMatcherFactory;
+    }
+
+    /**
+     * ルーティングの結果をキャッシュする {@link RouteRecognitionCache} を設定する。
+     * <p>
+     * 設定しない場合、ルーティングの結果はキャッシュしない。
+     * </p>
+     * @param routeRecognitionCache {@link RouteRecognitionCache}
+     */
+    public void setRouteRecognitionCache(RouteRecognitionCache routeRecognitionCache) {
+        this.routeRecognitionCache = routeRecognitionCache;
+    }
+
+    /**
+     * ルーティング定義にマッチしなかったリクエストをキャッシュする {@link RouteMissCache} を設定する。
+     * <p>
+     * 設定しない場合、マッチしなかったリクエストはキャッシュしない。
+     * </p>
+     * @param routeMissCache {@link RouteMissCache}
+     */
+    public void setRouteMissCache(RouteMissCache routeMissCache) {
+        this.routeMissCache = routeMissCache;
+    }
+
+    /**
+     * 初期化時に全てのルーティング定義のアクションクラスとメソッドを特定するか否かを設定する。
+     * <p>
+     * {@code true} を設定した場合、初期化時に全てのルーティング定義のアクションクラスをロードし、
+     * ディスパッチ先の名前のpublicメソッドが存在することを確認した上で {@link nablarch.fw.MethodBinder} を生成しておく。
+     * メソッドの引数は設定した {@link nablarch.fw.web.handler.MethodBinderFactory} によって異なるため、
+     * 初期化時には検証しない。
+     * アクションクラスのロード、またはメソッドの特定に失敗した場合は、初期化時に {@link IllegalStateException} を送出する。
+     * リクエストの処理時には、事前に特定したアクションクラスと {@link nablarch.fw.MethodBinder} を使用する。
+     * </p>
+     * <p>
+     * デフォルトは {@code false} で、リクエストの処理時にアクションクラスをロードする。
+     * </p>
+     * @param eagerResolution 初期化時にアクションクラスとメソッドを特定する場合は {@code true}
+     */
+    public void setEagerResolution(boolean eagerResolution) {
+        this.eagerResolution = eagerResolution;
+    }
+
     /**
      * {@link PathOptionsFormatter} を設定する。
      * @param pathOptionsFormatter {@link PathOptionsFormatter}
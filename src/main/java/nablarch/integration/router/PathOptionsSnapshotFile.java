@@ -0,0 +1,258 @@
+package nablarch.integration.router;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import net.unit8.http.router.Options;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * ルーティング定義のリストを保存するスナップショットファイル。
+ * <p>
+ * ルーティング定義のリストを、作成元(routes定義ファイルやクラスファイルなど)のフィンガープリントとともに
+ * バイナリ形式で保存する。読み込む際はファイルの内容をまとめてヒープに読み込み、保存されたフィンガープリントが
+ * 指定されたフィンガープリントと一致する場合のみルーティング定義のリストを復元する。
+ * ファイルをメモリマップすると、マップが解放されるまでファイルを置き換えられない環境(Windowsなど)があるため、
+ * メモリマップは使用しない。
+ * </p>
+ * <p>
+ * 保存できる設定の値は、{@link String}、{@link Options}、{@link List}、{@link Pattern} および {@code null} のみ。
+ * それ以外の値を含む場合は保存しない。
+ * 書き込みは一時ファイルに行ってから置き換えるため、書き込み途中のファイルを読み込むことはない。
+ * </p>
+ */
+final class PathOptionsSnapshotFile {
+
+    private static final Logger LOGGER = LoggerManager.get(PathOptionsSnapshotFile.class);
+
+    /** ファイルの先頭に書き込む識別子 */
+    private static final int MAGIC = 0x4E525053;
+
+    /** ファイル形式のバージョン */
+    private static final int VERSION = 1;
+
+    /** 値の種類: {@code null} */
+    private static final byte NULL = 0;
+
+    /** 値の種類: {@link String} */
+    private static final byte STRING = 1;
+
+    /** 値の種類: {@link Options} */
+    private static final byte OPTIONS = 2;
+
+    /** 値の種類: {@link List} */
+    private static final byte LIST = 3;
+
+    /** 値の種類: {@link Pattern} */
+    private static final byte PATTERN = 4;
+
+    /** スナップショットファイルのパス */
+    private final Path file;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param file スナップショットファイルのパス
+     */
+    PathOptionsSnapshotFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * スナップショットファイルからルーティング定義のリストを読み込む。
+     *
+     * @param fingerprint 作成元のフィンガープリント
+     * @return ルーティング定義のリスト。ファイルが存在しない、フィンガープリントが一致しない、
+     *         または内容が不正な場合は{@code null}
+     */
+    List<PathOptions> read(byte[] fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || !Arrays.equals(readBytes(buffer), fingerprint)) {
+                LOGGER.logDebug("route snapshot is outdated. snapshot = [" + file + "]");
+                return null;
+            }
+            int size = buffer.getInt();
+            List<PathOptions> pathOptionsList = new ArrayList<PathOptions>(size);
+            for (int i = 0; i < size; i++) {
+                String path = readString(buffer);
+                pathOptionsList.add(new PathOptions(path, (Options) readValue(buffer)));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("unexpected trailing bytes.");
+            }
+            return pathOptionsList;
+        } catch (IOException e) {
+            LOGGER.logWarn("route snapshot could not be read. snapshot = [" + file + "]", e);
+            return null;
+        } catch (RuntimeException e) {
+            // 途中で切れたファイルや、形式の異なるファイルの場合
+            LOGGER.logWarn("route snapshot is broken. snapshot = [" + file + "]", e);
+            return null;
+        }
+    }
+
+    /**
+     * ルーティング定義のリストをスナップショットファイルに書き込む。
+     * <p>
+     * 書き込みに失敗した場合は、ワーニングログを出力して処理を続ける。
+     * </p>
+     *
+     * @param fingerprint 作成元のフィンガープリント
+     * @param pathOptionsList ルーティング定義のリスト
+     */
+    void write(byte[] fingerprint, List<PathOptions> pathOptionsList) {
+        Path temporary = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeBytes(out, fingerprint);
+                out.writeInt(pathOptionsList.size());
+                for (PathOptions pathOptions : pathOptionsList) {
+                    writeString(out, pathOptions.getPath());
+                    writeValue(out, pathOptions.getOptions());
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temporary = null;
+        } catch (IOException e) {
+            LOGGER.logWarn("route snapshot could not be written. snapshot = [" + file + "]", e);
+        } catch (IllegalArgumentException e) {
+            LOGGER.logDebug("route snapshot was not written. snapshot = [" + file + "], " + e.getMessage());
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // 一時ファイルが残っても、次回の書き込みには影響しない。
+                }
+            }
+        }
+    }
+
+    /**
+     * 値を書き込む。
+     *
+     * @param out 出力先
+     * @param value 値
+     * @throws IOException 書き込みに失敗した場合
+     * @throws IllegalArgumentException 保存できない値の場合
+     */
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Options) {
+            out.writeByte(OPTIONS);
+            Options options = (Options) value;
+            out.writeInt(options.size());
+            for (Map.Entry<String, Object> entry : options.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            out.writeByte(LIST);
+            List<?> list = (List<?>) value;
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Pattern) {
+            out.writeByte(PATTERN);
+            writeString(out, ((Pattern) value).pattern());
+            out.writeInt(((Pattern) value).flags());
+        } else {
+            throw new IllegalArgumentException("unsupported value. type = [" + value.getClass().getName() + "]");
+        }
+    }
+
+    /**
+     * 値を読み込む。
+     *
+     * @param buffer 読み込み元
+     * @return 値
+     * @throws IllegalArgumentException 値の種類が不正な場合
+     * @throws BufferUnderflowException 読み込み元が途中で終わっている場合
+     */
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(buffer);
+            case OPTIONS:
+                int size = buffer.getInt();
+                Options options = new Options();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(buffer);
+                    options.put(key, readValue(buffer));
+                }
+                return options;
+            case LIST:
+                int length = buffer.getInt();
+                List<Object> list = new ArrayList<Object>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            case PATTERN:
+                String regex = readString(buffer);
+                return Pattern.compile(regex, buffer.getInt());
+            default:
+                throw new IllegalArgumentException("unknown value type. type = [" + type + "]");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid length. length = [" + length + "]");
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+}
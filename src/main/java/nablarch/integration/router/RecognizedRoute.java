@@ -0,0 +1,78 @@
+package nablarch.integration.router;
+
+import nablarch.fw.MethodBinder;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * リクエストのHTTPメソッドとパスから特定した、ルーティングの結果を保持するクラス。
+ */
+final class RecognizedRoute {
+
+    /** アクションクラス */
+    private final Class<?> controllerClass;
+
+    /** アクションのメソッド名 */
+    private final String action;
+
+    /** リクエストパラメータとして設定するパスパラメータ */
+    private final Map<String, String> params;
+
+    /** 事前に生成した{@link MethodBinder}。生成していない場合は{@code null} */
+    private final MethodBinder<?, ?> methodBinder;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param controllerClass アクションクラス
+     * @param action アクションのメソッド名
+     * @param params リクエストパラメータとして設定するパスパラメータ
+     */
+    RecognizedRoute(Class<?> controllerClass, String action, Map<String, String> params) {
+        this(controllerClass, action, params, null);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param controllerClass アクションクラス
+     * @param action アクションのメソッド名
+     * @param params リクエストパラメータとして設定するパスパラメータ
+     * @param methodBinder 事前に生成した{@link MethodBinder}
+     */
+    RecognizedRoute(Class<?> controllerClass, String action, Map<String, String> params, MethodBinder<?, ?> methodBinder) {
+        this.controllerClass = controllerClass;
+        this.action = action;
+        this.params = Collections.unmodifiableMap(params);
+        this.methodBinder = methodBinder;
+    }
+
+    /**
+     * @return アクションクラス
+     */
+    Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    /**
+     * @return アクションのメソッド名
+     */
+    String getAction() {
+        return action;
+    }
+
+    /**
+     * @return リクエストパラメータとして設定するパスパラメータ
+     */
+    Map<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * @return 事前に生成した{@link MethodBinder}。生成していない場合は{@code null}
+     */
+    MethodBinder<?, ?> getMethodBinder() {
+        return methodBinder;
+    }
+}
@@ -0,0 +1,51 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.Recognizer;
+import net.unit8.http.router.recognizer.OptimizedRecognizer;
+
+import java.util.List;
+
+/**
+ * http-request-routerの {@link OptimizedRecognizer} を使ってマッチングを行う {@link RouteMatcher} を生成するクラス。
+ * <p>
+ * {@link net.unit8.http.router.RouteSet} と同じ方法でマッチングを行う。
+ * </p>
+ */
+public class RecognizerRouteMatcherFactory implements CompiledRouteMatcherFactory {
+
+    @Override
+    public RouteMatcher create(List<PathOptions> pathOptionsList) {
+        return create(CompiledRoute.compile(pathOptionsList), null, null);
+    }
+
+    @Override
+    public RouteMatcher create(List<CompiledRoute> compiledRoutes, RouteMatcher previous, RoutesDiff diff) {
+        Recognizer recognizer = new OptimizedRecognizer();
+        recognizer.setRoutes(CompiledRoute.routesOf(compiledRoutes));
+        return new RecognizerRouteMatcher(recognizer);
+    }
+
+    /**
+     * {@link Recognizer} に処理を委譲する {@link RouteMatcher} 。
+     */
+    private static class RecognizerRouteMatcher implements RouteMatcher {
+
+        /** 委譲先の {@link Recognizer} */
+        private final Recognizer recognizer;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param recognizer 委譲先の {@link Recognizer}
+         */
+        RecognizerRouteMatcher(Recognizer recognizer) {
+            this.recognizer = recognizer;
+        }
+
+        @Override
+        public Options recognize(String path, String method) {
+            return recognizer.recognize(path, method);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package nablarch.integration.router;
+
+import nablarch.core.util.annotation.Published;
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+
+/**
+ * リクエストのパスとHTTPメソッドから、マッチするルーティング定義を特定するインターフェース。
+ * <p>
+ * 実装クラスは、ルーティング定義の順序を保ち、マッチする定義が複数ある場合は最初に定義されたものを採用すること。
+ * また、複数スレッドから同時に呼び出されても問題ないように実装すること。
+ * </p>
+ *
+ * @see RouteMatcherFactory
+ */
+@Published(tag = "architect")
+public interface RouteMatcher {
+
+    /**
+     * パスとHTTPメソッドにマッチするルーティング定義を特定し、その設定を返す。
+     *
+     * @param path リクエストパス(ベースURIを取り除き、"/"で始まる形式に正規化したもの)
+     * @param method HTTPメソッド
+     * @return マッチしたルーティング定義の設定(controller、actionおよびパスパラメータ)
+     * @throws RoutingException マッチするルーティング定義が存在しない場合
+     */
+    Options recognize(String path, String method);
+}
@@ -0,0 +1,23 @@
+package nablarch.integration.router;
+
+import nablarch.core.util.annotation.Published;
+
+import java.util.List;
+
+/**
+ * ルーティング定義から {@link RouteMatcher} を生成するファクトリインターフェース。
+ * <p>
+ * {@link RouteMatcher} の生成はハンドラの初期化時に一度だけ行われる。
+ * </p>
+ */
+@Published(tag = "architect")
+public interface RouteMatcherFactory {
+
+    /**
+     * ルーティング定義のリストから {@link RouteMatcher} を生成する。
+     *
+     * @param pathOptionsList ルーティング定義のリスト(リストの順序がマッチングの優先順位となる)
+     * @return {@link RouteMatcher}
+     */
+    RouteMatcher create(List<PathOptions> pathOptionsList);
+}
@@ -0,0 +1,125 @@
+package nablarch.integration.router;
+
+import java.util.function.BiPredicate;
+
+/**
+ * ルーティング定義にマッチしなかったリクエストをキャッシュするクラス。
+ * <p>
+ * マッチしなかったリクエストのHTTPメソッドとパスを保持し、同じリクエストに対してはマッチングを行わずに
+ * マッチしないと判定できるようにする。存在しないパスへの大量のリクエストに対して、
+ * その都度ルーティング定義とのマッチングを行うことを避けるために使用する。
+ * </p>
+ * <p>
+ * 保持する件数は {@link #setMaxSize(int)} で設定した件数までとし、超えた場合は最も長く参照されていないものから破棄する。
+ * キャッシュしている内容はルーティング定義を読み込み直した時点で無効となるため、再読み込みの際は {@link #clear()} で破棄すること。
+ * {@link RoutesMapping} は、再読み込みで追加または削除された定義にマッチするリクエストの内容のみを破棄する。
+ * </p>
+ */
+public class RouteMissCache {
+
+    /** キャッシュ。マッチしなかったリクエストに対して{@link Boolean#TRUE}を保持する */
+    private volatile MethodPathLruCache<Boolean> cache = new MethodPathLruCache<Boolean>(10000);
+
+    /**
+     * HTTPメソッドとパスのリクエストが、ルーティング定義にマッチしなかったことがあるか否か。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @return マッチしなかったことがある場合は{@code true}
+     */
+    boolean contains(String method, String path) {
+        return cache.get(method, path) != null;
+    }
+
+    /**
+     * HTTPメソッドとパスのリクエストが、ルーティング定義にマッチしなかったことを記録する。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     */
+    void put(String method, String path) {
+        cache.put(method, path, Boolean.TRUE);
+    }
+
+    /**
+     * キャッシュしている内容を全て破棄する。
+     * <p>
+     * ヒット数、ミス数、破棄数はクリアしない。
+     * </p>
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * ルーティング定義を読み込んだ際に、読み込んだルーティング定義とともに使用するキャッシュを生成する。
+     * <p>
+     * 再読み込みの場合は、追加された定義または削除された定義にマッチしないリクエストの内容を引き継ぐ。
+     * 生成した後に、これまでのキャッシュに格納された内容は引き継がないため、
+     * 再読み込み前のルーティング定義でマッチしなかったリクエストが、再読み込み後のキャッシュに残ることはない。
+     * 以降、{@link #getSize()} などは生成したキャッシュを対象とする。ヒット数、ミス数、破棄数は引き継ぐ。
+     * </p>
+     *
+     * @param diff 再読み込み前後のルーティング定義の差分。初回の読み込みの場合は{@code null}
+     * @return 生成したキャッシュ
+     */
+    MethodPathLruCache<Boolean> renew(final RoutesDiff diff) {
+        final MethodPathLruCache<Boolean> renewed = cache.renew(new BiPredicate<String, String>() {
+            @Override
+            public boolean test(final String method, final String path) {
+                return diff == null || diff.affects(method, path);
+            }
+        });
+        cache = renewed;
+        return renewed;
+    }
+
+    /**
+     * キャッシュしている件数を取得する。
+     *
+     * @return キャッシュしている件数
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * マッチングを行わずにマッチしないと判定した件数を取得する。
+     *
+     * @return ヒット数
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * キャッシュに存在しなかった件数を取得する。
+     *
+     * @return ミス数
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * 最大件数を超えたために破棄した件数を取得する。
+     *
+     * @return 破棄数
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * 最大件数を設定する。
+     * <p>
+     * デフォルトは10000件。設定した時点でキャッシュしている内容は破棄する。
+     * </p>
+     *
+     * @param maxSize 最大件数
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    public void setMaxSize(int maxSize) {
+        cache = new MethodPathLruCache<Boolean>(maxSize);
+    }
+}
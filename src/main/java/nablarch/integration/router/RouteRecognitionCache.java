@@ -0,0 +1,127 @@
+package nablarch.integration.router;
+
+import java.util.function.BiPredicate;
+
+/**
+ * ルーティングの結果をキャッシュするクラス。
+ * <p>
+ * リクエストのHTTPメソッドとパスをキーに、特定したアクションクラス、メソッド名、パスパラメータを保持する。
+ * 保持する件数は {@link #setMaxSize(int)} で設定した件数までとし、超えた場合は最も長く参照されていない結果から破棄する。
+ * </p>
+ * <p>
+ * 複数のスレッドから同時に参照できるよう、キーのハッシュ値で分割した領域ごとに排他制御を行う。
+ * そのため、破棄される結果は領域ごとに判定され、全体で厳密に最も長く参照されていない結果とは限らない。
+ * </p>
+ * <p>
+ * キャッシュのサイズを調整できるよう、ヒット数、ミス数、破棄数を取得できる。
+ * </p>
+ */
+public class RouteRecognitionCache {
+
+    /** キャッシュ */
+    private volatile MethodPathLruCache<RecognizedRoute> cache = new MethodPathLruCache<RecognizedRoute>(1000);
+
+    /**
+     * HTTPメソッドとパスに対応するルーティングの結果を取得する。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @return ルーティングの結果。キャッシュされていない場合は{@code null}
+     */
+    RecognizedRoute get(String method, String path) {
+        return cache.get(method, path);
+    }
+
+    /**
+     * HTTPメソッドとパスに対応するルーティングの結果をキャッシュする。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @param route ルーティングの結果
+     */
+    void put(String method, String path, RecognizedRoute route) {
+        cache.put(method, path, route);
+    }
+
+    /**
+     * キャッシュしている結果を全て破棄する。
+     * <p>
+     * ヒット数、ミス数、破棄数はクリアしない。
+     * </p>
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * ルーティング定義を読み込んだ際に、読み込んだルーティング定義とともに使用するキャッシュを生成する。
+     * <p>
+     * 再読み込みの場合は、追加された定義または削除された定義にマッチしないリクエストの結果を引き継ぐ。
+     * 生成した後に、これまでのキャッシュに格納された結果は引き継がないため、
+     * 再読み込み前のルーティング定義で特定した結果が、再読み込み後のキャッシュに残ることはない。
+     * 以降、{@link #getSize()} などは生成したキャッシュを対象とする。ヒット数、ミス数、破棄数は引き継ぐ。
+     * </p>
+     *
+     * @param diff 再読み込み前後のルーティング定義の差分。初回の読み込みの場合は{@code null}
+     * @return 生成したキャッシュ
+     */
+    MethodPathLruCache<RecognizedRoute> renew(final RoutesDiff diff) {
+        final MethodPathLruCache<RecognizedRoute> renewed = cache.renew(new BiPredicate<String, String>() {
+            @Override
+            public boolean test(final String method, final String path) {
+                return diff == null || diff.affects(method, path);
+            }
+        });
+        cache = renewed;
+        return renewed;
+    }
+
+    /**
+     * キャッシュしている件数を取得する。
+     *
+     * @return キャッシュしている件数
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * ヒット数を取得する。
+     *
+     * @return ヒット数
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * ミス数を取得する。
+     *
+     * @return ミス数
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * 最大件数を超えたために破棄した件数を取得する。
+     *
+     * @return 破棄数
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * 最大件数を設定する。
+     * <p>
+     * デフォルトは1000件。設定した時点でキャッシュしている結果は破棄する。
+     * </p>
+     *
+     * @param maxSize 最大件数
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    public void setMaxSize(int maxSize) {
+        cache = new MethodPathLruCache<RecognizedRoute>(maxSize);
+    }
+}
@@ -0,0 +1,332 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 再読み込み前後のルーティング定義の差分を保持するクラス。
+ * <p>
+ * パスと設定が同じ定義({@link CompiledRoute#getDefinition()} が等価な定義)を同じ定義とみなし、
+ * 定義順を保ったまま対応付けられる定義を最大限残した上で、残りを追加された定義と削除された定義とする。
+ * 残した定義は再読み込み前に構築した {@link net.unit8.http.router.Route} を再利用するため、
+ * 構築済みの正規表現もそのまま使用できる。
+ * パスの":controller"にマッチするコントローラを検出する {@link net.unit8.http.router.ControllerDetector} が
+ * 再読み込みの前後で異なる定義は、パスと設定が同じでも別の定義とみなし、構築し直す。
+ * </p>
+ * <p>
+ * 残した定義同士の定義順は変わらないため、追加された定義と削除された定義のいずれにもマッチしないリクエストは、
+ * 再読み込みの前後で同じ定義にマッチする。
+ * </p>
+ */
+final class RoutesDiff {
+
+    /** 再読み込み後の構築済みのルートのリスト */
+    private final List<CompiledRoute> compiledRoutes;
+
+    /** 追加された定義 */
+    private final List<CompiledRoute> added;
+
+    /** 削除された定義 */
+    private final List<CompiledRoute> removed;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param compiledRoutes 再読み込み後の構築済みのルートのリスト
+     * @param added 追加された定義
+     * @param removed 削除された定義
+     */
+    private RoutesDiff(List<CompiledRoute> compiledRoutes, List<CompiledRoute> added, List<CompiledRoute> removed) {
+        this.compiledRoutes = compiledRoutes;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * 再読み込み前後のルーティング定義の差分を算出し、再読み込み後のルーティング定義を構築する。
+     *
+     * @param previous 再読み込み前の構築済みのルートのリスト。読み込んでいない場合は{@code null}
+     * @param pathOptionsList 再読み込み後のルーティング定義のリスト
+     * @return 差分
+     */
+    static RoutesDiff compute(List<CompiledRoute> previous, List<PathOptions> pathOptionsList) {
+        List<CompiledRoute> previousRoutes = previous == null ? Collections.<CompiledRoute>emptyList() : previous;
+        int[] kept = keptOrders(previousRoutes, pathOptionsList);
+
+        List<CompiledRoute> reusable = new ArrayList<CompiledRoute>(pathOptionsList.size());
+        boolean[] retained = new boolean[previousRoutes.size()];
+        for (int order : kept) {
+            if (order >= 0) {
+                reusable.add(previousRoutes.get(order));
+                retained[order] = true;
+            } else {
+                reusable.add(null);
+            }
+        }
+        List<CompiledRoute> compiledRoutes = CompiledRoute.compile(pathOptionsList, reusable);
+
+        List<CompiledRoute> added = new ArrayList<CompiledRoute>();
+        for (int i = 0; i < kept.length; i++) {
+            if (kept[i] < 0) {
+                added.add(compiledRoutes.get(i));
+            }
+        }
+        List<CompiledRoute> removed = new ArrayList<CompiledRoute>();
+        for (int i = 0; i < retained.length; i++) {
+            if (!retained[i]) {
+                removed.add(previousRoutes.get(i));
+            }
+        }
+        return new RoutesDiff(compiledRoutes, added, removed);
+    }
+
+    /**
+     * 再読み込み後の各定義に対応付ける、再読み込み前の定義の定義順を算出する。
+     * <p>
+     * 同じ定義を出現順に対応付けた上で、対応付けた定義順の最長増加部分列を残す定義とする。
+     * </p>
+     *
+     * @param previous 再読み込み前の構築済みのルートのリスト
+     * @param pathOptionsList 再読み込み後のルーティング定義のリスト
+     * @return 再読み込み前の定義順。対応付ける定義がない場合は{@code -1}
+     */
+    private static int[] keptOrders(List<CompiledRoute> previous, List<PathOptions> pathOptionsList) {
+        Map<List<Object>, Deque<Integer>> previousOrders = new HashMap<List<Object>, Deque<Integer>>();
+        for (CompiledRoute compiledRoute : previous) {
+            List<Object> key = keyOf(compiledRoute.getDefinition(), compiledRoute.getPathOptions());
+            Deque<Integer> orders = previousOrders.get(key);
+            if (orders == null) {
+                orders = new ArrayDeque<Integer>();
+                previousOrders.put(key, orders);
+            }
+            orders.add(compiledRoute.getOrder());
+        }
+
+        int size = pathOptionsList.size();
+        int[] matched = new int[size];
+        for (int i = 0; i < size; i++) {
+            PathOptions pathOptions = pathOptionsList.get(i);
+            Deque<Integer> orders = previousOrders.get(keyOf(CompiledRoute.definitionOf(pathOptions), pathOptions));
+            matched[i] = orders == null || orders.isEmpty() ? -1 : orders.poll();
+        }
+
+        // 最長増加部分列を求める(tails[k]は長さk+1の部分列の末尾の添字)
+        int[] tails = new int[size];
+        int[] predecessors = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            if (matched[i] < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (matched[tails[mid]] < matched[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        int[] kept = new int[size];
+        Arrays.fill(kept, -1);
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+            kept[i] = matched[i];
+        }
+        return kept;
+    }
+
+    /**
+     * 同じ定義か否かを判定するキーを作成する。
+     * <p>
+     * パスと設定に加えて、":controller"にマッチするコントローラを検出する
+     * {@link net.unit8.http.router.ControllerDetector} が同じインスタンスの場合に同じキーとなる。
+     * </p>
+     *
+     * @param definition 構築前のルーティング定義の内容
+     * @param pathOptions ルーティング定義
+     * @return キー
+     */
+    private static List<Object> keyOf(List<Object> definition, PathOptions pathOptions) {
+        return Arrays.asList(definition, new DetectorIdentity(pathOptions));
+    }
+
+    /**
+     * @return 再読み込み後の構築済みのルートのリスト
+     */
+    List<CompiledRoute> getCompiledRoutes() {
+        return compiledRoutes;
+    }
+
+    /**
+     * @return 追加された定義
+     */
+    List<CompiledRoute> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return 削除された定義
+     */
+    List<CompiledRoute> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return 差分がない場合は{@code true}
+     */
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * 指定したリクエストのマッチング結果が、再読み込みの前後で変わる可能性があるか否か。
+     *
+     * @param method HTTPメソッド
+     * @param path パス
+     * @return 追加された定義または削除された定義にマッチする場合は{@code true}
+     */
+    boolean affects(String method, String path) {
+        return matches(added, method, path) || matches(removed, method, path);
+    }
+
+    /**
+     * 指定したHTTPメソッドのリクエストのマッチング結果が、再読み込みの前後で変わる可能性があるか否か。
+     *
+     * @param method HTTPメソッド。{@code null}の場合は、HTTPメソッドが指定されていない定義のみを対象とする
+     * @return 追加された定義または削除された定義がHTTPメソッドを許可する場合は{@code true}
+     */
+    boolean affectsMethod(String method) {
+        return acceptsMethod(added, method) || acceptsMethod(removed, method);
+    }
+
+    /**
+     * 差分の内容をログ出力用の文字列に変換する。
+     * <p>
+     * 同じパスの定義が削除され、かつ追加された場合は、変更された定義として出力する。
+     * </p>
+     *
+     * @return 差分の内容
+     */
+    String describe() {
+        List<CompiledRoute> addedOnly = new ArrayList<CompiledRoute>(added);
+        List<String> changed = new ArrayList<String>();
+        List<String> removedOnly = new ArrayList<String>();
+        for (CompiledRoute before : removed) {
+            CompiledRoute after = removeSamePath(addedOnly, before.getPathOptions().getPath());
+            if (after == null) {
+                removedOnly.add(describe(before));
+            } else {
+                changed.add(describe(before) + " -> " + describe(after));
+            }
+        }
+        List<String> addedDescriptions = new ArrayList<String>(addedOnly.size());
+        for (CompiledRoute compiledRoute : addedOnly) {
+            addedDescriptions.add(describe(compiledRoute));
+        }
+        return "added = " + addedDescriptions + ", removed = " + removedOnly + ", changed = " + changed;
+    }
+
+    /**
+     * 指定したパスの定義をリストから取り除く。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param path パス
+     * @return 取り除いた定義。存在しない場合は{@code null}
+     */
+    private static CompiledRoute removeSamePath(List<CompiledRoute> compiledRoutes, String path) {
+        for (Iterator<CompiledRoute> iterator = compiledRoutes.iterator(); iterator.hasNext();) {
+            CompiledRoute compiledRoute = iterator.next();
+            if (compiledRoute.getPathOptions().getPath().equals(path)) {
+                iterator.remove();
+                return compiledRoute;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 定義をログ出力用の文字列に変換する。
+     *
+     * @param compiledRoute 構築済みのルート
+     * @return {@code "<HTTPメソッド> <パス> => <コントローラ>#<アクション>"}形式の文字列
+     */
+    private static String describe(CompiledRoute compiledRoute) {
+        Options options = compiledRoute.getPathOptions().getOptions();
+        return compiledRoute.getMethods() + " " + compiledRoute.getPathOptions().getPath()
+                + " => " + options.getString("controller") + "#" + options.getString("action");
+    }
+
+    /**
+     * 指定したHTTPメソッドを許可する定義が存在するか否か。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param method HTTPメソッド。{@code null}の場合は、HTTPメソッドが指定されていない定義のみを対象とする
+     * @return 存在する場合は{@code true}
+     */
+    private static boolean acceptsMethod(List<CompiledRoute> compiledRoutes, String method) {
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            if (method == null ? compiledRoute.getMethods().isEmpty() : compiledRoute.acceptsMethod(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 指定したリクエストにマッチする定義が存在するか否か。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param method HTTPメソッド
+     * @param path パス
+     * @return 存在する場合は{@code true}
+     */
+    private static boolean matches(List<CompiledRoute> compiledRoutes, String method, String path) {
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            if (compiledRoute.acceptsMethod(method) && compiledRoute.recognize(path, method) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@link net.unit8.http.router.ControllerDetector} をインスタンスの同一性で比較するためのラッパー。
+     */
+    private static final class DetectorIdentity {
+
+        /** ":controller"にマッチするコントローラを検出する {@link net.unit8.http.router.ControllerDetector} */
+        private final Object controllerDetector;
+
+        private DetectorIdentity(PathOptions pathOptions) {
+            this.controllerDetector = pathOptions.getControllerDetector();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DetectorIdentity
+                    && ((DetectorIdentity) other).controllerDetector == controllerDetector;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(controllerDetector);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package nablarch.integration.router;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WatchService} を使用して、routes定義ファイルの更新を監視するクラス。
+ * <p>
+ * routes定義ファイルが置かれたディレクトリを監視し、routes定義ファイルの作成または更新を検知した場合にリスナーを呼び出す。
+ * エディタによっては複数回に分けて書き込みを行うため、最後の更新から {@code debounceMillis} ミリ秒の間
+ * 更新がなかった時点で、1回だけリスナーを呼び出す。
+ * 同じディレクトリにある他のファイルの更新は無視し、待ち時間も延長しない。
+ * </p>
+ * <p>
+ * 監視はデーモンスレッドで行い、{@link #close()} で停止する。
+ * </p>
+ */
+final class RoutesFileWatcher {
+
+    private static final Logger LOGGER = LoggerManager.get(RoutesFileWatcher.class);
+
+    /** 監視に使用する {@link WatchService} */
+    private final WatchService watchService;
+
+    /** 監視するファイルの名前 */
+    private final Path fileName;
+
+    /** 最後の更新からリスナーを呼び出すまでの待ち時間(ミリ秒) */
+    private final long debounceMillis;
+
+    /** 更新を検知した場合に呼び出すリスナー */
+    private final Runnable listener;
+
+    /** 監視を行うスレッド */
+    private final Thread thread;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param file 監視するファイル
+     * @param debounceMillis 最後の更新からリスナーを呼び出すまでの待ち時間(ミリ秒)
+     * @param listener 更新を検知した場合に呼び出すリスナー
+     * @throws IOException 監視を開始できなかった場合
+     */
+    RoutesFileWatcher(final Path file, final long debounceMillis, final Runnable listener) throws IOException {
+        final Path absolute = file.toAbsolutePath();
+        this.fileName = absolute.getFileName();
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            absolute.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "RoutesMapping-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 更新を監視する。
+     */
+    private void watch() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                // 待ち時間の間に監視するファイルの更新がなくなるまで待つ
+                // (他のファイルの更新では待ち時間を延長しない)
+                final long debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                long deadline = System.nanoTime() + debounceNanos;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    final WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key != null && drain(key)) {
+                        deadline = System.nanoTime() + debounceNanos;
+                    }
+                }
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    // 例外によって監視が止まらないよう、ログを出力して処理を続ける。
+                    LOGGER.logWarn("failed to reload routes. file = [" + fileName + "]", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close()で停止した場合
+        }
+    }
+
+    /**
+     * {@link WatchKey} に通知されたイベントを取り出す。
+     *
+     * @param key {@link WatchKey}
+     * @return 監視するファイルのイベントが含まれていた場合は{@code true}
+     */
+    private boolean drain(final WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 監視を停止する。
+     */
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignore) {
+            // do nothing.
+        }
+        thread.interrupt();
+    }
+}
@@ -1,5 +1,8 @@
 package nablarch.integration.router;
 
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.disposal.Disposable;
 import nablarch.core.repository.initialization.Initializable;
 import nablarch.core.util.FileUtil;
 import nablarch.fw.ExecutionContext;
@@ -8,30 +11,117 @@ import nablarch.fw.web.HttpRequest;
 import nablarch.fw.web.handler.RoutingHandlerSupport;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 import net.unit8.http.router.ARStringUtil;
+import net.unit8.http.router.ControllerDetector;
 import net.unit8.http.router.Options;
-import net.unit8.http.router.Routes;
 import net.unit8.http.router.RoutingException;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Routes定義ファイルをベースにActionメソッドを特定するハンドラ。
  *
  * 本ハンドラを使用することで、自由なURLを使用することができる。
+ * <p>
+ * ルーティング定義のマッチングは、{@link RouteMatcherFactory} で生成した {@link RouteMatcher} で行う。
+ * {@link RouteMatcherFactory} が設定されていない場合は {@link MethodPartitionedRouteMatcherFactory} を使用する。
+ * なお、パスパラメータを含まないルーティング定義は、{@link RouteMatcher} によるマッチングの前に
+ * HTTPメソッドとパスの完全一致で検索する。
+ * </p>
+ * <p>
+ * {@link RouteRecognitionCache} を設定した場合、HTTPメソッドとパスごとにルーティングの結果をキャッシュする。
+ * {@link RouteMissCache} を設定した場合、ルーティング定義にマッチしなかったHTTPメソッドとパスをキャッシュし、
+ * 同じリクエストに対してはマッチングを行わずに404を返す。
+ * </p>
+ * <p>
+ * 読み込んだルーティング定義はインスタンスごとに保持する。
+ * パスの":controller"にマッチするコントローラも、インスタンスごとに設定したベースパッケージから検出するため、
+ * ベースパッケージの異なる複数のインスタンスを同じJVMで使用できる。
+ * コントローラは、http-request-routerの設定ファイル(routes.properties)の"router.controllerDetector"に指定された
+ * {@link ControllerDetector} で検出する。指定されたクラスがベースパッケージを引数に取るコンストラクタを持つ場合は、
+ * インスタンスごとのベースパッケージを指定して生成する。指定がない場合は {@link NablarchControllerDetector} を使用する。
+ * routes定義ファイルを再読み込みする場合は、新しいルーティング定義を構築し終えてから差し替えるため、
+ * 再読み込み中のリクエストは待たされることなく、再読み込み前のルーティング定義でマッチングを行う。
+ * 再読み込みしたroutes定義ファイルが解析できない場合や、ロードできないアクションクラスや到達できない定義を含む場合は、
+ * ワーニングログを出力し、再読み込み前のルーティング定義を使い続ける。
+ * 再読み込みの際は、再読み込み前の定義との差分(追加、削除、変更された定義)をログに出力し、
+ * 変更のない定義は構築済みのものを再利用する。":controller"を含む定義も、
+ * コントローラを検出し直さない限り({@link #redetectControllers()})変更のない定義として扱う。
+ * {@link RouteMatcher} も、{@link MethodPartitionedRouteMatcherFactory} を使用している場合は、
+ * 差分の定義を許可するHTTPメソッドのものだけを生成し直す。
+ * キャッシュは差分の定義にマッチするリクエストのものだけを破棄する。
+ * リクエストの処理およびルーティング定義の再読み込みでは {@code synchronized} による排他制御を行わないため、
+ * リクエストを仮想スレッドで処理する場合でも、キャリアスレッドを占有(pinning)しない。
+ * </p>
+ * <p>
+ * routes定義ファイルのプロトコルが"file"の場合、{@link #setCheckInterval(long)} で設定した間隔で
+ * バックグラウンドのスレッドがroutes定義ファイルの更新を確認し、更新されていれば再読み込みする。
+ * リクエストの処理中には更新の確認を行わない。
+ * バックグラウンドのスレッドは初期化時ではなく、最初のリクエストを処理する際に開始する。
+ * {@link #setWatchRoutes(boolean)} で {@code true} を設定した場合は、定期的に確認する代わりに
+ * {@link java.nio.file.WatchService} でroutes定義ファイルの更新を監視し、更新を検知した時点で再読み込みする。
+ * {@link #setChecksumEnabled(boolean)} で {@code true} を設定した場合は、更新日時の代わりに
+ * routes定義ファイルの内容のチェックサムで更新を判定する。この場合は、プロトコルが"file"以外
+ * (JARファイルに含まれる場合など)でも定期的に更新を確認し、内容が変わっていなければ再読み込みしない。
+ * バックグラウンドのスレッドは {@link #dispose()} で停止する。
+ * スレッドはこのハンドラを参照し続けるため、アプリケーションの再デプロイなどでハンドラを破棄する場合は、
+ * コンポーネント定義の"disposers"に登録するなどして、必ず {@link #dispose()} を呼び出すこと。
+ * 呼び出さない場合、スレッドが停止せず、クラスローダがリークする。
+ * バックグラウンドのスレッドが不要な場合は、{@link #setCheckInterval(long)} に負の値を設定すること。
+ * </p>
+ * <p>
+ * {@link #setSnapshotDirectory(String)} でディレクトリを設定した場合は、解析したroutes定義ファイルの内容を
+ * スナップショットファイルに保存し、内容が変わっていなければ次回の起動時にroutes定義ファイルを解析せずに読み込む。
+ * {@link #setPrecompiledRoutes(String)} で {@link RoutesSourceGenerator} が生成したクラスを設定した場合は、
+ * routes定義ファイルの内容が生成元と同じであれば、解析せずに生成したクラスからルーティング定義を取得する。
+ * </p>
  *
  * @author kawasima
  * @author Kiyohito Itoh
  */
 public class RoutesMapping
-        extends RoutingHandlerSupport implements Initializable {
+        extends RoutingHandlerSupport implements Initializable, Disposable {
 
-    private static volatile boolean loading = false;
-    private static long lastLoaded = -1;
+    private static final Logger LOGGER = LoggerManager.get(RoutesMapping.class);
+
+    private final AtomicReference<RoutesSnapshot> snapshot = new AtomicReference<RoutesSnapshot>(RoutesSnapshot.EMPTY);
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private final ReentrantLock reloadTaskLock = new ReentrantLock();
+    private volatile boolean reloadTaskPending = false;
+    private ScheduledExecutorService reloadExecutor;
+    private RoutesFileWatcher routesFileWatcher;
+    private boolean watchRoutes = false;
+    private long watchDebounceMillis = 200L;
+    private boolean checksumEnabled = false;
+    private String snapshotDirectory;
+    private String precompiledRoutes;
+    private Object rejectedVersion;
+
+    private RouteMatcherFactory routeMatcherFactory = new MethodPartitionedRouteMatcherFactory();
+    private RouteRecognitionCache routeRecognitionCache;
+    private RouteMissCache routeMissCache;
+    private final ControllerClassCache controllerClassCache = new ControllerClassCache();
+    private ControllerDetector controllerDetector;
 
     private String baseUri;
 
@@ -69,8 +159,11 @@ public class RoutesMapping
     @Override
     protected Class<?> getHandlerClass(final HttpRequest request,
                                        final ExecutionContext executionContext) throws ClassNotFoundException {
+        if (reloadTaskPending) {
+            startPendingReloadTask();
+        }
         try {
-            reloadRoutes();
+            final RoutesSnapshot current = snapshot.get();
 
             String path;
             if (executionContext instanceof ServletExecutionContext) {
@@ -83,63 +176,462 @@ public class RoutesMapping
             if (!normalizedPath.startsWith("/")) {
                 normalizedPath = "/" + normalizedPath;
             }
-            final Options options = Routes.recognizePath(
-                    normalizedPath,
-                    request.getMethod());
-            final String controller = options.getString("controller");
-
-            executionContext.setMethodBinder(methodBinderFactory.create(options.getString("action")));
+            // キャッシュはルーティング定義とともに差し替えるため、マッチングに使用したルーティング定義のキャッシュを使用する。
+            final MethodPathLruCache<RecognizedRoute> cache = current.getRecognitionCache();
+            RecognizedRoute route = cache == null ? null : cache.get(request.getMethod(), normalizedPath);
+            if (route == null) {
+                route = recognize(current, normalizedPath, request.getMethod());
+                if (cache != null) {
+                    cache.put(request.getMethod(), normalizedPath, route);
+                }
+            }
 
-            final Options params = options.except("controller", "action");
+            executionContext.setMethodBinder(methodBinderFactory.create(route.getAction()));
 
-            for (Map.Entry<String, Object> paramPair : params.entrySet()) {
-                if (paramPair.getValue() != null) {
-                    request.setParam(paramPair.getKey(), paramPair.getValue().toString());
-                }
+            for (Map.Entry<String, String> paramPair : route.getParams().entrySet()) {
+                request.setParam(paramPair.getKey(), paramPair.getValue());
             }
-            final ClassLoader loader = Thread.currentThread().getContextClassLoader();
-            return loader.loadClass(basePackage + "." + controller + "Action");
+            return route.getControllerClass();
         } catch (RoutingException e) {
             throw new HttpErrorResponse(404, e);
         }
     }
 
     /**
-     * routes定義ファイルのプロトコルが"file"かつ更新されている場合、再読み込みする。
+     * リクエストのパスとHTTPメソッドからルーティングの結果を特定する。
+     *
+     * @param current マッチングに使用するルーティング定義
+     * @param normalizedPath ベースURIを取り除いたパス
+     * @param method HTTPメソッド
+     * @return ルーティングの結果
+     * @throws ClassNotFoundException クラス不明例外
      */
-    private void reloadRoutes() {
-        if (loading || routesIsNotFile()) {
+    private RecognizedRoute recognize(final RoutesSnapshot current, final String normalizedPath, final String method)
+            throws ClassNotFoundException {
+        final RouteMatcher matcher = current.getRouteMatcher();
+        if (matcher == null) {
+            throw new RoutingException("No route matches " + normalizedPath);
+        }
+        final MethodPathLruCache<Boolean> missCache = current.getMissCache();
+        if (missCache != null && missCache.get(method, normalizedPath) != null) {
+            throw new RoutingException("No route matches " + normalizedPath);
+        }
+        final Options options;
+        try {
+            options = matcher.recognize(normalizedPath, method);
+        } catch (RoutingException e) {
+            if (missCache != null) {
+                missCache.put(method, normalizedPath, Boolean.TRUE);
+            }
+            throw e;
+        }
+        final String controller = options.getString("controller");
+
+        final Options params = options.except("controller", "action");
+        final Map<String, String> recognizedParams = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, Object> paramPair : params.entrySet()) {
+            if (paramPair.getValue() != null) {
+                recognizedParams.put(paramPair.getKey(), paramPair.getValue().toString());
+            }
+        }
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Class<?> controllerClass = controllerClassCache.get(loader, controller);
+        if (controllerClass == null) {
+            controllerClass = loader.loadClass(basePackage + "." + controller + "Action");
+            controllerClassCache.put(loader, controller, controllerClass);
+        }
+        return new RecognizedRoute(controllerClass, options.getString("action"), recognizedParams);
+    }
+
+    /**
+     * routes定義ファイルが再読み込みできる(プロトコルが"file"、またはチェックサムで更新を判定する)場合で、
+     * 更新されている場合は再読み込みする。
+     * <p>
+     * 再読み込みは1スレッドのみが行う。既に他のスレッドが再読み込みしている場合は、
+     * 再読み込みの要求を記録して待たずに戻り、再読み込みしているスレッドが完了後に改めて再読み込みする。
+     * このため、再読み込みの途中で更新された場合も、その更新が取りこぼされることはない。
+     * </p>
+     */
+    void reloadRoutes() {
+        if (!isReloadable()) {
             return;
         }
+        reloadRequested.set(true);
+        reloadIfRequested();
+    }
+
+    /**
+     * 再読み込みが要求されている場合、要求がなくなるまで再読み込みする。
+     * <p>
+     * 他のスレッドが {@link #reloadLock} を取得している場合は何もしない。
+     * 要求は {@link #reloadLock} を解放した後に確認するため、取得しているスレッドが処理する。
+     * </p>
+     */
+    private void reloadIfRequested() {
+        while (reloadRequested.get() && reloadLock.tryLock()) {
+            try {
+                reloadRequested.set(false);
+                loadIfModified(false);
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * routes定義ファイルが更新されている場合、再読み込みする。
+     * <p>
+     * チェックサムで更新を判定する場合は、routes定義ファイルの内容のチェックサムが
+     * 前回読み込んだ内容と異なる場合に再読み込みする。それ以外の場合は、更新日時で判定する。
+     * 呼び出し元で {@link #reloadLock} を取得していること。
+     * </p>
+     *
+     * @param force 更新されていなくても再読み込みする場合は{@code true}
+     */
+    private void loadIfModified(final boolean force) {
         try {
-            final File routesFile = new File(URLDecoder.decode(routesUrl.getPath(), "UTF-8"));
-            final int milli = 1000;
-            if (lastLoaded < 0 || checkInterval >= 0 &&
-                    System.currentTimeMillis() > lastLoaded + checkInterval * milli) {
-                synchronized(this) {
-                    if (!loading) {
-                        loading = true;
-                    } else {
-                        return;
-                    }
+            if (checksumEnabled) {
+                final byte[] content = readRoutes();
+                final byte[] checksum = Checksums.of(content);
+                final ByteBuffer version = ByteBuffer.wrap(checksum);
+                if (force || !snapshot.get().hasChecksum(checksum) && !version.equals(rejectedVersion)) {
+                    rejectedVersion = reload(parseRoutes(content, checksum), checksum) ? null : version;
                 }
-                if (loading) {
-                    try {
-                        final long lastModified = routesFile.lastModified();
-                        if (lastModified > lastLoaded) {
-                            Routes.load(routesFile);
-                            lastLoaded = System.currentTimeMillis();
-                        }
-                    } finally {
-                        loading = false;
-                    }
+                return;
+            }
+            final File routesFile = routesFile();
+            final long lastModified = routesFile.lastModified();
+            if (force || lastModified > snapshot.get().getLastLoaded()
+                    && !Long.valueOf(lastModified).equals(rejectedVersion)) {
+                final List<PathOptions> pathOptionsList = parsesContent()
+                        ? parseRoutes(readRoutes(), null) : RoutesXmlReader.read(routesFile);
+                rejectedVersion = reload(pathOptionsList, null) ? null : Long.valueOf(lastModified);
+            }
+        } catch (IOException e) {
+            LOGGER.logWarn("routes could not be read. the current routes are used. routes = [" + routesUrl + "]", e);
+        } catch (IllegalArgumentException e) {
+            if (!snapshot.get().isLoaded()) {
+                // 初回の読み込みの場合は、使用できるルーティング定義がないため例外を送出する。
+                throw e;
+            }
+            LOGGER.logWarn("routes could not be parsed. the current routes are used. routes = [" + routesUrl + "]", e);
+        }
+    }
+
+    /**
+     * 再読み込みしたルーティング定義を検証し、不正な定義がなければ差し替える。
+     * <p>
+     * 不正な定義がある場合は、ワーニングログを出力し、現在のルーティング定義を使い続ける。
+     * ただし、初回の読み込みの場合は使用できるルーティング定義がないため、ワーニングログを出力した上で差し替える。
+     * </p>
+     *
+     * @param pathOptionsList 再読み込みしたルーティング定義のリスト
+     * @param checksum routes定義ファイルの内容のチェックサム。算出していない場合は{@code null}
+     * @return 差し替えた場合は{@code true}
+     */
+    private boolean reload(final List<PathOptions> pathOptionsList, final byte[] checksum) {
+        final RoutesSnapshot current = snapshot.get();
+        final List<PathOptions> scoped = scopeControllers(pathOptionsList);
+        final RoutesDiff diff = RoutesDiff.compute(current.getCompiledRoutes(), scoped);
+        if (current.isLoaded() && diff.isEmpty()) {
+            // 定義が変わっていない場合は、構築済みのルーティング定義とキャッシュをそのまま使い続ける。
+            snapshot.set(new RoutesSnapshot(current.getRouteMatcher(), current.getCompiledRoutes(),
+                    System.currentTimeMillis(), checksum, current.getRecognitionCache(), current.getMissCache()));
+            LOGGER.logDebug("routes were not changed. routes = [" + routesUrl + "]");
+            return true;
+        }
+        final List<String> errors = RoutesValidator.validate(
+                diff.getCompiledRoutes(), basePackage, Thread.currentThread().getContextClassLoader());
+        if (!errors.isEmpty()) {
+            if (current.isLoaded()) {
+                LOGGER.logWarn("routes were not reloaded because of invalid definitions. the current routes are used."
+                        + " routes = [" + routesUrl + "], errors = " + errors);
+                return false;
+            }
+            LOGGER.logWarn("routes contain invalid definitions. routes = [" + routesUrl + "], errors = " + errors);
+        }
+        load(scoped, diff, checksum);
+        return true;
+    }
+
+    /**
+     * routes定義ファイルの内容を読み込む。
+     * <p>
+     * JARファイルに含まれる場合でも更新後の内容を読み込めるよう、{@link URLConnection} のキャッシュは使用しない。
+     * </p>
+     *
+     * @return routes定義ファイルの内容
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private byte[] readRoutes() throws IOException {
+        final URLConnection connection = routesUrl.openConnection();
+        connection.setUseCaches(false);
+        final InputStream in = connection.getInputStream();
+        try {
+            return in.readAllBytes();
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * @return 事前に生成したクラスやスナップショットファイルを使用するため、routes定義ファイルの内容を読み込んでから
+     *         解析する場合は{@code true}
+     */
+    private boolean parsesContent() {
+        return precompiledRoutes != null || snapshotDirectory != null;
+    }
+
+    /**
+     * routes定義ファイルの内容を解析する。
+     * <p>
+     * 事前に生成したクラスが設定されていて、そのクラスの生成元とroutes定義ファイルの内容のチェックサムが一致する場合は、
+     * そのクラスからルーティング定義を取得する。
+     * スナップショットファイルを保存するディレクトリが設定されている場合は、routes定義ファイルの内容のチェックサムが
+     * 一致するスナップショットファイルから読み込む。一致するスナップショットファイルがない場合は、
+     * routes定義ファイルの内容を解析し、その結果をスナップショットファイルに保存する。
+     * </p>
+     *
+     * @param content routes定義ファイルの内容
+     * @param checksum routes定義ファイルの内容のチェックサム。算出していない場合は{@code null}
+     * @return ルーティング定義のリスト
+     * @throws IllegalArgumentException routes定義ファイルの解析に失敗した場合
+     */
+    private List<PathOptions> parseRoutes(final byte[] content, final byte[] checksum) {
+        final byte[] fingerprint = checksum != null ? checksum : Checksums.of(content);
+        if (precompiledRoutes != null) {
+            final PathOptionsProvider provider = precompiledProvider(fingerprint);
+            if (provider != null) {
+                return provider.provide();
+            }
+        }
+        if (snapshotDirectory == null) {
+            return RoutesXmlReader.read(new ByteArrayInputStream(content));
+        }
+        // routes定義ファイルごとにスナップショットファイルを分けるため、URLのチェックサムをファイル名に含める
+        final String urlChecksum = Checksums.toHex(
+                Checksums.of(routesUrl.toExternalForm().getBytes(StandardCharsets.UTF_8)));
+        final PathOptionsSnapshotFile snapshotFile = new PathOptionsSnapshotFile(Paths.get(snapshotDirectory,
+                "routes-" + urlChecksum.substring(0, 16) + ".snapshot"));
+        List<PathOptions> pathOptionsList = snapshotFile.read(fingerprint);
+        if (pathOptionsList == null) {
+            pathOptionsList = RoutesXmlReader.read(new ByteArrayInputStream(content));
+            snapshotFile.write(fingerprint, pathOptionsList);
+        }
+        return pathOptionsList;
+    }
+
+    /**
+     * 事前に生成したクラスのうち、生成元がroutes定義ファイルの内容と一致するものを取得する。
+     *
+     * @param checksum routes定義ファイルの内容のチェックサム
+     * @return 事前に生成したクラスのインスタンス。クラスが見つからない場合や、生成元の内容が異なる場合は{@code null}
+     */
+    private PathOptionsProvider precompiledProvider(final byte[] checksum) {
+        try {
+            final Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(precompiledRoutes);
+            final Object generatedChecksum = clazz.getField(RoutesSourceGenerator.CHECKSUM_FIELD).get(null);
+            if (!Checksums.toHex(checksum).equals(generatedChecksum)) {
+                LOGGER.logInfo("precompiled routes are outdated. routes are parsed instead."
+                        + " routes = [" + routesUrl + "], precompiledRoutes = [" + precompiledRoutes + "]");
+                return null;
+            }
+            return (PathOptionsProvider) clazz.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            LOGGER.logDebug("precompiled routes could not be found. routes are parsed instead."
+                    + " precompiledRoutes = [" + precompiledRoutes + "]");
+            return null;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            LOGGER.logWarn("precompiled routes could not be used. routes are parsed instead."
+                    + " precompiledRoutes = [" + precompiledRoutes + "]", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return routes定義ファイル
+     * @throws IOException routes定義ファイルのパスをデコードできない場合
+     */
+    private File routesFile() throws IOException {
+        return new File(URLDecoder.decode(routesUrl.getPath(), "UTF-8"));
+    }
+
+    /**
+     * 初期化時に開始を保留したバックグラウンドのスレッドを開始する。
+     * <p>
+     * 最初のリクエストを処理するスレッドだけが開始し、{@link #dispose()} の後は開始しない。
+     * </p>
+     */
+    private void startPendingReloadTask() {
+        reloadTaskLock.lock();
+        try {
+            if (!reloadTaskPending) {
+                return;
+            }
+            reloadTaskPending = false;
+            if (watchRoutes && !routesIsNotFile()) {
+                startWatchTask();
+            } else {
+                startReloadTask();
+            }
+        } finally {
+            reloadTaskLock.unlock();
+        }
+    }
+
+    /**
+     * routes定義ファイルの更新の監視を開始する。
+     * <p>
+     * 監視を開始できなかった場合は、{@link #startReloadTask()} による定期的な確認に切り替える。
+     * </p>
+     */
+    private void startWatchTask() {
+        try {
+            routesFileWatcher = new RoutesFileWatcher(routesFile().toPath(), watchDebounceMillis, new Runnable() {
+                @Override
+                public void run() {
+                    reloadRoutes();
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.logWarn("failed to watch routes. check the routes periodically instead. routes = [" + routesUrl + "]", e);
+            startReloadTask();
+        }
+    }
+
+    /**
+     * routes定義ファイルの更新を確認するバックグラウンドのスレッドを開始する。
+     * <p>
+     * 更新を確認する間隔は {@link #checkInterval} 秒とし、0の場合は1秒とする。
+     * </p>
+     */
+    private void startReloadTask() {
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "RoutesMapping-reload");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final long interval = Math.max(checkInterval, 1L);
+        reloadExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reloadRoutes();
+                } catch (RuntimeException e) {
+                    // 例外によって以降の確認が止まらないよう、ログを出力して処理を続ける。
+                    LOGGER.logWarn("failed to reload routes. routes = [" + routesUrl + "]", e);
                 }
             }
-        } catch (IOException ignore) {
-            // do nothing.
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * routes定義ファイルの更新を確認、または監視するバックグラウンドのスレッドを停止する。
+     */
+    private void stopReloadTask() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            reloadExecutor = null;
+        }
+        if (routesFileWatcher != null) {
+            routesFileWatcher.close();
+            routesFileWatcher = null;
         }
     }
 
+    /**
+     * ルーティング定義から {@link RouteMatcher} を生成し、保持しているルーティング定義と差し替える。
+     * <p>
+     * 再読み込みの場合は、追加または削除された定義をログに出力し、それらの定義にマッチしないリクエストのキャッシュのみを
+     * 新しいキャッシュに引き継ぐ。新しいキャッシュはルーティング定義とともに差し替えるため、
+     * 差し替え前のルーティング定義で特定した結果が、差し替え後に参照されることはない。
+     * </p>
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @param diff 保持しているルーティング定義との差分
+     * @param checksum routes定義ファイルの内容のチェックサム。算出していない場合は{@code null}
+     */
+    private void load(final List<PathOptions> pathOptionsList, final RoutesDiff diff, final byte[] checksum) {
+        final List<CompiledRoute> compiledRoutes = diff.getCompiledRoutes();
+        final RoutesSnapshot current = snapshot.get();
+        final boolean reloaded = current.isLoaded();
+        final RouteMatcher routeMatcher = new StaticPathRouteMatcher(compiledRoutes,
+                createRouteMatcher(pathOptionsList, compiledRoutes, current, reloaded ? diff : null));
+        final MethodPathLruCache<RecognizedRoute> recognitionCache = routeRecognitionCache == null
+                ? null : routeRecognitionCache.renew(reloaded ? diff : null);
+        final MethodPathLruCache<Boolean> missCache = routeMissCache == null
+                ? null : routeMissCache.renew(reloaded ? diff : null);
+        snapshot.set(new RoutesSnapshot(routeMatcher, compiledRoutes, System.currentTimeMillis(), checksum,
+                recognitionCache, missCache));
+        if (reloaded) {
+            LOGGER.logInfo("routes were reloaded. routes = [" + routesUrl + "], " + diff.describe());
+        }
+        if (methodBinderFactory != null) {
+            // ルーティング定義に指定されたメソッド名のMethodBinderを事前に生成しておく。
+            for (CompiledRoute compiledRoute : reloaded ? diff.getAdded() : compiledRoutes) {
+                final String action = compiledRoute.getPathOptions().getOptions().getString("action");
+                if (action != null) {
+                    methodBinderFactory.create(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link RouteMatcherFactory} で {@link RouteMatcher} を生成する。
+     * <p>
+     * {@link RouteMatcherFactory} が {@link CompiledRouteMatcherFactory} の場合は、構築済みのルートを渡して生成するため、
+     * 変更のない定義は構築し直さない。また、再読み込み前の {@link RouteMatcher} のうち差分の影響を受けない部分は再利用される。
+     * </p>
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param current 再読み込み前のルーティング定義
+     * @param diff 再読み込み前のルーティング定義との差分。初回の読み込みの場合は{@code null}
+     * @return {@link RouteMatcher}
+     */
+    private RouteMatcher createRouteMatcher(final List<PathOptions> pathOptionsList,
+            final List<CompiledRoute> compiledRoutes, final RoutesSnapshot current, final RoutesDiff diff) {
+        if (!(routeMatcherFactory instanceof CompiledRouteMatcherFactory)) {
+            return routeMatcherFactory.create(pathOptionsList);
+        }
+        final RouteMatcher previous = current.getRouteMatcher() instanceof StaticPathRouteMatcher
+                ? ((StaticPathRouteMatcher) current.getRouteMatcher()).getDelegate() : null;
+        return ((CompiledRouteMatcherFactory) routeMatcherFactory).create(compiledRoutes, previous, diff);
+    }
+
+    /**
+     * パスの":controller"にマッチするコントローラを、このハンドラのベースパッケージから検出するルーティング定義に変換する。
+     * <p>
+     * http-request-routerの標準の動作では、コントローラの検出結果はJVMで共有されるため、
+     * ベースパッケージの異なる複数のハンドラを同じJVMで使用できるよう、ハンドラごとに検出する。
+     * コントローラを検出する {@link ControllerDetector} は、http-request-routerの設定ファイル(routes.properties)の
+     * "router.controllerDetector"に指定されたクラスを使用し、指定がない場合は {@link NablarchControllerDetector} を使用する。
+     * {@link ControllerDetector} はハンドラごとに1つだけ生成し、再読み込みの後も使い続けるため、
+     * ベースパッケージ配下のクラスの検索は最初の1回だけとなる。
+     * 検出し直す場合は、{@link #redetectControllers()} を呼び出す。
+     * パスに":controller"を含まない定義は変換しない。
+     * </p>
+     *
+     * @param pathOptionsList ルーティング定義のリスト
+     * @return 変換したルーティング定義のリスト
+     */
+    private List<PathOptions> scopeControllers(final List<PathOptions> pathOptionsList) {
+        if (controllerDetector == null) {
+            controllerDetector = ControllerDetectorLoader.load(basePackage);
+        }
+        final List<PathOptions> scoped = new ArrayList<PathOptions>(pathOptionsList.size());
+        for (PathOptions pathOptions : pathOptionsList) {
+            scoped.add(pathOptions.getPath().contains(":controller")
+                    ? new PathOptions(pathOptions.getPath(), pathOptions.getOptions(), controllerDetector)
+                    : pathOptions);
+        }
+        return scoped;
+    }
+
     /**
      * @return boolean
      */
@@ -147,6 +639,13 @@ public class RoutesMapping
         return !routesUrl.getProtocol().equals("file");
     }
 
+    /**
+     * @return routes定義ファイルを再読み込みできる場合は{@code true}
+     */
+    private boolean isReloadable() {
+        return checksumEnabled || !routesIsNotFile();
+    }
+
     /**
      * @param routes ルート
      */
@@ -160,12 +659,146 @@ public class RoutesMapping
     }
 
     /**
+     * routes定義ファイルの更新を確認する間隔(秒)を設定する。
+     * <p>
+     * 0の場合は1秒間隔で確認する。負の値の場合は、初期化時に読み込んだ後は更新を確認しない。
+     * 0以上の場合は、最初のリクエストを処理する際に更新を確認するバックグラウンドのスレッドを開始するため、
+     * ハンドラを破棄する際は必ず {@link #dispose()} を呼び出すこと(呼び出さない場合はスレッドが停止しない)。
+     * 本番環境などroutes定義ファイルを更新しない場合は、負の値を設定することを推奨する。
+     * routes定義ファイルのプロトコルが"file"以外の場合は、{@link #setChecksumEnabled(boolean)} で
+     * {@code true} を設定していない限り、この設定に関わらず更新を確認しない。
+     * </p>
      * @param checkInterval インターバル
      */
     public void setCheckInterval(final long checkInterval) {
         this.checkInterval = checkInterval;
     }
 
+    /**
+     * routes定義ファイルの更新を {@link java.nio.file.WatchService} で監視するか否かを設定する。
+     * <p>
+     * {@code true} を設定した場合、{@link #setCheckInterval(long)} による定期的な確認は行わず、
+     * routes定義ファイルの更新を検知した時点で再読み込みする。
+     * routes定義ファイルのプロトコルが"file"以外の場合は、この設定に関わらず更新を監視しない。
+     * デフォルトは {@code false}。
+     * </p>
+     * @param watchRoutes 監視する場合は {@code true}
+     */
+    public void setWatchRoutes(final boolean watchRoutes) {
+        this.watchRoutes = watchRoutes;
+    }
+
+    /**
+     * routes定義ファイルの更新を監視する場合に、最後の更新から再読み込みするまでの待ち時間(ミリ秒)を設定する。
+     * <p>
+     * エディタが複数回に分けて書き込む場合でも、待ち時間の間に更新が続く限り再読み込みを待つため、1回だけ再読み込みする。
+     * デフォルトは200ミリ秒。
+     * </p>
+     * @param watchDebounceMillis 待ち時間(ミリ秒)
+     */
+    public void setWatchDebounceMillis(final long watchDebounceMillis) {
+        this.watchDebounceMillis = watchDebounceMillis;
+    }
+
+    /**
+     * routes定義ファイルの更新を、内容のチェックサムで判定するか否かを設定する。
+     * <p>
+     * {@code true} を設定した場合、routes定義ファイルの内容のチェックサム(SHA-256)が前回読み込んだ内容と
+     * 異なる場合のみ再読み込みする。更新日時が変わっても内容が同じであれば、ルーティング定義を再構築しない。
+     * また、routes定義ファイルのプロトコルが"file"以外(JARファイルに含まれる場合など)でも、
+     * {@link #setCheckInterval(long)} で設定した間隔で更新を確認する。
+     * デフォルトは {@code false}。
+     * </p>
+     * @param checksumEnabled チェックサムで判定する場合は {@code true}
+     */
+    public void setChecksumEnabled(final boolean checksumEnabled) {
+        this.checksumEnabled = checksumEnabled;
+    }
+
+    /**
+     * 解析したroutes定義ファイルの内容を保存するスナップショットファイルのディレクトリを設定する。
+     * <p>
+     * 設定した場合、routes定義ファイルを解析した結果をスナップショットファイルに保存し、
+     * 次回以降はroutes定義ファイルの内容のチェックサムが一致する限り、解析せずにスナップショットファイルから読み込む。
+     * スナップショットファイルはroutes定義ファイルごとに作成する。ディレクトリが存在しない場合は作成する。
+     * デフォルトは設定なしで、スナップショットファイルを使用しない。
+     * </p>
+     * @param snapshotDirectory スナップショットファイルを保存するディレクトリ
+     */
+    public void setSnapshotDirectory(final String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * {@link RoutesSourceGenerator} でroutes定義ファイルから事前に生成したクラスの完全修飾名を設定する。
+     * <p>
+     * 設定した場合、生成したクラスの生成元とroutes定義ファイルの内容のチェックサムが一致する限り、
+     * routes定義ファイルをXMLとして解析せずに、生成したクラスからルーティング定義を取得する。
+     * クラスが見つからない場合や、routes定義ファイルが生成後に変更された場合(開発中など)は、routes定義ファイルを解析する。
+     * デフォルトは設定なしで、routes定義ファイルを解析する。
+     * </p>
+     * @param precompiledRoutes 事前に生成したクラスの完全修飾名
+     */
+    public void setPrecompiledRoutes(final String precompiledRoutes) {
+        this.precompiledRoutes = precompiledRoutes;
+    }
+
+    /**
+     * {@link RouteMatcherFactory} を設定する。
+     * @param routeMatcherFactory {@link RouteMatcherFactory}
+     */
+    public void setRouteMatcherFactory(final RouteMatcherFactory routeMatcherFactory) {
+        this.routeMatcherFactory = routeMatcherFactory;
+    }
+
+    /**
+     * ルーティングの結果をキャッシュする {@link RouteRecognitionCache} を設定する。
+     * <p>
+     * 設定しない場合、ルーティングの結果はキャッシュしない。
+     * キャッシュした結果は、routes定義ファイルを再読み込みした際に破棄する。
+     * ルーティング定義を読み込んだ後に設定した場合は、設定した時点から使用する。
+     * </p>
+     * @param routeRecognitionCache {@link RouteRecognitionCache}
+     */
+    public void setRouteRecognitionCache(final RouteRecognitionCache routeRecognitionCache) {
+        reloadLock.lock();
+        try {
+            this.routeRecognitionCache = routeRecognitionCache;
+            final RoutesSnapshot current = snapshot.get();
+            if (current.isLoaded()) {
+                snapshot.set(current.withCaches(
+                        routeRecognitionCache == null ? null : routeRecognitionCache.renew(null), current.getMissCache()));
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+        reloadIfRequested();
+    }
+
+    /**
+     * ルーティング定義にマッチしなかったリクエストをキャッシュする {@link RouteMissCache} を設定する。
+     * <p>
+     * 設定しない場合、マッチしなかったリクエストはキャッシュしない。
+     * キャッシュした内容は、routes定義ファイルを再読み込みした際に破棄する。
+     * ルーティング定義を読み込んだ後に設定した場合は、設定した時点から使用する。
+     * </p>
+     * @param routeMissCache {@link RouteMissCache}
+     */
+    public void setRouteMissCache(final RouteMissCache routeMissCache) {
+        reloadLock.lock();
+        try {
+            this.routeMissCache = routeMissCache;
+            final RoutesSnapshot current = snapshot.get();
+            if (current.isLoaded()) {
+                snapshot.set(current.withCaches(
+                        current.getRecognitionCache(), routeMissCache == null ? null : routeMissCache.renew(null)));
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+        reloadIfRequested();
+    }
+
     /**
      * @return basePackage
      */
@@ -178,6 +811,8 @@ public class RoutesMapping
      */
     public void setBasePackage(final String basePackage) {
         this.basePackage = basePackage;
+        controllerClassCache.clear();
+        controllerDetector = null;
     }
 
     /**
@@ -191,25 +826,93 @@ public class RoutesMapping
      * 初期化処理
      */
     public void initialize() {
-        if (routesIsNotFile()) {
+        if (methodBinderFactory == null) {
+            // メソッドバインダーファクトリが設定されていない場合、
+            // RoutesMethodBinderFactoryを利用する。
+            setMethodBinderFactory(new RoutesMethodBinderFactory());
+        }
+        if (!isReloadable()) {
             // routes定義ファイルのプロトコルがfile以外の場合、
             // 初期化処理時のみロードする。
-            InputStream in = null;
+            loadOnce();
+        } else {
+            // 初期化時は、他のスレッドが再読み込みしている場合でも完了を待ってから読み込む。
+            reloadLock.lock();
             try {
-                in = routesUrl.openStream();
-                Routes.load(in);
-            } catch (IOException ignored) {
-                // do nothing.
+                reloadRequested.set(false);
+                loadIfModified(false);
             } finally {
-                FileUtil.closeQuietly(in);
+                reloadLock.unlock();
+            }
+            reloadIfRequested();
+            // バックグラウンドのスレッドは、最初のリクエストを処理する際に開始する。
+            reloadTaskLock.lock();
+            try {
+                stopReloadTask();
+                reloadTaskPending = watchRoutes && !routesIsNotFile() || checkInterval >= 0;
+            } finally {
+                reloadTaskLock.unlock();
             }
-        } else {
-            reloadRoutes();
         }
-        if (methodBinderFactory == null) {
-            // メソッドバインダーファクトリが設定されていない場合、
-            // RoutesMethodBinderFactoryを利用する。
-            setMethodBinderFactory(new RoutesMethodBinderFactory());
+    }
+
+    /**
+     * 再読み込みできないroutes定義ファイルを読み込む。
+     */
+    private void loadOnce() {
+        InputStream in = null;
+        try {
+            in = routesUrl.openStream();
+            final List<PathOptions> pathOptionsList = parsesContent()
+                    ? parseRoutes(in.readAllBytes(), null) : RoutesXmlReader.read(in);
+            reload(pathOptionsList, null);
+        } catch (IOException ignored) {
+            // do nothing.
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * パスの":controller"にマッチするコントローラを検出し直し、ルーティング定義を構築し直す。
+     * <p>
+     * コントローラの検出結果は再読み込みの後も使い続けるため、アプリケーションの実行中に追加したアクションクラスは、
+     * routes定義ファイルを再読み込みしても":controller"にマッチしない。
+     * 追加したアクションクラスをマッチさせる場合は、このメソッドを呼び出すこと。
+     * routes定義ファイルを読み込んでいない場合は、何もしない。
+     * </p>
+     */
+    public void redetectControllers() {
+        reloadLock.lock();
+        try {
+            controllerDetector = null;
+            if (snapshot.get().isLoaded()) {
+                if (isReloadable()) {
+                    loadIfModified(true);
+                } else {
+                    loadOnce();
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+        reloadIfRequested();
+    }
+
+    /**
+     * routes定義ファイルの更新を確認、または監視するバックグラウンドのスレッドを停止する。
+     * <p>
+     * スレッドを開始していない場合も、以降のリクエストで開始しないようにする。
+     * </p>
+     */
+    @Override
+    public void dispose() {
+        reloadTaskLock.lock();
+        try {
+            reloadTaskPending = false;
+            stopReloadTask();
+        } finally {
+            reloadTaskLock.unlock();
         }
     }
 }
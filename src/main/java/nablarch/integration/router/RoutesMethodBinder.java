@@ -10,6 +10,9 @@ import java.lang.reflect.Method;
 
 /**
  * ルーティング用の{@link MethodBinder}の実装クラス。
+ * <p>
+ * ディスパッチ先のメソッドは、アクションクラスごとに一度だけリフレクションで検索し、その結果を再利用する。
+ * </p>
  *
  * @author Naoki Yamamoto
  */
@@ -32,11 +35,7 @@ public class RoutesMethodBinder implements MethodBinder<HttpRequest, Object> {
         return new MethodBinding<HttpRequest, Object>(delegate) {
             @Override
             protected Method getMethodBoundTo(final HttpRequest httpRequest, final ExecutionContext executionContext) {
-                try {
-                    return delegate.getClass().getMethod(methodName, HttpRequest.class, ExecutionContext.class);
-                } catch (NoSuchMethodException e) {
-                    return null;
-                }
+                return ActionMethodTable.getMethod(delegate.getClass(), methodName);
             }
         };
     }
@@ -6,14 +6,24 @@ import nablarch.fw.web.handler.MethodBinderFactory;
 
 /**
  * {@link RoutesMethodBinder}を生成するファクトリクラス。
+ * <p>
+ * {@link RoutesMethodBinder}は状態を持たないため、同じメソッド名に対しては生成済みのインスタンスを再利用する。
+ * </p>
  *
  * @author Hisaaki Shioiri
  */
 public class RoutesMethodBinderFactory implements MethodBinderFactory {
 
+    /** 生成した{@link RoutesMethodBinder} */
+    private final MethodBinderCache binders = new MethodBinderCache();
+
     @Override
     public MethodBinder<HttpRequest, Object> create(final String methodName) {
-        return new RoutesMethodBinder(methodName);
+        final MethodBinder<HttpRequest, Object> binder = binders.get(methodName);
+        if (binder != null) {
+            return binder;
+        }
+        return binders.put(methodName, new RoutesMethodBinder(methodName));
     }
 
 }
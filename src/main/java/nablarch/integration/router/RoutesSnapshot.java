@@ -0,0 +1,124 @@
+package nablarch.integration.router;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * routes定義ファイルから構築したルーティング定義を保持する不変クラス。
+ * <p>
+ * 再読み込み時は新しいインスタンスを構築してから差し替えるため、
+ * リクエストの処理中に構築途中のルーティング定義を参照することはない。
+ * </p>
+ * <p>
+ * ルーティングの結果とマッチしなかったリクエストのキャッシュも、ルーティング定義とともに保持する。
+ * リクエストの処理では、マッチングに使用したインスタンスのキャッシュに結果を格納するため、
+ * 差し替え前のルーティング定義で特定した結果が、差し替え後のキャッシュに格納されることはない。
+ * </p>
+ */
+final class RoutesSnapshot {
+
+    /** ルーティング定義を読み込んでいない状態 */
+    static final RoutesSnapshot EMPTY = new RoutesSnapshot(null, null, -1L, null, null, null);
+
+    /** ルーティング定義にマッチングを行う {@link RouteMatcher} */
+    private final RouteMatcher routeMatcher;
+
+    /** 構築済みのルートのリスト */
+    private final List<CompiledRoute> compiledRoutes;
+
+    /** ルーティング定義を読み込んだ時刻 */
+    private final long lastLoaded;
+
+    /** 読み込んだroutes定義ファイルの内容のチェックサム */
+    private final byte[] checksum;
+
+    /** ルーティングの結果のキャッシュ */
+    private final MethodPathLruCache<RecognizedRoute> recognitionCache;
+
+    /** ルーティング定義にマッチしなかったリクエストのキャッシュ */
+    private final MethodPathLruCache<Boolean> missCache;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param routeMatcher ルーティング定義にマッチングを行う {@link RouteMatcher}
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param lastLoaded ルーティング定義を読み込んだ時刻
+     * @param checksum 読み込んだroutes定義ファイルの内容のチェックサム。算出していない場合は{@code null}
+     * @param recognitionCache ルーティングの結果のキャッシュ。キャッシュしない場合は{@code null}
+     * @param missCache ルーティング定義にマッチしなかったリクエストのキャッシュ。キャッシュしない場合は{@code null}
+     */
+    RoutesSnapshot(RouteMatcher routeMatcher, List<CompiledRoute> compiledRoutes, long lastLoaded, byte[] checksum,
+                   MethodPathLruCache<RecognizedRoute> recognitionCache, MethodPathLruCache<Boolean> missCache) {
+        this.routeMatcher = routeMatcher;
+        this.compiledRoutes = compiledRoutes;
+        this.lastLoaded = lastLoaded;
+        this.checksum = checksum == null ? null : checksum.clone();
+        this.recognitionCache = recognitionCache;
+        this.missCache = missCache;
+    }
+
+    /**
+     * @return ルーティング定義にマッチングを行う {@link RouteMatcher}。読み込んでいない場合は{@code null}
+     */
+    RouteMatcher getRouteMatcher() {
+        return routeMatcher;
+    }
+
+    /**
+     * @return 構築済みのルートのリスト。読み込んでいない場合は{@code null}
+     */
+    List<CompiledRoute> getCompiledRoutes() {
+        return compiledRoutes;
+    }
+
+    /**
+     * @return ルーティング定義を読み込んだ時刻。読み込んでいない場合は{@code -1}
+     */
+    long getLastLoaded() {
+        return lastLoaded;
+    }
+
+    /**
+     * キャッシュを差し替えたインスタンスを生成する。
+     *
+     * @param recognitionCache ルーティングの結果のキャッシュ。キャッシュしない場合は{@code null}
+     * @param missCache ルーティング定義にマッチしなかったリクエストのキャッシュ。キャッシュしない場合は{@code null}
+     * @return キャッシュ以外はこのインスタンスと同じ内容のインスタンス
+     */
+    RoutesSnapshot withCaches(MethodPathLruCache<RecognizedRoute> recognitionCache,
+                              MethodPathLruCache<Boolean> missCache) {
+        return new RoutesSnapshot(routeMatcher, compiledRoutes, lastLoaded, checksum, recognitionCache, missCache);
+    }
+
+    /**
+     * @return ルーティングの結果のキャッシュ。キャッシュしない場合は{@code null}
+     */
+    MethodPathLruCache<RecognizedRoute> getRecognitionCache() {
+        return recognitionCache;
+    }
+
+    /**
+     * @return ルーティング定義にマッチしなかったリクエストのキャッシュ。キャッシュしない場合は{@code null}
+     */
+    MethodPathLruCache<Boolean> getMissCache() {
+        return missCache;
+    }
+
+    /**
+     * 読み込んだroutes定義ファイルの内容のチェックサムが、指定したチェックサムと一致するか否かを判定する。
+     *
+     * @param other チェックサム
+     * @return 一致する場合は{@code true}。チェックサムを算出していない場合は{@code false}
+     */
+    boolean hasChecksum(byte[] other) {
+        return checksum != null && Arrays.equals(checksum, other);
+    }
+
+    /**
+     * @return ルーティング定義を読み込んでいる場合は{@code true}
+     */
+    boolean isLoaded() {
+        return routeMatcher != null;
+    }
+}
@@ -0,0 +1,225 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * routes定義ファイル(routes.xml)から、ルーティング定義を返す {@link PathOptionsProvider} のJavaソースを生成するクラス。
+ * <p>
+ * ビルド時に実行し、生成したクラスを {@link RoutesMapping#setPrecompiledRoutes(String)} に設定することで、
+ * 起動時にroutes定義ファイルをXMLとして解析せずにルーティング定義を作成できる。
+ * 生成したクラスには、生成元のroutes定義ファイルの内容のチェックサムを {@value #CHECKSUM_FIELD} という定数で出力する。
+ * {@link RoutesMapping} はこのチェックサムがroutes定義ファイルの内容と一致しない場合は生成したクラスを使用しないため、
+ * 開発中にroutes定義ファイルを変更した場合は、再生成しなくても変更後のroutes定義ファイルが使用される。
+ * </p>
+ * <p>
+ * 以下のように、コマンドライン引数にroutes定義ファイル、生成するクラスの完全修飾名、出力先のディレクトリを指定して実行する。
+ * Mavenの場合は、exec-maven-pluginなどで generate-sources フェーズに実行し、出力先のディレクトリをソースディレクトリに追加する。
+ * </p>
+ * <pre>
+ * java nablarch.integration.router.RoutesSourceGenerator src/main/resources/routes.xml com.example.GeneratedRoutes target/generated-sources/routes
+ * </pre>
+ */
+public final class RoutesSourceGenerator {
+
+    /** 生成したクラスに出力する、routes定義ファイルの内容のチェックサムの定数名 */
+    static final String CHECKSUM_FIELD = "ROUTES_CHECKSUM";
+
+    /** 改行 */
+    private static final String LINE_SEPARATOR = "\n";
+
+    /**
+     * routes定義ファイルからJavaソースを生成する。
+     *
+     * @param args routes定義ファイルのパス、生成するクラスの完全修飾名、出力先のディレクトリ
+     * @throws IOException 読み込み、または書き込みに失敗した場合
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(
+                    "usage: RoutesSourceGenerator <routes file> <class name> <output directory>");
+        }
+        generate(new File(args[0]), args[1], new File(args[2]));
+    }
+
+    /**
+     * routes定義ファイルからJavaソースを生成し、出力先のディレクトリにパッケージ構成に従って書き込む。
+     *
+     * @param routesFile routes定義ファイル
+     * @param className 生成するクラスの完全修飾名
+     * @param outputDirectory 出力先のディレクトリ
+     * @return 書き込んだファイル
+     * @throws IOException 読み込み、または書き込みに失敗した場合
+     * @throws IllegalArgumentException routes定義ファイルの解析に失敗した場合
+     */
+    public static File generate(File routesFile, String className, File outputDirectory) throws IOException {
+        String source = generate(Files.readAllBytes(routesFile.toPath()), className);
+        File output = new File(outputDirectory, className.replace('.', File.separatorChar) + ".java");
+        Files.createDirectories(output.getParentFile().toPath());
+        Files.write(output.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        return output;
+    }
+
+    /**
+     * routes定義ファイルの内容からJavaソースを生成する。
+     * <p>
+     * ルーティング定義ごとにメソッドを生成するため、ルーティング定義が多い場合でもメソッドのサイズの上限を超えない。
+     * </p>
+     *
+     * @param content routes定義ファイルの内容
+     * @param className 生成するクラスの完全修飾名
+     * @return Javaソース
+     * @throws IllegalArgumentException routes定義ファイルの解析に失敗した場合や、ソースに出力できない設定値を含む場合
+     */
+    static String generate(byte[] content, String className) {
+        List<PathOptions> pathOptionsList = RoutesXmlReader.read(new ByteArrayInputStream(content));
+        int lastDot = className.lastIndexOf('.');
+        String simpleName = className.substring(lastDot + 1);
+
+        StringBuilder source = new StringBuilder();
+        if (lastDot > 0) {
+            source.append("package ").append(className, 0, lastDot).append(';').append(LINE_SEPARATOR)
+                    .append(LINE_SEPARATOR);
+        }
+        line(source, 0, "import java.util.ArrayList;");
+        line(source, 0, "import java.util.Arrays;");
+        line(source, 0, "import java.util.List;");
+        line(source, 0, "import java.util.regex.Pattern;");
+        line(source, 0, "");
+        line(source, 0, "import nablarch.integration.router.PathOptions;");
+        line(source, 0, "import nablarch.integration.router.PathOptionsProvider;");
+        line(source, 0, "import net.unit8.http.router.Options;");
+        line(source, 0, "");
+        line(source, 0, "/**");
+        line(source, 0, " * routes定義ファイルから " + RoutesSourceGenerator.class.getName() + " で生成したクラス。編集しないこと。");
+        line(source, 0, " */");
+        line(source, 0, "public final class " + simpleName + " implements PathOptionsProvider {");
+        line(source, 0, "");
+        line(source, 1, "/** 生成元のroutes定義ファイルの内容のチェックサム(SHA-256) */");
+        line(source, 1, "public static final String " + CHECKSUM_FIELD + " = \"" + Checksums.toHex(Checksums.of(content)) + "\";");
+        line(source, 0, "");
+        line(source, 1, "@Override");
+        line(source, 1, "public List<PathOptions> provide() {");
+        line(source, 2, "List<PathOptions> pathOptionsList = new ArrayList<PathOptions>(" + pathOptionsList.size() + ");");
+        for (int i = 0; i < pathOptionsList.size(); i++) {
+            line(source, 2, "pathOptionsList.add(route" + i + "());");
+        }
+        line(source, 2, "return pathOptionsList;");
+        line(source, 1, "}");
+        for (int i = 0; i < pathOptionsList.size(); i++) {
+            PathOptions pathOptions = pathOptionsList.get(i);
+            line(source, 0, "");
+            line(source, 1, "private static PathOptions route" + i + "() {");
+            String options = expression(source, pathOptions.getOptions(), new int[1]);
+            line(source, 2, "return new PathOptions(" + literal(pathOptions.getPath()) + ", " + options + ");");
+            line(source, 1, "}");
+        }
+        line(source, 0, "}");
+        return source.toString();
+    }
+
+    /**
+     * 設定値を生成する式を返す。
+     * <p>
+     * 設定値が {@link Options} の場合は、ローカル変数を宣言して値を設定する文を出力し、その変数名を返す。
+     * </p>
+     *
+     * @param source 出力先
+     * @param value 設定値
+     * @param counter ローカル変数の連番
+     * @return 式
+     * @throws IllegalArgumentException ソースに出力できない設定値の場合
+     */
+    private static String expression(StringBuilder source, Object value, int[] counter) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof String) {
+            return literal((String) value);
+        }
+        if (value instanceof Pattern) {
+            return "Pattern.compile(" + literal(((Pattern) value).pattern()) + ", " + ((Pattern) value).flags() + ")";
+        }
+        if (value instanceof Options) {
+            String variable = "options" + counter[0]++;
+            line(source, 2, "Options " + variable + " = new Options();");
+            for (Map.Entry<String, Object> entry : ((Options) value).entrySet()) {
+                String element = expression(source, entry.getValue(), counter);
+                line(source, 2, variable + ".put(" + literal(entry.getKey()) + ", " + element + ");");
+            }
+            return variable;
+        }
+        if (value instanceof List) {
+            StringBuilder elements = new StringBuilder();
+            for (Object element : (List<?>) value) {
+                if (elements.length() > 0) {
+                    elements.append(", ");
+                }
+                elements.append(expression(source, element, counter));
+            }
+            return "new ArrayList<Object>(Arrays.<Object>asList(" + elements + "))";
+        }
+        throw new IllegalArgumentException("unsupported value. type = [" + value.getClass().getName() + "]");
+    }
+
+    /**
+     * 文字列をJavaの文字列リテラルに変換する。
+     *
+     * @param value 文字列
+     * @return 文字列リテラル
+     */
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7E) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static void line(StringBuilder source, int indent, String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                source.append("    ");
+            }
+            source.append(line);
+        }
+        source.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private RoutesSourceGenerator() {
+    }
+}
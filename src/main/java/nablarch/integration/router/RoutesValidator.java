@@ -0,0 +1,107 @@
+package nablarch.integration.router;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 構築したルーティング定義を検証するクラス。
+ * <p>
+ * 以下の定義を不正な定義として検出する。
+ * <ul>
+ *     <li>コントローラが指定されているが、対応するアクションクラスをロードできない定義</li>
+ *     <li>パスパラメータを含まない定義のうち、それより前に定義された定義に全てマッチしてしまい、到達できない定義</li>
+ * </ul>
+ * パスパラメータを含む定義は、到達できるか否かを判定しない。
+ * </p>
+ */
+final class RoutesValidator {
+
+    /**
+     * ルーティング定義を検証する。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param basePackage アクションクラスのベースパッケージ
+     * @param loader アクションクラスをロードするクラスローダ
+     * @return 不正な定義の内容。不正な定義がない場合は空のリスト
+     */
+    static List<String> validate(List<CompiledRoute> compiledRoutes, String basePackage, ClassLoader loader) {
+        List<String> errors = new ArrayList<String>();
+        SegmentTree segmentTree = new SegmentTree(compiledRoutes);
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            PathOptions pathOptions = compiledRoute.getPathOptions();
+            String controller = pathOptions.getOptions().getString("controller");
+            // パスの":controller"で指定する定義は、コントローラが空文字となるため検証しない
+            if (controller != null && !controller.isEmpty()) {
+                String className = basePackage + "." + controller + "Action";
+                try {
+                    loader.loadClass(className);
+                } catch (ClassNotFoundException e) {
+                    errors.add("action class could not be loaded. path = [" + pathOptions.getPath()
+                            + "], class = [" + className + "]");
+                }
+            }
+            String path = compiledRoute.getStaticPath();
+            if (path != null && isUnreachable(compiledRoutes, segmentTree, compiledRoute, path)) {
+                errors.add("route is unreachable because preceding routes match the same request. path = ["
+                        + pathOptions.getPath() + "], methods = " + compiledRoute.getMethods());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 指定した定義が、それより前に定義された定義に全てマッチしてしまうか否か。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param segmentTree 構築済みのルートから作成した {@link SegmentTree}
+     * @param compiledRoute 判定する定義
+     * @param path 判定する定義のパス
+     * @return 到達できない場合は{@code true}
+     */
+    private static boolean isUnreachable(List<CompiledRoute> compiledRoutes, SegmentTree segmentTree,
+                                         CompiledRoute compiledRoute, String path) {
+        if (compiledRoute.getMethods().isEmpty()) {
+            // HTTPメソッドを問わない定義は、HTTPメソッドを問わない定義にマッチする場合のみ到達できない
+            return matchesPrecedingRoute(compiledRoutes, segmentTree, compiledRoute.getOrder(), path, null);
+        }
+        for (String method : compiledRoute.getMethods()) {
+            if (!matchesPrecedingRoute(compiledRoutes, segmentTree, compiledRoute.getOrder(), path, method)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 指定した定義より前に、HTTPメソッドとパスにマッチする定義が存在するか否か。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param segmentTree 構築済みのルートから作成した {@link SegmentTree}
+     * @param order 指定した定義の定義順
+     * @param path パス
+     * @param method HTTPメソッド({@code null}の場合はHTTPメソッドを問わない定義のみを対象とする)
+     * @return 存在する場合は{@code true}
+     */
+    private static boolean matchesPrecedingRoute(List<CompiledRoute> compiledRoutes, SegmentTree segmentTree,
+                                                 int order, String path, String method) {
+        for (int candidate : segmentTree.candidates(CompiledRoute.splitPath(path))) {
+            if (candidate >= order) {
+                return false;
+            }
+            CompiledRoute preceding = compiledRoutes.get(candidate);
+            if (method == null ? !preceding.getMethods().isEmpty() : !preceding.acceptsMethod(method)) {
+                continue;
+            }
+            if (preceding.recognize(path, method) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private RoutesValidator() {
+    }
+}
@@ -0,0 +1,86 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.Route;
+import net.unit8.http.router.RouteBuilder;
+import net.unit8.http.router.RouteLoader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * routes定義ファイル(routes.xml)を読み込み、定義順の {@link PathOptions} のリストに変換するクラス。
+ * <p>
+ * 定義ファイルの解析はhttp-request-routerの {@link RouteLoader} で行う。
+ * </p>
+ */
+final class RoutesXmlReader {
+
+    /**
+     * routes定義ファイルを読み込む。
+     *
+     * @param file routes定義ファイル
+     * @return ルーティング定義のリスト
+     * @throws IllegalArgumentException 定義ファイルの読み込みや解析に失敗した場合
+     */
+    static List<PathOptions> read(File file) {
+        RecordingRouteBuilder builder = new RecordingRouteBuilder();
+        new RouteLoader(builder).load(file);
+        return builder.pathOptionsList;
+    }
+
+    /**
+     * routes定義ファイルを読み込む。
+     *
+     * @param in routes定義ファイルの入力ストリーム
+     * @return ルーティング定義のリスト
+     * @throws IllegalArgumentException 定義ファイルの解析に失敗した場合
+     */
+    static List<PathOptions> read(InputStream in) {
+        RecordingRouteBuilder builder = new RecordingRouteBuilder();
+        new RouteLoader(builder).load(in);
+        return builder.pathOptionsList;
+    }
+
+    /**
+     * {@link Options} を複製する。値が {@link Options} の場合は、その値も複製する。
+     *
+     * @param options 複製元
+     * @return 複製した {@link Options}
+     */
+    private static Options copy(Options options) {
+        Options copied = new Options();
+        for (Map.Entry<String, Object> entry : options.entrySet()) {
+            Object value = entry.getValue();
+            copied.put(entry.getKey(), value instanceof Options ? copy((Options) value) : value);
+        }
+        return copied;
+    }
+
+    /**
+     * 構築を依頼されたルートの定義を記録する {@link RouteBuilder} 。
+     * <p>
+     * {@link RouteBuilder#build(String, Options)} は引数の設定を書き換えるため、書き換えられる前の設定を複製して記録する。
+     * </p>
+     */
+    private static class RecordingRouteBuilder extends RouteBuilder {
+
+        /** 記録したルーティング定義 */
+        private final List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
+
+        @Override
+        public Route build(String path, Options options) {
+            pathOptionsList.add(new PathOptions(path, copy(options)));
+            return super.build(path, options);
+        }
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private RoutesXmlReader() {
+    }
+}
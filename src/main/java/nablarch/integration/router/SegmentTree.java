@@ -0,0 +1,191 @@
+package nablarch.integration.router;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ルーティング定義をパスのセグメント単位で木構造に格納し、リクエストパスにマッチする可能性のある定義を絞り込むクラス。
+ * <p>
+ * セグメント単位で照合できないルーティング定義({@link CompiledRoute#isSegmentBound()}が{@code false})は、
+ * 全てのリクエストパスに対してマッチする可能性があるものとして扱う。<br>
+ * 絞り込みの結果はあくまで候補であり、最終的なマッチングは {@link CompiledRoute#recognize(String, String)} で行うこと。
+ * </p>
+ */
+final class SegmentTree {
+
+    /** 空の定義順の配列 */
+    private static final int[] NO_ORDERS = new int[0];
+
+    /** 木構造のルート */
+    private final Node root = new Node();
+
+    /** セグメント単位で照合できない定義の定義順(昇順) */
+    private final int[] unboundOrders;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     */
+    SegmentTree(List<CompiledRoute> compiledRoutes) {
+        int[] unbound = new int[compiledRoutes.size()];
+        int unboundCount = 0;
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            if (compiledRoute.isSegmentBound()) {
+                add(compiledRoute);
+            } else {
+                unbound[unboundCount++] = compiledRoute.getOrder();
+            }
+        }
+        unboundOrders = Arrays.copyOf(unbound, unboundCount);
+    }
+
+    /**
+     * 木構造にルーティング定義を追加する。
+     * <p>
+     * 省略可能なセグメントを持つ定義は、省略した場合の深さにも終端として登録する。
+     * </p>
+     *
+     * @param compiledRoute 構築済みのルート
+     */
+    private void add(CompiledRoute compiledRoute) {
+        String[] segments = compiledRoute.getSegments();
+        Node node = root;
+        for (int depth = 0; ; depth++) {
+            if (depth >= compiledRoute.getRequiredSegmentCount()) {
+                node.addTerminal(compiledRoute.getOrder());
+            }
+            if (depth == segments.length) {
+                return;
+            }
+            node = node.child(segments[depth]);
+        }
+    }
+
+    /**
+     * リクエストパスのセグメントにマッチする可能性のあるルーティング定義の定義順を、昇順で返す。
+     *
+     * @param segments リクエストパスのセグメント
+     * @return 定義順の配列(昇順)
+     */
+    int[] candidates(List<String> segments) {
+        Orders orders = new Orders(unboundOrders);
+        collect(root, segments, 0, orders);
+        return orders.toSortedArray();
+    }
+
+    /**
+     * 木構造を探索し、マッチする可能性のある定義順を収集する。
+     *
+     * @param node 探索中のノード
+     * @param segments リクエストパスのセグメント
+     * @param depth 探索中の深さ
+     * @param orders 収集先
+     */
+    private static void collect(Node node, List<String> segments, int depth, Orders orders) {
+        if (depth == segments.size()) {
+            orders.addAll(node.terminals);
+            return;
+        }
+        String segment = segments.get(depth);
+        Node literalChild = node.literalChildren.get(segment);
+        if (literalChild != null) {
+            collect(literalChild, segments, depth + 1, orders);
+        }
+        if (node.parameterChild != null) {
+            collect(node.parameterChild, segments, depth + 1, orders);
+        }
+    }
+
+    /**
+     * 木構造のノード。
+     */
+    private static final class Node {
+
+        /** 固定文字列のセグメントに対応する子ノード */
+        private final Map<String, Node> literalChildren = new HashMap<String, Node>();
+
+        /** パスパラメータのセグメントに対応する子ノード */
+        private Node parameterChild;
+
+        /** このノードで終端する定義の定義順 */
+        private int[] terminals = NO_ORDERS;
+
+        /**
+         * セグメントに対応する子ノードを取得する。存在しない場合は作成する。
+         *
+         * @param segment セグメントの値(パスパラメータの場合は{@code null})
+         * @return 子ノード
+         */
+        private Node child(String segment) {
+            if (segment == null) {
+                if (parameterChild == null) {
+                    parameterChild = new Node();
+                }
+                return parameterChild;
+            }
+            Node child = literalChildren.get(segment);
+            if (child == null) {
+                child = new Node();
+                literalChildren.put(segment, child);
+            }
+            return child;
+        }
+
+        /**
+         * このノードで終端する定義を追加する。
+         *
+         * @param order 定義順
+         */
+        private void addTerminal(int order) {
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = order;
+        }
+    }
+
+    /**
+     * 定義順を収集するための可変長配列。
+     */
+    private static final class Orders {
+
+        /** 定義順 */
+        private int[] values;
+
+        /** 格納数 */
+        private int size;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param initialValues 初期値
+         */
+        private Orders(int[] initialValues) {
+            values = Arrays.copyOf(initialValues, initialValues.length + 8);
+            size = initialValues.length;
+        }
+
+        /**
+         * 定義順を追加する。
+         *
+         * @param orders 追加する定義順
+         */
+        private void addAll(int[] orders) {
+            if (size + orders.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + orders.length));
+            }
+            System.arraycopy(orders, 0, values, size, orders.length);
+            size += orders.length;
+        }
+
+        /**
+         * @return 昇順に並べた定義順
+         */
+        private int[] toSortedArray() {
+            int[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
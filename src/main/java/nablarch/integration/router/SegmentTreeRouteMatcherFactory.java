@@ -0,0 +1,65 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+
+import java.util.List;
+
+/**
+ * パスのセグメント単位の木構造を使ってマッチングを行う {@link RouteMatcher} を生成するクラス。
+ * <p>
+ * ルーティング定義をパスのセグメント("/"で区切られた単位)ごとに木構造に格納しておき、
+ * リクエストパスのセグメントを辿ってマッチする可能性のある定義を絞り込む。
+ * 絞り込んだ定義に対してのみ定義順にマッチングを行うため、マッチングのコストは定義数ではなくパスの深さに比例する。
+ * </p>
+ * <p>
+ * マッチングの結果は、全ての定義を定義順に調べて最初にマッチしたものを採用する場合と同じになる。<br>
+ * パスの途中にパスパラメータを含むセグメント("/foo-(:id)"など)や、"/"を含む文字列にマッチし得る書式が指定された
+ * パスパラメータを持つ定義は絞り込みの対象外となり、常にマッチングの候補として扱われる。
+ * </p>
+ */
+public class SegmentTreeRouteMatcherFactory implements CompiledRouteMatcherFactory {
+
+    @Override
+    public RouteMatcher create(List<PathOptions> pathOptionsList) {
+        return new SegmentTreeRouteMatcher(CompiledRoute.compile(pathOptionsList));
+    }
+
+    @Override
+    public RouteMatcher create(List<CompiledRoute> compiledRoutes, RouteMatcher previous, RoutesDiff diff) {
+        return new SegmentTreeRouteMatcher(CompiledRoute.renumber(compiledRoutes));
+    }
+
+    /**
+     * {@link SegmentTree} で絞り込んだ定義に対してマッチングを行う {@link RouteMatcher} 。
+     */
+    private static class SegmentTreeRouteMatcher implements RouteMatcher {
+
+        /** 構築済みのルート(定義順) */
+        private final CompiledRoute[] compiledRoutes;
+
+        /** ルーティング定義の木構造 */
+        private final SegmentTree segmentTree;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param compiledRoutes 構築済みのルートのリスト
+         */
+        SegmentTreeRouteMatcher(List<CompiledRoute> compiledRoutes) {
+            this.compiledRoutes = compiledRoutes.toArray(new CompiledRoute[0]);
+            this.segmentTree = new SegmentTree(compiledRoutes);
+        }
+
+        @Override
+        public Options recognize(String path, String method) {
+            for (int order : segmentTree.candidates(CompiledRoute.splitPath(path))) {
+                Options options = compiledRoutes[order].recognize(path, method);
+                if (options != null) {
+                    return options;
+                }
+            }
+            throw new RoutingException("No route matches " + path);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package nablarch.integration.router;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 他の {@link PathOptionsProvider} が収集したルーティング定義を、スナップショットファイルに保存して再利用するクラス。
+ * <p>
+ * 初回の起動時は {@link #setPathOptionsProvider(PathOptionsProvider)} で設定した {@link PathOptionsProvider} で
+ * ルーティング定義を収集し、{@link #setSnapshotDirectory(String)} で設定したディレクトリにスナップショットファイルとして保存する。
+ * 次回以降の起動時は、スナップショットファイルが有効であればスナップショットファイルから読み込み、ルーティング定義の収集を行わない。
+ * </p>
+ * <p>
+ * スナップショットファイルの有効性は、クラスパスの全ての要素から算出したフィンガープリントで判定する。
+ * ディレクトリの場合は配下の全てのファイルのパス、サイズおよび更新日時、
+ * JARファイルの場合はJARファイルのパス、サイズおよび更新日時から算出するため、クラスファイルやJARファイルが
+ * 追加、削除、更新された場合はスナップショットファイルを使用せずにルーティング定義を収集し直す。
+ * クラスパスの要素は、コンテキストクラスローダとその親の {@link URLClassLoader} の要素、
+ * システムプロパティ{@code java.class.path}の要素、JARファイルのマニフェストの{@code Class-Path}の要素、
+ * および{@link #setBasePackage(String)} で設定したパッケージのリソースを含む要素から収集する。
+ * ベースパッケージのリソースを含む要素やクラスローダの要素がディレクトリでもJARファイルでもない場合は、
+ * 有効性を判定できないため、スナップショットファイルを使用しない。
+ * </p>
+ * <p>
+ * {@link #setPathOptionsProvider(PathOptionsProvider)} で設定した {@link PathOptionsProvider} の設定値は、
+ * {@link CacheablePathOptionsProvider#getCacheKey()} で取得したキーとしてフィンガープリントに含める。
+ * {@link CacheablePathOptionsProvider} を実装していない {@link PathOptionsProvider} の場合は設定値を検知できないため、
+ * {@link #setCacheKey(String)} でキーを設定しなければならない。
+ * </p>
+ * <p>
+ * 上記以外の方法でクラスをロードするクラスローダが読み込むクラスの変更は、フィンガープリントに含まれないため検知できない。
+ * 変更した場合は、{@link #setCacheKey(String)} で設定するキーを変更するか、スナップショットファイルを削除すること。
+ * スナップショットファイルを使用しない場合は、このクラスを使用せずに {@link PathOptionsProvider} を直接設定すること。
+ * </p>
+ * <p>
+ * スナップショットファイルの名前はデフォルトでベースパッケージとなる。
+ * ベースパッケージが同じで設定の異なる {@link PathOptionsProvider} を複数使用する場合は、
+ * {@link #setSnapshotName(String)} でそれぞれ異なる名前を設定すること。
+ * </p>
+ */
+public class SnapshotPathOptionsProvider implements PathOptionsProvider {
+
+    private static final Logger LOGGER = LoggerManager.get(SnapshotPathOptionsProvider.class);
+
+    private PathOptionsProvider pathOptionsProvider;
+    private String snapshotDirectory;
+    private String snapshotName;
+    private String basePackage;
+    private String cacheKey;
+
+    @Override
+    public List<PathOptions> provide() {
+        if (pathOptionsProvider == null) {
+            throw new IllegalStateException("pathOptionsProvider is not set.");
+        }
+        if (snapshotDirectory == null) {
+            throw new IllegalStateException("snapshotDirectory is not set.");
+        }
+        if (basePackage == null) {
+            throw new IllegalStateException("basePackage is not set.");
+        }
+        if (cacheKey == null && !(pathOptionsProvider instanceof CacheablePathOptionsProvider)) {
+            throw new IllegalStateException("cacheKey is not set. cacheKey is required if pathOptionsProvider does not"
+                    + " implement " + CacheablePathOptionsProvider.class.getName() + ".");
+        }
+
+        byte[] fingerprint = fingerprint();
+        if (fingerprint == null) {
+            return pathOptionsProvider.provide();
+        }
+
+        String name = snapshotName != null ? snapshotName : basePackage;
+        PathOptionsSnapshotFile snapshotFile = new PathOptionsSnapshotFile(
+                Paths.get(snapshotDirectory, name + ".snapshot"));
+        List<PathOptions> pathOptionsList = snapshotFile.read(fingerprint);
+        if (pathOptionsList != null) {
+            LOGGER.logDebug("routes were restored from the snapshot. basePackage = [" + basePackage + "]");
+            return pathOptionsList;
+        }
+
+        pathOptionsList = pathOptionsProvider.provide();
+        snapshotFile.write(fingerprint, pathOptionsList);
+        return pathOptionsList;
+    }
+
+    /**
+     * ルーティング定義を収集する {@link PathOptionsProvider} のキーと、クラスパスの全ての要素から、フィンガープリントを算出する。
+     *
+     * @return フィンガープリント。有効性を判定できないクラスパスの要素を含む場合は{@code null}
+     */
+    private byte[] fingerprint() {
+        MessageDigest digest = Checksums.newDigest();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try (DataOutputStream out = new DataOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            Set<Path> elements = collectClassPathElements(loader);
+            if (elements == null) {
+                return null;
+            }
+            out.writeUTF(pathOptionsProvider.getClass().getName());
+            out.writeUTF(pathOptionsProvider instanceof CacheablePathOptionsProvider
+                    ? ((CacheablePathOptionsProvider) pathOptionsProvider).getCacheKey() : "");
+            out.writeUTF(cacheKey != null ? cacheKey : "");
+            out.writeUTF(basePackage);
+            Path excluded = Paths.get(snapshotDirectory).toAbsolutePath().normalize();
+            for (Path element : elements) {
+                out.writeUTF(element.toString());
+                writeFingerprint(out, element, excluded);
+            }
+        } catch (IOException | UncheckedIOException | URISyntaxException e) {
+            LOGGER.logWarn("route snapshot is not used because the fingerprint could not be computed."
+                    + " basePackage = [" + basePackage + "]", e);
+            return null;
+        }
+        return digest.digest();
+    }
+
+    /**
+     * クラスパスの要素を収集する。
+     * <p>
+     * ベースパッケージのリソースを含む要素、クラスローダ({@link URLClassLoader})の要素、
+     * システムプロパティ{@code java.class.path}の要素、およびJARファイルのマニフェストの{@code Class-Path}の要素を収集する。
+     * </p>
+     *
+     * @param loader クラスローダ
+     * @return クラスパスの要素。有効性を判定できない要素を含む場合は{@code null}
+     * @throws IOException 要素の情報を取得できない場合
+     * @throws URISyntaxException 要素のURLが不正な場合
+     */
+    private Set<Path> collectClassPathElements(ClassLoader loader) throws IOException, URISyntaxException {
+        Set<Path> elements = new LinkedHashSet<Path>();
+        Enumeration<URL> resources = loader.getResources(basePackage.replace('.', '/'));
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            Path element = toPath(resource);
+            if (element == null) {
+                LOGGER.logDebug("route snapshot is not used because the resource can not be fingerprinted."
+                        + " resource = [" + resource + "]");
+                return null;
+            }
+            addClassPathElement(elements, element);
+        }
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (!(current instanceof URLClassLoader)) {
+                continue;
+            }
+            for (URL url : ((URLClassLoader) current).getURLs()) {
+                if (!"file".equals(url.getProtocol())) {
+                    LOGGER.logDebug("route snapshot is not used because the class path can not be fingerprinted."
+                            + " url = [" + url + "]");
+                    return null;
+                }
+                addClassPathElement(elements, Paths.get(url.toURI()));
+            }
+        }
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                addClassPathElement(elements, Paths.get(entry));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * ベースパッケージのリソースを含むクラスパスの要素のパスを取得する。
+     *
+     * @param resource ベースパッケージのリソース
+     * @return ディレクトリの場合はパッケージのディレクトリ、JARファイルの場合はJARファイルのパス。
+     *         それ以外の場合は{@code null}
+     * @throws IOException JARファイルの情報を取得できない場合
+     * @throws URISyntaxException リソースのURLが不正な場合
+     */
+    private static Path toPath(URL resource) throws IOException, URISyntaxException {
+        if ("file".equals(resource.getProtocol())) {
+            return Paths.get(resource.toURI());
+        }
+        if ("jar".equals(resource.getProtocol())) {
+            URLConnection connection = resource.openConnection();
+            if (connection instanceof JarURLConnection) {
+                URL jarFileUrl = ((JarURLConnection) connection).getJarFileURL();
+                if ("file".equals(jarFileUrl.getProtocol())) {
+                    return Paths.get(jarFileUrl.toURI());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * クラスパスの要素を追加する。
+     * <p>
+     * JARファイルの場合は、マニフェストの{@code Class-Path}に指定された要素も追加する。
+     * </p>
+     *
+     * @param elements クラスパスの要素
+     * @param element 追加する要素
+     * @throws IOException マニフェストの{@code Class-Path}の要素のURLが不正な場合
+     * @throws URISyntaxException マニフェストの{@code Class-Path}の要素のURLが不正な場合
+     */
+    private static void addClassPathElement(Set<Path> elements, Path element) throws IOException, URISyntaxException {
+        Path normalized = element.toAbsolutePath().normalize();
+        if (!elements.add(normalized) || !Files.isRegularFile(normalized)) {
+            return;
+        }
+        String classPath;
+        try (JarFile jarFile = new JarFile(normalized.toFile())) {
+            Manifest manifest = jarFile.getManifest();
+            if (manifest == null) {
+                return;
+            }
+            classPath = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+        } catch (IOException e) {
+            // JARファイルとして読み込めない要素は、サイズおよび更新日時のみをフィンガープリントに含める。
+            LOGGER.logDebug("manifest could not be read. element = [" + normalized + "]");
+            return;
+        }
+        if (classPath == null) {
+            return;
+        }
+        URL base = normalized.toUri().toURL();
+        for (String entry : classPath.trim().split("\\s+")) {
+            URL url = new URL(base, entry);
+            if ("file".equals(url.getProtocol())) {
+                addClassPathElement(elements, Paths.get(url.toURI()));
+            }
+        }
+    }
+
+    /**
+     * クラスパスの要素のサイズおよび更新日時を書き込む。
+     * <p>
+     * ディレクトリの場合は、配下の全てのファイルのパス、サイズおよび更新日時を書き込む。
+     * ただし、スナップショットファイルを保存するディレクトリ配下のファイルは含めない。
+     * </p>
+     *
+     * @param out 出力先
+     * @param element クラスパスの要素
+     * @param excluded スナップショットファイルを保存するディレクトリ
+     * @throws IOException 要素の情報を取得できない場合
+     */
+    private static void writeFingerprint(DataOutputStream out, Path element, Path excluded) throws IOException {
+        if (Files.isDirectory(element)) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(element)) {
+                files = paths.filter(path -> !path.startsWith(excluded))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            out.writeInt(files.size());
+            for (Path file : files) {
+                out.writeUTF(element.relativize(file).toString());
+                writeAttributes(out, file.toFile());
+            }
+        } else if (Files.exists(element)) {
+            out.writeInt(-1);
+            writeAttributes(out, element.toFile());
+        } else {
+            out.writeInt(-2);
+        }
+    }
+
+    private static void writeAttributes(DataOutputStream out, File file) throws IOException {
+        out.writeLong(file.length());
+        out.writeLong(file.lastModified());
+    }
+
+    /**
+     * ルーティング定義を収集する {@link PathOptionsProvider} を設定する。
+     * @param pathOptionsProvider {@link PathOptionsProvider}
+     */
+    public void setPathOptionsProvider(PathOptionsProvider pathOptionsProvider) {
+        this.pathOptionsProvider = pathOptionsProvider;
+    }
+
+    /**
+     * スナップショットファイルを保存するディレクトリを設定する。
+     * <p>
+     * ディレクトリが存在しない場合は作成する。
+     * </p>
+     * @param snapshotDirectory スナップショットファイルを保存するディレクトリ
+     */
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * スナップショットファイルの名前(拡張子を除く)を設定する。
+     * <p>
+     * 設定しない場合はベースパッケージを名前とする。
+     * </p>
+     * @param snapshotName スナップショットファイルの名前
+     */
+    public void setSnapshotName(String snapshotName) {
+        this.snapshotName = snapshotName;
+    }
+
+    /**
+     * スナップショットファイルの有効性を判定するパッケージを設定する。
+     * <p>
+     * 通常は、{@link #setPathOptionsProvider(PathOptionsProvider)} で設定した {@link PathOptionsProvider} の
+     * 検索ルートとなるパッケージを設定する。
+     * </p>
+     * @param basePackage スナップショットファイルの有効性を判定するパッケージ
+     */
+    public void setBasePackage(String basePackage) {
+        this.basePackage = basePackage;
+    }
+
+    /**
+     * スナップショットファイルの有効性の判定に使用するキーを設定する。
+     * <p>
+     * {@link #setPathOptionsProvider(PathOptionsProvider)} で設定した {@link PathOptionsProvider} が
+     * {@link CacheablePathOptionsProvider} を実装していない場合は必須となる。
+     * その {@link PathOptionsProvider} の設定値はフィンガープリントに含まれないため、
+     * アプリケーションパスなど収集結果が変わる設定を変更した場合は、このキーも変更すること。
+     * 例えば、アプリケーションパスをこのキーに設定しておけば、アプリケーションパスを変更した場合に
+     * ルーティング定義を収集し直すことができる。
+     * </p>
+     * @param cacheKey スナップショットファイルの有効性の判定に使用するキー
+     */
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+}
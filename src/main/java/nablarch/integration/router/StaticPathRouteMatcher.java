@@ -0,0 +1,123 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * パスパラメータを含まないルーティング定義を、HTTPメソッドとパスをキーにした {@link Map} で検索する {@link RouteMatcher} 。
+ * <p>
+ * リクエストのHTTPメソッドとパスに完全一致する定義があれば、その結果を返す。
+ * 完全一致する定義がなければ、委譲先の {@link RouteMatcher} でマッチングを行う。
+ * </p>
+ * <p>
+ * 完全一致で検索する対象は、それより前に定義されたルーティング定義がそのパスにマッチする可能性がないものに限る。
+ * そのため、マッチングの結果は委譲先の {@link RouteMatcher} で全ての定義を定義順に調べた場合と同じになる。
+ * </p>
+ */
+final class StaticPathRouteMatcher implements RouteMatcher {
+
+    /** HTTPメソッドごとの、パスとマッチングの結果 */
+    private final Map<String, Map<String, Options>> staticRoutes = new HashMap<String, Map<String, Options>>();
+
+    /** HTTPメソッドが指定されていない定義の、パスとマッチングの結果 */
+    private final Map<String, Options> anyMethodStaticRoutes = new HashMap<String, Options>();
+
+    /** 委譲先の {@link RouteMatcher} */
+    private final RouteMatcher delegate;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param delegate 完全一致する定義がない場合の委譲先
+     */
+    StaticPathRouteMatcher(List<CompiledRoute> compiledRoutes, RouteMatcher delegate) {
+        this.delegate = delegate;
+        SegmentTree segmentTree = new SegmentTree(compiledRoutes);
+        for (CompiledRoute compiledRoute : compiledRoutes) {
+            String path = compiledRoute.getStaticPath();
+            if (path == null) {
+                continue;
+            }
+            int[] candidates = segmentTree.candidates(CompiledRoute.splitPath(path));
+            if (compiledRoute.getMethods().isEmpty()) {
+                if (!hasPrecedingRoute(compiledRoutes, candidates, compiledRoute.getOrder(), null)) {
+                    register(anyMethodStaticRoutes, compiledRoute, path, null);
+                }
+                continue;
+            }
+            for (String method : compiledRoute.getMethods()) {
+                if (!hasPrecedingRoute(compiledRoutes, candidates, compiledRoute.getOrder(), method)) {
+                    Map<String, Options> paths = staticRoutes.get(method);
+                    if (paths == null) {
+                        paths = new HashMap<String, Options>();
+                        staticRoutes.put(method, paths);
+                    }
+                    register(paths, compiledRoute, path, method);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Options recognize(String path, String method) {
+        Map<String, Options> paths = staticRoutes.get(method);
+        Options options = paths == null ? null : paths.get(path);
+        if (options == null) {
+            options = anyMethodStaticRoutes.get(path);
+        }
+        if (options != null) {
+            return new Options(options);
+        }
+        return delegate.recognize(path, method);
+    }
+
+    /**
+     * @return 完全一致する定義がない場合の委譲先
+     */
+    RouteMatcher getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 指定した定義より前に、HTTPメソッドを許可し、パスにマッチする可能性がある定義が存在するか否か。
+     *
+     * @param compiledRoutes 構築済みのルートのリスト
+     * @param candidates パスにマッチする可能性がある定義の定義順(昇順)
+     * @param order 指定した定義の定義順
+     * @param method HTTPメソッド({@code null}の場合は全てのHTTPメソッド)
+     * @return 存在する場合は{@code true}
+     */
+    private static boolean hasPrecedingRoute(List<CompiledRoute> compiledRoutes, int[] candidates, int order, String method) {
+        for (int candidate : candidates) {
+            if (candidate >= order) {
+                return false;
+            }
+            if (method == null || compiledRoutes.get(candidate).acceptsMethod(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * マッチングの結果を登録する。既に同じパスが登録されている場合は何もしない。
+     *
+     * @param paths 登録先
+     * @param compiledRoute 構築済みのルート
+     * @param path パス
+     * @param method HTTPメソッド
+     */
+    private static void register(Map<String, Options> paths, CompiledRoute compiledRoute, String path, String method) {
+        if (paths.containsKey(path)) {
+            return;
+        }
+        Options options = compiledRoute.recognize(path, method);
+        if (options != null) {
+            paths.put(path, options);
+        }
+    }
+}
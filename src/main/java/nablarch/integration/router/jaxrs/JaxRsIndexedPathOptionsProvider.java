@@ -0,0 +1,136 @@
+package nablarch.integration.router.jaxrs;
+
+import nablarch.core.util.FileUtil;
+import nablarch.integration.router.CacheablePathOptionsProvider;
+import nablarch.integration.router.PathOptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link JaxRsRouteIndexProcessor} がコンパイル時に作成した索引からルーティング定義を収集するクラス。
+ * <p>
+ * {@link JaxRsPathOptionsProvider} と同じルーティング定義を、クラスパスを探索せずに作成する。
+ * そのため、起動時間が検索ルートとなるパッケージ配下のクラス数に依存しない。
+ * 索引が複数存在する場合(複数のJARファイルに含まれる場合など)は全ての索引を読み込み、
+ * 同じアクションクラスの情報が複数の索引に含まれる場合は、先に見つかった索引の情報を使用する。
+ * </p>
+ */
+public class JaxRsIndexedPathOptionsProvider implements CacheablePathOptionsProvider {
+
+    private String basePackage;
+    private String applicationPath;
+
+    @Override
+    public List<PathOptions> provide() {
+        if (applicationPath == null) {
+            throw new IllegalStateException("applicationPath is not set.");
+        }
+        if (basePackage == null) {
+            throw new IllegalStateException("basePackage is not set.");
+        }
+
+        JaxRsRouterConverter converter = new JaxRsRouterConverter(applicationPath);
+        String prefix = basePackage + ".";
+
+        List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
+        Set<String> indexedControllers = new HashSet<String>();
+        for (URL index : findIndexes()) {
+            Set<String> controllers = new HashSet<String>();
+            for (JaxRsRouteIndex.Entry entry : readIndex(index)) {
+                String controller = entry.getController();
+                if (!controller.startsWith(prefix) || indexedControllers.contains(controller)) {
+                    continue;
+                }
+                controllers.add(controller);
+                pathOptionsList.add(converter.convert(controller, entry.getAction(), entry.getHttpMethod(),
+                        entry.getClassPath(), entry.getMethodPath()));
+            }
+            indexedControllers.addAll(controllers);
+        }
+
+        // JaxRsPathOptionsProviderと同じく、パスの昇順でソートする
+        Collections.sort(pathOptionsList, JaxRsPathOptionsProvider.ORDER_BY_PATH_ASC);
+
+        return pathOptionsList;
+    }
+
+    /**
+     * クラスパスから索引を検索する。
+     *
+     * @return 索引のURL
+     * @throws IllegalStateException 索引が見つからない場合
+     */
+    private List<URL> findIndexes() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<URL> indexes = new ArrayList<URL>();
+        try {
+            Enumeration<URL> resources = loader.getResources(JaxRsRouteIndex.RESOURCE_NAME);
+            while (resources.hasMoreElements()) {
+                indexes.add(resources.nextElement());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "jax-rs route index could not be found. resource = [" + JaxRsRouteIndex.RESOURCE_NAME + "]", e);
+        }
+        if (indexes.isEmpty()) {
+            throw new IllegalStateException("jax-rs route index could not be found."
+                    + " compile resource classes with " + JaxRsRouteIndexProcessor.class.getName()
+                    + ". resource = [" + JaxRsRouteIndex.RESOURCE_NAME + "]");
+        }
+        return indexes;
+    }
+
+    /**
+     * 索引を読み込む。
+     *
+     * @param index 索引のURL
+     * @return 索引の内容
+     * @throws IllegalStateException 読み込みに失敗した場合
+     */
+    private static List<JaxRsRouteIndex.Entry> readIndex(URL index) {
+        InputStream in = null;
+        try {
+            in = index.openStream();
+            return JaxRsRouteIndex.read(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("jax-rs route index could not be read. index = [" + index + "]", e);
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 検索ルートとなるパッケージとアプリケーションパスからキーを作成する。
+     * </p>
+     */
+    @Override
+    public String getCacheKey() {
+        return "basePackage = [" + basePackage + "], applicationPath = [" + applicationPath + "]";
+    }
+
+    /**
+     * 検索ルートとなるパッケージを設定する。
+     * @param basePackage 検索ルートとなるパッケージ
+     */
+    public void setBasePackage(String basePackage) {
+        this.basePackage = basePackage;
+    }
+
+    /**
+     * アプリケーションパスを設定する。
+     *  @param applicationPath アプリケーションパス
+     */
+    public void setApplicationPath(String applicationPath) {
+        this.applicationPath = applicationPath;
+    }
+}
@@ -1,6 +1,6 @@
 package nablarch.integration.router.jaxrs;
 
-import nablarch.integration.router.PathOptionsProvider;
+import nablarch.integration.router.CacheablePathOptionsProvider;
 import nablarch.integration.router.PathOptions;
 
 import java.util.ArrayList;
@@ -13,8 +13,8 @@ import java.util.List;
  *
  * @author Tanaka Tomoyuki
  */
-public class JaxRsPathOptionsProvider implements PathOptionsProvider {
-    private static final Comparator<PathOptions> ORDER_BY_PATH_ASC = new Comparator<PathOptions>() {
+public class JaxRsPathOptionsProvider implements CacheablePathOptionsProvider {
+    static final Comparator<PathOptions> ORDER_BY_PATH_ASC = new Comparator<PathOptions>() {
         @Override
         public int compare(PathOptions left, PathOptions right) {
             return left.getPath().compareTo(right.getPath());
@@ -23,6 +23,8 @@ public class JaxRsPathOptionsProvider implements PathOptionsProvider {
 
     private String basePackage;
     private String applicationPath;
+    private boolean classFileScanning = false;
+    private int parallelism = 1;
 
     @Override
     public List<PathOptions> provide() {
@@ -34,13 +36,14 @@ public class JaxRsPathOptionsProvider implements PathOptionsProvider {
         }
 
         JaxRsResourceFinder resourceFinder = new JaxRsResourceFinder();
-        JaxRsRouterConverter pathStringParser = new JaxRsRouterConverter(applicationPath);
+        resourceFinder.setClassFileScanning(classFileScanning);
+        resourceFinder.setParallelism(parallelism);
+        final JaxRsRouterConverter pathStringParser = new JaxRsRouterConverter(applicationPath);
         
-        List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
-        
-        for (JaxRsResource jaxRsResource : resourceFinder.find(basePackage)) {
-            pathOptionsList.addAll(pathStringParser.parse(jaxRsResource));
-        }
+        final List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
+
+        // リソースクラスが見つかった時点で、検索時に読み取ったアノテーションの情報を使ってルーティング定義に変換する
+        resourceFinder.find(basePackage, jaxRsResource -> pathStringParser.parse(jaxRsResource, pathOptionsList));
 
         /*
          * http-request-router はルーティング定義のリストを順番に調べて、
@@ -59,6 +62,17 @@ public class JaxRsPathOptionsProvider implements PathOptionsProvider {
         return pathOptionsList;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 検索ルートとなるパッケージとアプリケーションパスからキーを作成する。
+     * </p>
+     */
+    @Override
+    public String getCacheKey() {
+        return "basePackage = [" + basePackage + "], applicationPath = [" + applicationPath + "]";
+    }
+
     /**
      * 検索ルートとなるパッケージを設定する。
      * @param basePackage 検索ルートとなるパッケージ
@@ -67,6 +81,31 @@ public class JaxRsPathOptionsProvider implements PathOptionsProvider {
         this.basePackage = basePackage;
     }
 
+    /**
+     * リソースクラスを検索する際に、クラスをロードする前にクラスファイルの内容で
+     * リソースクラスとなり得るかを判定するか否かを設定する。
+     * <p>
+     * デフォルトは {@code false} 。
+     * 詳細は {@link JaxRsResourceFinder#setClassFileScanning(boolean)} を参照。
+     * </p>
+     * @param classFileScanning クラスファイルの内容で判定する場合は {@code true}
+     */
+    public void setClassFileScanning(boolean classFileScanning) {
+        this.classFileScanning = classFileScanning;
+    }
+
+    /**
+     * リソースクラスを検索する際の並列度を設定する。
+     * <p>
+     * デフォルトは {@code 1} 。
+     * 詳細は {@link JaxRsResourceFinder#setParallelism(int)} を参照。
+     * </p>
+     * @param parallelism 並列度
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     /**
      * アプリケーションパスを設定する。
      *  @param applicationPath アプリケーションパス
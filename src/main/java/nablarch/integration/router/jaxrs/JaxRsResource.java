@@ -1,7 +1,9 @@
 package nablarch.integration.router.jaxrs;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 探索結果の JAX-RS のアクションクラスとリソースクラス、HTTPをマッピングしたメソッドの情報を格納したクラス。
@@ -16,6 +18,7 @@ public class JaxRsResource {
     private final Class<?> actionClass;
     private final Class<?> resourceClass;
     private final List<Method> resourceMethodList;
+    private final Map<Method, ResourceMethod> resourceMethods;
 
     /**
      * コンストラクタ。
@@ -27,6 +30,20 @@ public class JaxRsResource {
         this.actionClass = actionClass;
         this.resourceClass = resourceClass;
         this.resourceMethodList = resourceMethodList;
+        this.resourceMethods = null;
+    }
+
+    /**
+     * 検索時に読み取ったリソースメソッドの情報を指定するコンストラクタ。
+     * @param actionClass アクションクラスの {@link Class} オブジェクト
+     * @param resourceClass リソースクラスの {@link Class} オブジェクト
+     * @param resourceMethods リソースメソッドと、そのアノテーションから読み取った情報(定義順)
+     */
+    JaxRsResource(Class<?> actionClass, Class<?> resourceClass, Map<Method, ResourceMethod> resourceMethods) {
+        this.actionClass = actionClass;
+        this.resourceClass = resourceClass;
+        this.resourceMethodList = new ArrayList<Method>(resourceMethods.keySet());
+        this.resourceMethods = resourceMethods;
     }
 
     /**
@@ -52,4 +69,13 @@ public class JaxRsResource {
     public List<Method> getResourceMethodList() {
         return resourceMethodList;
     }
+
+    /**
+     * 検索時に読み取ったリソースメソッドの情報を取得する。
+     * @param resourceMethod リソースメソッド
+     * @return リソースメソッドの情報。読み取っていない場合は{@code null}
+     */
+    ResourceMethod getResourceMethod(Method resourceMethod) {
+        return resourceMethods == null ? null : resourceMethods.get(resourceMethod);
+    }
 }
@@ -10,15 +10,39 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * JAX-RS のリソースクラスと、そこに定義されたHTTPメソッドをマッピングしたメソッド定義を検索するクラス。
+ * <p>
+ * {@link #setClassFileScanning(boolean)} で {@code true} を設定した場合は、クラスをロードする前にクラスファイルの内容を解析し、
+ * リソースクラスとなり得ないクラスをロードせずに除外する。
+ * 検索対象のパッケージ配下にリソースクラス以外のクラスが多い場合に、検索時間とメタスペースの使用量を削減できる。
+ * </p>
+ * <p>
+ * {@link #setParallelism(int)} で2以上を設定した場合は、{@link ForkJoinPool} を使用して
+ * リソースのルートごと、およびクラスの一定件数ごとに並列で検索する。
+ * 並列で検索した場合も、検索結果は逐次で検索した場合と同じ順序となる。
+ * </p>
  *
  * @author Tanaka Tomoyuki
  */
 public class JaxRsResourceFinder {
 
+    /** 並列で検索する場合に、1つのタスクで処理するクラス数 */
+    private static final int BATCH_SIZE = 64;
+
+    private boolean classFileScanning = false;
+
+    private int parallelism = 1;
+
     /**
      * 指定されたパッケージ配下を検索し、{@link jakarta.ws.rs.Path} アノテーションが設定された
      * クラスおよびメソッドを抽出する。
@@ -26,7 +50,27 @@ public class JaxRsResourceFinder {
      * @return 検索結果
      */
     public List<JaxRsResource> find(String basePackage) {
-        ResourceClassHandler resourceClassHandler = new ResourceClassHandler();
+        List<JaxRsResource> jaxRsResourceList = new ArrayList<>();
+        find(basePackage, jaxRsResourceList::add);
+        return jaxRsResourceList;
+    }
+
+    /**
+     * 指定されたパッケージ配下を検索し、見つかったリソースクラスの情報を順に指定された処理に渡す。
+     * <p>
+     * 逐次で検索する場合は、検索結果のリストを作成せず、リソースクラスが見つかった時点で処理に渡す。
+     * 並列で検索する場合は、全ての検索が終わった後に、逐次で検索した場合と同じ順序で処理に渡す。
+     * </p>
+     * @param basePackage 検索対象のパッケージ
+     * @param consumer 見つかったリソースクラスの情報を処理する {@link Consumer}
+     */
+    void find(String basePackage, Consumer<JaxRsResource> consumer) {
+        if (parallelism > 1) {
+            findInParallel(basePackage).forEach(consumer);
+            return;
+        }
+
+        ResourceClassHandler resourceClassHandler = new ResourceClassHandler(classFileScanning, consumer);
 
         for (Resources resourcesType : ResourcesUtil.getResourcesTypes(basePackage)) {
             try {
@@ -35,18 +79,166 @@ public class JaxRsResourceFinder {
                 resourcesType.close();
             }
         }
+    }
 
-        return resourceClassHandler.getJaxRsResourceList();
+    /**
+     * 指定されたパッケージ配下を並列で検索する。
+     * <p>
+     * リソースのルートごとのタスクでクラス名を列挙し、クラス名を{@value #BATCH_SIZE}件ごとのタスクに分割して処理する。
+     * 各タスクの検索結果は、列挙した順序で結合する。
+     * </p>
+     * @param basePackage 検索対象のパッケージ
+     * @return 検索結果
+     */
+    private List<JaxRsResource> findInParallel(String basePackage) {
+        List<RootTask> rootTasks = new ArrayList<>();
+        for (Resources resourcesType : ResourcesUtil.getResourcesTypes(basePackage)) {
+            rootTasks.add(new RootTask(resourcesType, classFileScanning));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new RecursiveTask<List<JaxRsResource>>() {
+                @Override
+                protected List<JaxRsResource> compute() {
+                    List<JaxRsResource> jaxRsResourceList = new ArrayList<>();
+                    for (RootTask rootTask : ForkJoinTask.invokeAll(rootTasks)) {
+                        jaxRsResourceList.addAll(rootTask.join());
+                    }
+                    return jaxRsResourceList;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * クラスをロードする前に、クラスファイルの内容でリソースクラスとなり得るかを判定するか否かを設定する。
+     * <p>
+     * デフォルトは {@code false} 。
+     * </p>
+     * @param classFileScanning クラスファイルの内容で判定する場合は {@code true}
+     */
+    public void setClassFileScanning(boolean classFileScanning) {
+        this.classFileScanning = classFileScanning;
+    }
+
+    /**
+     * 検索の並列度を設定する。
+     * <p>
+     * デフォルトは {@code 1} 。
+     * 2以上を設定した場合は、指定した並列度の {@link ForkJoinPool} で検索する。
+     * 1以下を設定した場合は、呼び出し元のスレッドで逐次検索する。
+     * </p>
+     * @param parallelism 並列度
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * リソースのルート配下のクラスを検索するタスク。
+     */
+    private static class RootTask extends RecursiveTask<List<JaxRsResource>> {
+        private final Resources resourcesType;
+        private final boolean classFileScanning;
+
+        private RootTask(Resources resourcesType, boolean classFileScanning) {
+            this.resourcesType = resourcesType;
+            this.classFileScanning = classFileScanning;
+        }
+
+        @Override
+        protected List<JaxRsResource> compute() {
+            final List<String> classNames = new ArrayList<>();
+            try {
+                resourcesType.forEach(new ClassHandler() {
+                    @Override
+                    public void process(String packageName, String className) {
+                        classNames.add(packageName + "." + className);
+                    }
+                });
+            } finally {
+                resourcesType.close();
+            }
+            return new BatchTask(classNames, 0, classNames.size(), classFileScanning).compute();
+        }
+    }
+
+    /**
+     * クラス名のリストの一部を検索するタスク。
+     * <p>
+     * 処理するクラス数が{@value #BATCH_SIZE}件を超える場合は、2つのタスクに分割する。
+     * {@link ResourceClassHandler} はスレッドセーフではないため、タスクごとに生成する。
+     * </p>
+     */
+    private static class BatchTask extends RecursiveTask<List<JaxRsResource>> {
+        private final List<String> classNames;
+        private final int from;
+        private final int to;
+        private final boolean classFileScanning;
+
+        private BatchTask(List<String> classNames, int from, int to, boolean classFileScanning) {
+            this.classNames = classNames;
+            this.from = from;
+            this.to = to;
+            this.classFileScanning = classFileScanning;
+        }
+
+        @Override
+        protected List<JaxRsResource> compute() {
+            if (to - from <= BATCH_SIZE) {
+                List<JaxRsResource> jaxRsResourceList = new ArrayList<>();
+                ResourceClassHandler resourceClassHandler = new ResourceClassHandler(
+                        classFileScanning, jaxRsResourceList::add);
+                for (String className : classNames.subList(from, to)) {
+                    resourceClassHandler.process(className);
+                }
+                return jaxRsResourceList;
+            }
+
+            int middle = (from + to) >>> 1;
+            BatchTask head = new BatchTask(classNames, from, middle, classFileScanning);
+            head.fork();
+            List<JaxRsResource> tail = new BatchTask(classNames, middle, to, classFileScanning).compute();
+
+            // 列挙した順序を保つため、前半の結果の後ろに後半の結果を結合する
+            List<JaxRsResource> jaxRsResourceList = new ArrayList<>(head.join());
+            jaxRsResourceList.addAll(tail);
+            return jaxRsResourceList;
+        }
     }
 
     private static class ResourceClassHandler implements ClassHandler {
         private final ClassLoader classLoader = this.getClass().getClassLoader();
-        private final List<JaxRsResource> jaxRsResourceList = new ArrayList<>();
+        private final Consumer<JaxRsResource> consumer;
+        private final ResourceClassFilter resourceClassFilter;
+        /** アノテーションの型と、HTTPメソッドのアノテーションの場合はHTTPメソッド(それ以外は{@code null}) */
+        private final Map<Class<? extends Annotation>, String> httpMethods = new HashMap<>();
+
+        private ResourceClassHandler(boolean classFileScanning, Consumer<JaxRsResource> consumer) {
+            this.consumer = consumer;
+            resourceClassFilter = classFileScanning ? new ResourceClassFilter(classLoader) : null;
+        }
 
         @Override
         public void process(String packageName, String className) {
+            process(packageName + "." + className);
+        }
+
+        /**
+         * 指定されたクラスがJAX-RSリソースクラスであれば、検索結果に追加する。
+         *
+         * @param name クラス名
+         */
+        private void process(String name) {
+            if (resourceClassFilter != null && !resourceClassFilter.mayBeResource(name)) {
+                // リソースクラスとなり得ないクラスはロードしない
+                return;
+            }
             try {
-                Class<?> clazz = classLoader.loadClass(packageName + "." + className);
+                Class<?> clazz = classLoader.loadClass(name);
 
                 if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
                     // インターフェースや抽象クラスは除外
@@ -58,10 +250,10 @@ public class JaxRsResourceFinder {
                 if (jaxRsResourceClass != null) {
                     // JAX-RSリソースクラスと判定されたClassクラスに定義されているメソッドをリソースメソッドとして扱う。
                     // それ以外の継承/実装関係にあるクラスのリソースメソッドは無視される
-                    List<Method> resourceMethodList = findResourceMethods(jaxRsResourceClass);
+                    Map<Method, ResourceMethod> resourceMethods = findResourceMethods(jaxRsResourceClass);
 
                     // JAX-RSリソースクラスそのものは探索対象のパッケージ配下にあった具象クラスとする
-                    jaxRsResourceList.add(new JaxRsResource(clazz, jaxRsResourceClass, resourceMethodList));
+                    consumer.accept(new JaxRsResource(clazz, jaxRsResourceClass, resourceMethods));
                 }
             } catch (ClassNotFoundException e) {
                 throw new RuntimeException(e);
@@ -115,33 +307,63 @@ public class JaxRsResourceFinder {
             return clazz.isAnnotationPresent(Path.class);
         }
 
-        private List<Method> findResourceMethods(Class<?> clazz) {
-            List<Method> methodList = new ArrayList<>();
+        /**
+         * 指定されたクラスに定義されたリソースメソッドを探し、アノテーションから読み取った情報とともに返す。
+         *
+         * @param clazz リソースクラス
+         * @return リソースメソッドと、そのアノテーションから読み取った情報(定義順)
+         */
+        private Map<Method, ResourceMethod> findResourceMethods(Class<?> clazz) {
+            Map<Method, ResourceMethod> resourceMethods = new LinkedHashMap<>();
             for (Method method : clazz.getDeclaredMethods()) {
-                if (isAnnotatedByHttpMethod(method)) {
-                    methodList.add(method);
+                ResourceMethod resourceMethod = resourceMethodOf(method);
+                if (resourceMethod != null) {
+                    resourceMethods.put(method, resourceMethod);
                 }
             }
-            return methodList;
+            return resourceMethods;
         }
 
-        private boolean isAnnotatedByHttpMethod(Method method) {
-            int httpMethodAnnotationCount = 0;
+        /**
+         * メソッドのアノテーションを1回だけ走査し、HTTPメソッドと {@link Path} の値を読み取る。
+         *
+         * @param method メソッド
+         * @return 読み取った情報。HTTPメソッドのアノテーションが設定されていない場合は{@code null}
+         */
+        private ResourceMethod resourceMethodOf(Method method) {
+            String httpMethod = null;
+            String path = null;
             for (Annotation annotation : method.getDeclaredAnnotations()) {
-                if (annotation.annotationType().isAnnotationPresent(HttpMethod.class)) {
-                    httpMethodAnnotationCount++;
+                if (annotation instanceof Path) {
+                    path = ((Path) annotation).value();
+                    continue;
+                }
+                String value = httpMethodOf(annotation.annotationType());
+                if (value != null) {
+                    if (httpMethod != null) {
+                        throw new RuntimeException("'" + method.getName() + "' method has multiple HTTP method annotations.");
+                    }
+                    httpMethod = value;
                 }
             }
-            
-            if (2 <= httpMethodAnnotationCount) {
-                throw new RuntimeException("'" + method.getName() + "' method has multiple HTTP method annotations.");
-            } else {
-                return httpMethodAnnotationCount == 1;
-            }
+            return httpMethod == null ? null : new ResourceMethod(httpMethod, path);
         }
 
-        private List<JaxRsResource> getJaxRsResourceList() {
-            return jaxRsResourceList;
+        /**
+         * アノテーションの型がHTTPメソッドのアノテーションであれば、そのHTTPメソッドを返す。
+         * <p>
+         * 同じアノテーションの型は多くのメソッドに設定されるため、判定結果をキャッシュする。
+         * </p>
+         *
+         * @param annotationType アノテーションの型
+         * @return HTTPメソッド。HTTPメソッドのアノテーションでない場合は{@code null}
+         */
+        private String httpMethodOf(Class<? extends Annotation> annotationType) {
+            if (!httpMethods.containsKey(annotationType)) {
+                HttpMethod httpMethod = annotationType.getAnnotation(HttpMethod.class);
+                httpMethods.put(annotationType, httpMethod == null ? null : httpMethod.value());
+            }
+            return httpMethods.get(annotationType);
         }
     }
 }
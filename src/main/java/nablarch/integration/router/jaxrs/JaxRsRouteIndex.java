@@ -0,0 +1,263 @@
+package nablarch.integration.router.jaxrs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * コンパイル時に作成する、JAX-RS のリソースメソッドの索引の形式を定義するクラス。
+ * <p>
+ * 索引はUTF-8のテキストで、1行に1つのリソースメソッドを以下の項目のタブ区切りで記述する。
+ * "#"で始まる行と空行は無視する。
+ * <ol>
+ *     <li>アクションクラスの名前({@link Class#getName()} で得られる値)</li>
+ *     <li>リソースメソッドの名前</li>
+ *     <li>HTTPメソッド</li>
+ *     <li>リソースクラスに設定された {@link jakarta.ws.rs.Path} の値</li>
+ *     <li>リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値</li>
+ *     <li>リソースメソッドを宣言したリソースクラスの名前(アクションクラス自身、または {@link jakarta.ws.rs.Path} が設定された
+ *     親クラスやインターフェース)</li>
+ * </ol>
+ * {@link jakarta.ws.rs.Path} の値は、設定されていない場合は空文字とし、設定されている場合は"/"で始まる値に揃える。
+ * 値に含まれる"\"、タブ、改行は、それぞれ"\\"、"\t"、"\n"にエスケープする。
+ * </p>
+ */
+final class JaxRsRouteIndex {
+
+    /** 索引のリソース名 */
+    static final String RESOURCE_NAME = "META-INF/nablarch/router/jaxrs-routes.idx";
+
+    /** 索引の先頭に出力するコメント */
+    private static final String HEADER = "# generated by " + JaxRsRouteIndexProcessor.class.getName();
+
+    /** 項目の区切り文字 */
+    private static final char SEPARATOR = '\t';
+
+    /** 1行の項目数 */
+    private static final int FIELD_COUNT = 6;
+
+    /**
+     * 索引を読み込む。
+     *
+     * @param in 索引の入力ストリーム
+     * @return 索引の内容
+     * @throws IOException 読み込みに失敗した場合
+     * @throws IllegalArgumentException 索引の形式が不正な場合
+     */
+    static List<Entry> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Entry> entries = new ArrayList<Entry>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+            if (fields.length != FIELD_COUNT) {
+                throw new IllegalArgumentException("invalid jax-rs route index. line = [" + line + "]");
+            }
+            entries.add(new Entry(unescape(fields[0]), unescape(fields[1]), unescape(fields[2]),
+                    toPath(unescape(fields[3])), toPath(unescape(fields[4])), unescape(fields[5])));
+        }
+        return entries;
+    }
+
+    /**
+     * 索引を書き込む。
+     *
+     * @param writer 出力先
+     * @param entries 索引の内容
+     * @throws IOException 書き込みに失敗した場合
+     */
+    static void write(Writer writer, List<Entry> entries) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Entry entry : entries) {
+            writer.write(escape(entry.getController()));
+            writer.write(SEPARATOR);
+            writer.write(escape(entry.getAction()));
+            writer.write(SEPARATOR);
+            writer.write(escape(entry.getHttpMethod()));
+            writer.write(SEPARATOR);
+            writer.write(escape(fromPath(entry.getClassPath())));
+            writer.write(SEPARATOR);
+            writer.write(escape(fromPath(entry.getMethodPath())));
+            writer.write(SEPARATOR);
+            writer.write(escape(entry.getResourceType()));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * {@link jakarta.ws.rs.Path} の値を索引の項目に変換する。
+     * <p>
+     * パスの連結時は先頭の"/"が1つだけ取り除かれるため、"/"で始まらない値に"/"を付与しても連結結果は変わらない。
+     * </p>
+     *
+     * @param path {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+     * @return 索引の項目
+     */
+    private static String fromPath(String path) {
+        if (path == null) {
+            return "";
+        }
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    /**
+     * 索引の項目を {@link jakarta.ws.rs.Path} の値に変換する。
+     *
+     * @param field 索引の項目
+     * @return {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+     */
+    private static String toPath(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    /**
+     * 値をエスケープする。
+     *
+     * @param value 値
+     * @return エスケープした値
+     */
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * エスケープした値を元に戻す。
+     *
+     * @param value エスケープした値
+     * @return 元の値
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 >= value.length()) {
+                unescaped.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            unescaped.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private JaxRsRouteIndex() {
+    }
+
+    /**
+     * 索引に記述する1つのリソースメソッドの情報。
+     */
+    static final class Entry {
+
+        /** アクションクラスの名前 */
+        private final String controller;
+
+        /** リソースメソッドの名前 */
+        private final String action;
+
+        /** HTTPメソッド */
+        private final String httpMethod;
+
+        /** リソースクラスに設定された {@link jakarta.ws.rs.Path} の値 */
+        private final String classPath;
+
+        /** リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値 */
+        private final String methodPath;
+
+        /** リソースメソッドを宣言したリソースクラスの名前 */
+        private final String resourceType;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param controller アクションクラスの名前
+         * @param action リソースメソッドの名前
+         * @param httpMethod HTTPメソッド
+         * @param classPath リソースクラスに設定された {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+         * @param methodPath リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+         * @param resourceType リソースメソッドを宣言したリソースクラスの名前
+         */
+        Entry(String controller, String action, String httpMethod, String classPath, String methodPath,
+              String resourceType) {
+            this.controller = controller;
+            this.action = action;
+            this.httpMethod = httpMethod;
+            this.classPath = classPath;
+            this.methodPath = methodPath;
+            this.resourceType = resourceType;
+        }
+
+        /**
+         * @return アクションクラスの名前
+         */
+        String getController() {
+            return controller;
+        }
+
+        /**
+         * @return リソースメソッドの名前
+         */
+        String getAction() {
+            return action;
+        }
+
+        /**
+         * @return HTTPメソッド
+         */
+        String getHttpMethod() {
+            return httpMethod;
+        }
+
+        /**
+         * @return リソースクラスに設定された {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+         */
+        String getClassPath() {
+            return classPath;
+        }
+
+        /**
+         * @return リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+         */
+        String getMethodPath() {
+            return methodPath;
+        }
+
+        /**
+         * @return リソースメソッドを宣言したリソースクラスの名前
+         */
+        String getResourceType() {
+            return resourceType;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package nablarch.integration.router.jaxrs;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * JAX-RS のリソースメソッドの索引をコンパイル時に作成するアノテーションプロセッサ。
+ * <p>
+ * コンパイル対象のクラスから、{@link JaxRsResourceFinder} と同じ条件でリソースクラスとリソースメソッドを抽出し、
+ * {@link JaxRsRouteIndex#RESOURCE_NAME} に索引を出力する。
+ * 作成した索引は {@link JaxRsIndexedPathOptionsProvider} で読み込む。
+ * </p>
+ * <p>
+ * 全てのコンパイルで動作しないよう、このプロセッサはサービスとして登録していない。
+ * 使用する場合は、maven-compiler-pluginの{@code annotationProcessors}などで明示的に指定すること。
+ * </p>
+ * <p>
+ * 変更したクラスだけをコンパイルする場合に備え、出力先に索引が存在する場合は、
+ * 今回コンパイルしていないクラスの情報を引き継ぐ(存在しなくなったクラスの情報は引き継がない)。
+ * ただし、リソースメソッドを宣言したリソースクラス(親クラスやインターフェース)など、継承元のクラスを今回コンパイルした場合は、
+ * 引き継がずにコンパイル済みのクラスから情報を作成し直す。
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class JaxRsRouteIndexProcessor extends AbstractProcessor {
+
+    /** {@link jakarta.ws.rs.Path} の名前 */
+    private static final String PATH = "jakarta.ws.rs.Path";
+
+    /** {@link jakarta.ws.rs.HttpMethod} の名前 */
+    private static final String HTTP_METHOD = "jakarta.ws.rs.HttpMethod";
+
+    /** 今回コンパイルしたクラスの名前と、そのクラスのリソースメソッド(名前順) */
+    private final Map<String, List<JaxRsRouteIndex.Entry>> compiled = new TreeMap<String, List<JaxRsRouteIndex.Entry>>();
+
+    /** 今回コンパイルしたクラス(インターフェースや抽象クラスを含む)の名前 */
+    private final Set<String> compiledTypes = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        // 他のプロセッサでもアノテーションを処理できるよう、アノテーションを要求しない
+        return false;
+    }
+
+    /**
+     * 指定した要素とネストしたクラスから、リソースメソッドを収集する。
+     *
+     * @param element 要素
+     */
+    private void collect(Element element) {
+        if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed);
+        }
+        compiledTypes.add(binaryNameOf(type));
+        if (type.getKind().isInterface() || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            // インターフェースや抽象クラスは除外
+            return;
+        }
+        compiled.put(binaryNameOf(type), entriesOf(type));
+    }
+
+    /**
+     * 指定したアクションクラスのリソースメソッドの情報を作成する。
+     *
+     * @param type アクションクラス
+     * @return リソースメソッドの情報(リソースクラスでない場合は空のリスト)
+     */
+    private List<JaxRsRouteIndex.Entry> entriesOf(TypeElement type) {
+        String controller = binaryNameOf(type);
+        List<JaxRsRouteIndex.Entry> entries = new ArrayList<JaxRsRouteIndex.Entry>();
+        TypeElement resourceType = findResourceType(type);
+        if (resourceType != null) {
+            String classPath = annotationValue(resourceType, PATH);
+            String resourceTypeName = binaryNameOf(resourceType);
+            for (Element enclosed : resourceType.getEnclosedElements()) {
+                if (enclosed.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                String httpMethod = httpMethodOf((ExecutableElement) enclosed);
+                if (httpMethod != null) {
+                    entries.add(new JaxRsRouteIndex.Entry(controller, enclosed.getSimpleName().toString(), httpMethod,
+                            classPath, annotationValue(enclosed, PATH), resourceTypeName));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 指定したクラスの継承元(親クラスとインターフェース)に、今回コンパイルしたクラスが含まれるか否か。
+     *
+     * @param type クラス
+     * @return 今回コンパイルしたクラスを継承している場合は{@code true}
+     */
+    private boolean inheritsCompiledType(TypeElement type) {
+        List<TypeMirror> superTypes = new ArrayList<TypeMirror>(type.getInterfaces());
+        superTypes.add(type.getSuperclass());
+        for (TypeMirror superType : superTypes) {
+            TypeElement superElement = asTypeElement(superType);
+            if (superElement != null
+                    && (compiledTypes.contains(binaryNameOf(superElement)) || inheritsCompiledType(superElement))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * クラスの名前({@link Class#getName()} で得られる値)を取得する。
+     *
+     * @param type クラス
+     * @return クラスの名前
+     */
+    private String binaryNameOf(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * 指定したクラスがリソースクラスであれば、そのクラスを返す。そうでない場合、親クラスやインターフェースを探索する。
+     * <p>
+     * 探索の順序は {@link JaxRsResourceFinder} と同じとする。
+     * </p>
+     *
+     * @param type 探索対象のクラス
+     * @return 見つかったリソースクラス。見つからなかった場合は{@code null}
+     */
+    private TypeElement findResourceType(TypeElement type) {
+        if (isResource(type)) {
+            return type;
+        }
+        TypeElement superType = asTypeElement(type.getSuperclass());
+        if (superType != null && isResource(superType)) {
+            return superType;
+        }
+        for (TypeMirror interfaceType : type.getInterfaces()) {
+            TypeElement interfaceElement = asTypeElement(interfaceType);
+            if (interfaceElement != null && isResource(interfaceElement)) {
+                return interfaceElement;
+            }
+        }
+        if (superType != null && !superType.getQualifiedName().contentEquals(Object.class.getName())) {
+            return findResourceType(superType);
+        }
+        return null;
+    }
+
+    /**
+     * 指定したクラスがリソースクラスか否か。
+     *
+     * @param type クラス
+     * @return {@link jakarta.ws.rs.Path} が設定されている場合は{@code true}
+     */
+    private boolean isResource(TypeElement type) {
+        return findAnnotation(type, PATH) != null;
+    }
+
+    /**
+     * リソースメソッドのHTTPメソッドを取得する。
+     *
+     * @param method メソッド
+     * @return HTTPメソッド。リソースメソッドでない場合は{@code null}
+     */
+    private String httpMethodOf(ExecutableElement method) {
+        String httpMethod = null;
+        int httpMethodAnnotationCount = 0;
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            String value = annotationValue(annotation.getAnnotationType().asElement(), HTTP_METHOD);
+            if (value != null) {
+                httpMethod = value;
+                httpMethodAnnotationCount++;
+            }
+        }
+        if (2 <= httpMethodAnnotationCount) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "'" + method.getSimpleName() + "' method has multiple HTTP method annotations.", method);
+            return null;
+        }
+        return httpMethod;
+    }
+
+    /**
+     * 要素に設定されたアノテーションの{@code value}を取得する。
+     *
+     * @param element 要素
+     * @param annotationName アノテーションの名前
+     * @return {@code value}の値。アノテーションが設定されていない場合は{@code null}
+     */
+    private String annotationValue(Element element, String annotationName) {
+        AnnotationMirror annotation = findAnnotation(element, annotationName);
+        if (annotation == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 要素に設定されたアノテーションを取得する。
+     *
+     * @param element 要素
+     * @param annotationName アノテーションの名前
+     * @return アノテーション。設定されていない場合は{@code null}
+     */
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element annotationType = annotation.getAnnotationType().asElement();
+            if (((TypeElement) annotationType).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 型をクラスの要素に変換する。
+     *
+     * @param type 型
+     * @return クラスの要素。クラスでない場合は{@code null}
+     */
+    private static TypeElement asTypeElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    /**
+     * 索引を出力する。
+     * <p>
+     * 出力先の索引から引き継ぐクラスのうち、リソースクラスや継承元のクラスを今回コンパイルしたものは、
+     * 引き継いだ情報が古いため、コンパイル済みのクラスから情報を作成し直す。
+     * </p>
+     */
+    private void writeIndex() {
+        List<JaxRsRouteIndex.Entry> entries = new ArrayList<JaxRsRouteIndex.Entry>();
+        Map<String, List<JaxRsRouteIndex.Entry>> regenerated = new TreeMap<String, List<JaxRsRouteIndex.Entry>>();
+        for (JaxRsRouteIndex.Entry entry : readPreviousIndex()) {
+            String controller = entry.getController();
+            if (compiled.containsKey(controller) || regenerated.containsKey(controller)) {
+                continue;
+            }
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(controller.replace('$', '.'));
+            if (type == null) {
+                continue;
+            }
+            if (compiledTypes.contains(entry.getResourceType()) || inheritsCompiledType(type)) {
+                regenerated.put(controller, entriesOf(type));
+            } else {
+                entries.add(entry);
+            }
+        }
+        for (List<JaxRsRouteIndex.Entry> regeneratedEntries : regenerated.values()) {
+            entries.addAll(regeneratedEntries);
+        }
+        for (List<JaxRsRouteIndex.Entry> compiledEntries : compiled.values()) {
+            entries.addAll(compiledEntries);
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", JaxRsRouteIndex.RESOURCE_NAME);
+            Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8);
+            try {
+                JaxRsRouteIndex.write(writer, entries);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "jax-rs route index could not be written. cause = [" + e + "]");
+        }
+    }
+
+    /**
+     * 出力先に存在する索引を読み込む。
+     *
+     * @return 索引の内容。存在しない場合は空のリスト
+     */
+    private List<JaxRsRouteIndex.Entry> readPreviousIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT, "", JaxRsRouteIndex.RESOURCE_NAME);
+            InputStream in = index.openInputStream();
+            try {
+                return JaxRsRouteIndex.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // 索引が存在しない場合は、引き継ぐ情報はない
+            return new ArrayList<JaxRsRouteIndex.Entry>();
+        } catch (IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "previous jax-rs route index is ignored because it is invalid. cause = [" + e.getMessage() + "]");
+            return new ArrayList<JaxRsRouteIndex.Entry>();
+        }
+    }
+}
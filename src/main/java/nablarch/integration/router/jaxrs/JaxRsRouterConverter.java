@@ -46,50 +46,75 @@ public class JaxRsRouterConverter {
      */
     public List<PathOptions> parse(JaxRsResource jaxRsResource) {
         List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
-        Class<?> actionClass = jaxRsResource.getActionClass();
-        Class<?> resourceClass = jaxRsResource.getResourceClass();
+        parse(jaxRsResource, pathOptionsList);
+        return pathOptionsList;
+    }
+
+    /**
+     * 指定されたリソースクラスの情報を解析して、ルーティング定義に変換したものを指定されたリストに追加する。
+     * <p>
+     * {@link JaxRsResourceFinder} が検索時にリソースメソッドのアノテーションを読み取っている場合は、その情報を使用する。
+     * </p>
+     * @param jaxRsResource リソースクラスの情報
+     * @param pathOptionsList 変換したルーティング定義を追加するリスト
+     */
+    void parse(JaxRsResource jaxRsResource, List<PathOptions> pathOptionsList) {
+        String controller = jaxRsResource.getActionClass().getName();
+        String classPath = pathOf(jaxRsResource.getResourceClass());
 
         for (Method resourceMethod : jaxRsResource.getResourceMethodList()) {
-            Options options = Options.newInstance();
-            options.put("controller", actionClass.getName());
-            options.put("action", resourceMethod.getName());
-            options.put("conditions", buildConditions(resourceMethod));
-            
-            PathRequirements pathRequirements = buildRouterRequirements(resourceClass, resourceMethod);
-            options.put("requirements", pathRequirements.getRequirements());
-            
-            PathOptions pathOptions = new PathOptions(pathRequirements.getPath(), options);
-            pathOptionsList.add(pathOptions);
+            ResourceMethod metadata = jaxRsResource.getResourceMethod(resourceMethod);
+            if (metadata != null) {
+                pathOptionsList.add(convert(controller, resourceMethod.getName(), metadata.getHttpMethod(),
+                        classPath, metadata.getPath()));
+            } else {
+                pathOptionsList.add(convert(controller, resourceMethod.getName(), httpMethodOf(resourceMethod),
+                        classPath, pathOf(resourceMethod)));
+            }
         }
+    }
 
-        return pathOptionsList;
+    /**
+     * リソースメソッドの情報をルーティング定義に変換する。
+     * @param controller アクションクラスの名前({@link Class#getName()} で得られる値)
+     * @param action リソースメソッドの名前
+     * @param httpMethod HTTPメソッド
+     * @param classPath リソースクラスに設定された {@link Path} の値。設定されていない場合は{@code null}
+     * @param methodPath リソースメソッドに設定された {@link Path} の値。設定されていない場合は{@code null}
+     * @return ルーティング定義
+     */
+    PathOptions convert(String controller, String action, String httpMethod, String classPath, String methodPath) {
+        Options options = Options.newInstance();
+        options.put("controller", controller);
+        options.put("action", action);
+        Options conditions = Options.newInstance();
+        conditions.put("method", httpMethod);
+        options.put("conditions", conditions);
+
+        PathRequirements pathRequirements = jaxRsPathParser.parse(
+                appendPath(appendPath(applicationPath, classPath), methodPath));
+        options.put("requirements", pathRequirements.getRequirements());
+
+        return new PathOptions(pathRequirements.getPath(), options);
     }
-    
-    private Options buildConditions(Method resourceMethod) {
+
+    private String httpMethodOf(Method resourceMethod) {
         for (Annotation annotation : resourceMethod.getDeclaredAnnotations()) {
             Class<?> annotationType = annotation.annotationType();
             
             if (annotationType.isAnnotationPresent(HttpMethod.class)) {
-                Options conditions = Options.newInstance();
-                conditions.put("method", annotationType.getAnnotation(HttpMethod.class).value());
-                return conditions;
+                return annotationType.getAnnotation(HttpMethod.class).value();
             }
         }
         throw new IllegalArgumentException("'" + resourceMethod.getName() + "' method has no HttpMethod annotation.");
     }
-    
-    private PathRequirements buildRouterRequirements(Class<?> resourceClass, Method resourceMethod) {
-        String jaxRsPath = buildJaxRsPath(resourceClass, resourceMethod);
-        return jaxRsPathParser.parse(jaxRsPath);
-    }
 
-    private String buildJaxRsPath(Class<?> clazz, Method method) {
-        String classAppended = appendPath(applicationPath, clazz);
-        return appendPath(classAppended, method);
+    private String pathOf(AnnotatedElement target) {
+        return target.isAnnotationPresent(Path.class) ? target.getAnnotation(Path.class).value() : null;
     }
 
-    private String appendPath(String basePath, AnnotatedElement target) {
-        if (!target.isAnnotationPresent(Path.class)) {
+    private String appendPath(String basePath, String pathValue) {
+        if (pathValue == null) {
             return basePath;
         }
 
@@ -97,7 +122,6 @@ public class JaxRsRouterConverter {
         if (!basePath.endsWith(PATH_SEPARATOR)) {
             result.append(PATH_SEPARATOR);
         }
-        String pathValue = target.getAnnotation(Path.class).value();
         if (pathValue.startsWith(PATH_SEPARATOR)) {
             result.append(pathValue.substring(1));
         } else {
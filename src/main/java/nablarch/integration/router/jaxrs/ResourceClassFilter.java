@@ -0,0 +1,389 @@
+package nablarch.integration.router.jaxrs;
+
+import nablarch.core.util.FileUtil;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * クラスファイルの内容から、クラスをロードせずにJAX-RSのリソースクラスとなり得るかを判定するクラス。
+ * <p>
+ * クラスファイルのアクセスフラグ、親クラス、インターフェース、クラスに設定されたアノテーション
+ * (RuntimeVisibleAnnotations属性)を読み込み、{@link JaxRsResourceFinder} と同じ順序で
+ * 親クラスやインターフェースをたどって {@link jakarta.ws.rs.Path} が設定されたクラスを探す。
+ * 親クラスやインターフェースのクラスファイルも、クラスローダからリソースとして読み込むためロードしない。
+ * </p>
+ * <p>
+ * クラスファイルを読み込めない場合や解析できない場合は判定できないため、リソースクラスとなり得るものとして扱う。
+ * 読み込んだクラスファイルの解析結果は、このインスタンスの中でキャッシュする。
+ * </p>
+ */
+final class ResourceClassFilter {
+
+    /** {@link jakarta.ws.rs.Path} の型記述子 */
+    private static final String PATH_DESCRIPTOR = "Ljakarta/ws/rs/Path;";
+
+    /** RuntimeVisibleAnnotations属性の名前 */
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    /** インターフェースを表すアクセスフラグ */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /** 抽象クラスを表すアクセスフラグ */
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /** {@link Object} のクラス名 */
+    private static final String OBJECT = Object.class.getName();
+
+    /** クラスファイルを読み込むクラスローダ */
+    private final ClassLoader classLoader;
+
+    /** クラス名と解析結果(解析できなかった場合は{@code null}) */
+    private final Map<String, ClassFile> classFiles = new HashMap<String, ClassFile>();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param classLoader クラスファイルを読み込むクラスローダ
+     */
+    ResourceClassFilter(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 指定したクラスが、リソースクラスとして扱われる可能性があるか否か。
+     * <p>
+     * インターフェースや抽象クラスの場合は、{@link JaxRsResourceFinder} で除外されるため{@code false}を返す。
+     * </p>
+     *
+     * @param className クラス名({@link Class#getName()} で得られる値)
+     * @return リソースクラスとして扱われる可能性がある場合は{@code true}
+     */
+    boolean mayBeResource(String className) {
+        ClassFile classFile = classFileOf(className);
+        if (classFile == null) {
+            return true;
+        }
+        if ((classFile.accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) != 0) {
+            return false;
+        }
+        return hasResourceInHierarchy(classFile);
+    }
+
+    /**
+     * 指定したクラス、または {@link JaxRsResourceFinder} が探索する親クラスやインターフェースに、
+     * {@link jakarta.ws.rs.Path} が設定されている可能性があるか否か。
+     *
+     * @param classFile クラスファイルの解析結果
+     * @return 設定されている可能性がある場合は{@code true}
+     */
+    private boolean hasResourceInHierarchy(ClassFile classFile) {
+        if (classFile.annotated) {
+            return true;
+        }
+        if (classFile.superClassName == null) {
+            return false;
+        }
+        ClassFile superClassFile = classFileOf(classFile.superClassName);
+        if (superClassFile == null || superClassFile.annotated) {
+            return true;
+        }
+        for (String interfaceName : classFile.interfaceNames) {
+            ClassFile interfaceFile = classFileOf(interfaceName);
+            if (interfaceFile == null || interfaceFile.annotated) {
+                return true;
+            }
+        }
+        return !OBJECT.equals(classFile.superClassName) && hasResourceInHierarchy(superClassFile);
+    }
+
+    /**
+     * クラスファイルを読み込んで解析する。
+     *
+     * @param className クラス名
+     * @return 解析結果。読み込めない場合や解析できない場合は{@code null}
+     */
+    private ClassFile classFileOf(String className) {
+        if (classFiles.containsKey(className)) {
+            return classFiles.get(className);
+        }
+        ClassFile classFile = OBJECT.equals(className) ? ClassFile.OBJECT : read(className);
+        classFiles.put(className, classFile);
+        return classFile;
+    }
+
+    /**
+     * クラスファイルを読み込んで解析する。
+     *
+     * @param className クラス名
+     * @return 解析結果。読み込めない場合や解析できない場合は{@code null}
+     */
+    private ClassFile read(String className) {
+        InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (in == null) {
+            return null;
+        }
+        try {
+            return ClassFile.parse(new DataInputStream(new BufferedInputStream(in)));
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // 想定外の形式のクラスファイルは判定しない
+            return null;
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * クラスファイルの解析結果。
+     */
+    private static final class ClassFile {
+
+        /** {@link Object} の解析結果 */
+        private static final ClassFile OBJECT = new ClassFile(0, null, Collections.<String>emptyList(), false);
+
+        /** アクセスフラグ */
+        private final int accessFlags;
+
+        /** 親クラスの名前。{@link Object} の場合は{@code null} */
+        private final String superClassName;
+
+        /** 実装しているインターフェースの名前 */
+        private final List<String> interfaceNames;
+
+        /** {@link jakarta.ws.rs.Path} が設定されているか否か */
+        private final boolean annotated;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param accessFlags アクセスフラグ
+         * @param superClassName 親クラスの名前
+         * @param interfaceNames 実装しているインターフェースの名前
+         * @param annotated {@link jakarta.ws.rs.Path} が設定されているか否か
+         */
+        private ClassFile(int accessFlags, String superClassName, List<String> interfaceNames, boolean annotated) {
+            this.accessFlags = accessFlags;
+            this.superClassName = superClassName;
+            this.interfaceNames = interfaceNames;
+            this.annotated = annotated;
+        }
+
+        /**
+         * クラスファイルを解析する。
+         * <p>
+         * 定数プールに {@link jakarta.ws.rs.Path} の型記述子が存在しない場合は、アノテーションの解析を省略する。
+         * </p>
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @return 解析結果
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static ClassFile parse(DataInputStream in) throws IOException {
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("not a class file.");
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+
+            int constantPoolCount = in.readUnsignedShort();
+            String[] utf8 = new String[constantPoolCount];
+            int[] classNameIndexes = new int[constantPoolCount];
+            boolean pathReferenced = false;
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[i] = in.readUTF();
+                        pathReferenced |= PATH_DESCRIPTOR.equals(utf8[i]);
+                        break;
+                    case 7:
+                        classNameIndexes[i] = in.readUnsignedShort();
+                        break;
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        skipFully(in, 2);
+                        break;
+                    case 15:
+                        skipFully(in, 3);
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 12:
+                    case 17:
+                    case 18:
+                        skipFully(in, 4);
+                        break;
+                    case 5:
+                    case 6:
+                        skipFully(in, 8);
+                        // long、doubleは定数プールの2つ分を使用する
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("unknown constant pool tag. tag = [" + tag + "]");
+                }
+            }
+
+            int accessFlags = in.readUnsignedShort();
+            in.readUnsignedShort();
+            int superClassIndex = in.readUnsignedShort();
+            String superClassName = superClassIndex == 0 ? null : classNameOf(utf8, classNameIndexes, superClassIndex);
+            int interfaceCount = in.readUnsignedShort();
+            List<String> interfaceNames = new ArrayList<String>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaceNames.add(classNameOf(utf8, classNameIndexes, in.readUnsignedShort()));
+            }
+            if (!pathReferenced) {
+                return new ClassFile(accessFlags, superClassName, interfaceNames, false);
+            }
+
+            skipMembers(in);
+            skipMembers(in);
+            return new ClassFile(accessFlags, superClassName, interfaceNames, readAnnotationTypes(in, utf8)
+                    .contains(PATH_DESCRIPTOR));
+        }
+
+        /**
+         * クラス名の定数から、クラス名を取得する。
+         *
+         * @param utf8 定数プールの文字列
+         * @param classNameIndexes 定数プールのクラス名の参照先
+         * @param index クラス名の定数の位置
+         * @return クラス名({@link Class#getName()} で得られる形式)
+         */
+        private static String classNameOf(String[] utf8, int[] classNameIndexes, int index) {
+            return utf8[classNameIndexes[index]].replace('/', '.');
+        }
+
+        /**
+         * フィールドまたはメソッドの定義を読み飛ばす。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static void skipMembers(DataInputStream in) throws IOException {
+            int memberCount = in.readUnsignedShort();
+            for (int i = 0; i < memberCount; i++) {
+                skipFully(in, 6);
+                skipAttributes(in, in.readUnsignedShort());
+            }
+        }
+
+        /**
+         * 属性を読み飛ばす。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @param attributeCount 属性の数
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static void skipAttributes(DataInputStream in, int attributeCount) throws IOException {
+            for (int i = 0; i < attributeCount; i++) {
+                skipFully(in, 2);
+                skipFully(in, in.readInt() & 0xFFFFFFFFL);
+            }
+        }
+
+        /**
+         * クラスの属性から、クラスに設定されたアノテーションの型記述子を取得する。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @param utf8 定数プールの文字列
+         * @return アノテーションの型記述子
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static Set<String> readAnnotationTypes(DataInputStream in, String[] utf8) throws IOException {
+            Set<String> annotationTypes = new HashSet<String>();
+            int attributeCount = in.readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                String name = utf8[in.readUnsignedShort()];
+                long length = in.readInt() & 0xFFFFFFFFL;
+                if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                    skipFully(in, length);
+                    continue;
+                }
+                int annotationCount = in.readUnsignedShort();
+                for (int j = 0; j < annotationCount; j++) {
+                    annotationTypes.add(utf8[in.readUnsignedShort()]);
+                    skipElementValuePairs(in);
+                }
+            }
+            return annotationTypes;
+        }
+
+        /**
+         * アノテーションの要素の値を読み飛ばす。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static void skipElementValuePairs(DataInputStream in) throws IOException {
+            int pairCount = in.readUnsignedShort();
+            for (int i = 0; i < pairCount; i++) {
+                skipFully(in, 2);
+                skipElementValue(in);
+            }
+        }
+
+        /**
+         * アノテーションの要素の値を読み飛ばす。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static void skipElementValue(DataInputStream in) throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 'e':
+                    skipFully(in, 4);
+                    break;
+                case '@':
+                    skipFully(in, 2);
+                    skipElementValuePairs(in);
+                    break;
+                case '[':
+                    int valueCount = in.readUnsignedShort();
+                    for (int i = 0; i < valueCount; i++) {
+                        skipElementValue(in);
+                    }
+                    break;
+                default:
+                    // B、C、D、F、I、J、S、Z、s、c
+                    skipFully(in, 2);
+            }
+        }
+
+        /**
+         * 指定したバイト数を読み飛ばす。
+         *
+         * @param in クラスファイルの入力ストリーム
+         * @param length バイト数
+         * @throws IOException 読み込みに失敗した場合
+         */
+        private static void skipFully(DataInputStream in, long length) throws IOException {
+            long remaining = length;
+            while (remaining > 0) {
+                int skipped = in.skipBytes((int) Math.min(remaining, Integer.MAX_VALUE));
+                if (skipped <= 0) {
+                    throw new IOException("unexpected end of class file.");
+                }
+                remaining -= skipped;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package nablarch.integration.router.jaxrs;
+
+/**
+ * リソースクラスを検索する際に、リソースメソッドのアノテーションから読み取った情報を保持するクラス。
+ * <p>
+ * ルーティング定義に変換する際に、同じアノテーションを再度リフレクションで読み取らずに済むよう、
+ * {@link JaxRsResourceFinder} が作成して {@link JaxRsResource} に格納する。
+ * </p>
+ */
+final class ResourceMethod {
+
+    /** HTTPメソッド */
+    private final String httpMethod;
+
+    /** リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値 */
+    private final String path;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param httpMethod HTTPメソッド
+     * @param path リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+     */
+    ResourceMethod(String httpMethod, String path) {
+        this.httpMethod = httpMethod;
+        this.path = path;
+    }
+
+    /**
+     * HTTPメソッドを取得する。
+     *
+     * @return HTTPメソッド
+     */
+    String getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * リソースメソッドに設定された {@link jakarta.ws.rs.Path} の値を取得する。
+     *
+     * @return {@link jakarta.ws.rs.Path} の値。設定されていない場合は{@code null}
+     */
+    String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,72 @@
+package nablarch.integration.router;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link ActionMethodTable} のテスト。
+ */
+public class ActionMethodTableTest {
+
+    @Test
+    public void testSameAsGetMethod() throws Exception {
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "handle"),
+                is(SubAction.class.getMethod("handle", HttpRequest.class, ExecutionContext.class)));
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "inherited"),
+                is(SubAction.class.getMethod("inherited", HttpRequest.class, ExecutionContext.class)));
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "covariant"),
+                is(SubAction.class.getMethod("covariant", HttpRequest.class, ExecutionContext.class)));
+    }
+
+    @Test
+    public void testMethodNotFound() {
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "unknown"), is(nullValue()));
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "otherParameters"), is(nullValue()));
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "notPublic"), is(nullValue()));
+    }
+
+    @Test
+    public void testMethodIsCached() {
+        Method method = ActionMethodTable.getMethod(SubAction.class, "handle");
+        assertThat(ActionMethodTable.getMethod(SubAction.class, "handle"), sameInstance(method));
+    }
+
+    public static class BaseAction {
+
+        public String inherited(HttpRequest request, ExecutionContext context) {
+            return "inherited";
+        }
+
+        public Object covariant(HttpRequest request, ExecutionContext context) {
+            return "base";
+        }
+    }
+
+    public static class SubAction extends BaseAction {
+
+        public String handle(HttpRequest request, ExecutionContext context) {
+            return "handle";
+        }
+
+        @Override
+        public String covariant(HttpRequest request, ExecutionContext context) {
+            return "sub";
+        }
+
+        public String otherParameters(Object request, ExecutionContext context) {
+            return "other";
+        }
+
+        String notPublic(HttpRequest request, ExecutionContext context) {
+            return "notPublic";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package nablarch.integration.router;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link ControllerClassCache} のテスト。
+ */
+public class ControllerClassCacheTest {
+
+    private final ControllerClassCache sut = new ControllerClassCache();
+
+    @Test
+    public void testGetAndPut() {
+        ClassLoader loader = getClass().getClassLoader();
+
+        assertThat(sut.get(loader, "RoutesMappingTest"), is(nullValue()));
+        sut.put(loader, "RoutesMappingTest", RoutesMappingTestAction.class);
+
+        assertThat(sut.get(loader, "RoutesMappingTest"), is((Object) RoutesMappingTestAction.class));
+        assertThat(sut.get(loader, "Other"), is(nullValue()));
+        assertThat(sut.get(loader, null), is(nullValue()));
+    }
+
+    @Test
+    public void testClassLoadersAreSeparated() throws Exception {
+        ClassLoader loader = getClass().getClassLoader();
+        URLClassLoader otherLoader = new URLClassLoader(new URL[0], loader);
+        try {
+            sut.put(loader, "RoutesMappingTest", RoutesMappingTestAction.class);
+            assertThat(sut.get(otherLoader, "RoutesMappingTest"), is(nullValue()));
+
+            sut.put(otherLoader, "RoutesMappingTest", Object.class);
+            assertThat(sut.get(otherLoader, "RoutesMappingTest"), is((Object) Object.class));
+            assertThat(sut.get(loader, "RoutesMappingTest"), is((Object) RoutesMappingTestAction.class));
+        } finally {
+            otherLoader.close();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        ClassLoader loader = getClass().getClassLoader();
+        sut.put(loader, "RoutesMappingTest", RoutesMappingTestAction.class);
+        sut.clear();
+
+        assertThat(sut.get(loader, "RoutesMappingTest"), is(nullValue()));
+    }
+}
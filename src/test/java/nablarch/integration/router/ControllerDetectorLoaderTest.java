@@ -0,0 +1,118 @@
+package nablarch.integration.router;
+
+import nablarch.test.support.reflection.ReflectionUtil;
+import net.unit8.http.router.ControllerDetector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link ControllerDetectorLoader} のテスト。
+ */
+public class ControllerDetectorLoaderTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    /**
+     * routes.propertiesに指定されたクラスが、ベースパッケージを指定して生成されること。
+     */
+    @Test
+    public void testLoad() throws Exception {
+        ControllerDetector detector = ControllerDetectorLoader.load("nablarch.integration.router");
+
+        assertThat(detector, is(instanceOf(NablarchControllerDetector.class)));
+        assertThat(ReflectionUtil.<String>getFieldValue(detector, "basePackage"), is("nablarch.integration.router"));
+    }
+
+    /**
+     * クラスが指定されていない場合は、{@link NablarchControllerDetector}が生成されること。
+     */
+    @Test
+    public void testCreateDefault() throws Exception {
+        ControllerDetector detector = ControllerDetectorLoader.create(" ", "example");
+
+        assertThat(detector, is(instanceOf(NablarchControllerDetector.class)));
+        assertThat(ReflectionUtil.<String>getFieldValue(detector, "basePackage"), is("example"));
+    }
+
+    /**
+     * ベースパッケージを引数に取るコンストラクタを持つクラスは、ベースパッケージを指定して生成されること。
+     */
+    @Test
+    public void testCreateWithBasePackage() {
+        ControllerDetector detector = ControllerDetectorLoader.create(
+                BasePackageControllerDetector.class.getName(), "example");
+
+        assertThat(detector, is(instanceOf(BasePackageControllerDetector.class)));
+        assertThat(((BasePackageControllerDetector) detector).basePackage, is("example"));
+    }
+
+    /**
+     * ベースパッケージを引数に取るコンストラクタを持たないクラスは、引数のないコンストラクタで生成されること。
+     */
+    @Test
+    public void testCreateWithoutBasePackage() {
+        ControllerDetector detector = ControllerDetectorLoader.create(
+                " " + FixedControllerDetector.class.getName() + " ", "example");
+
+        assertThat(detector, is(instanceOf(FixedControllerDetector.class)));
+        assertThat(detector.detect(), is(Collections.singletonList("fixed")));
+    }
+
+    /**
+     * {@link ControllerDetector}でないクラスが指定された場合は、例外が送出されること。
+     */
+    @Test
+    public void testCreateFailsIfNotControllerDetector() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("controller detector could not be created. router.controllerDetector = [java.lang.Object]");
+        exception.expectCause(is(instanceOf(ClassCastException.class)));
+
+        ControllerDetectorLoader.create("java.lang.Object", "example");
+    }
+
+    /**
+     * 存在しないクラスが指定された場合は、例外が送出されること。
+     */
+    @Test
+    public void testCreateFailsIfClassNotFound() {
+        exception.expect(IllegalStateException.class);
+        exception.expectCause(is(instanceOf(ClassNotFoundException.class)));
+
+        ControllerDetectorLoader.create("example.UnknownControllerDetector", "example");
+    }
+
+    /**
+     * ベースパッケージを引数に取るコンストラクタを持つ {@link ControllerDetector} 。
+     */
+    public static class BasePackageControllerDetector implements ControllerDetector {
+        private final String basePackage;
+
+        public BasePackageControllerDetector(String basePackage) {
+            this.basePackage = basePackage;
+        }
+
+        @Override
+        public List<String> detect() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 固定のコントローラを返す {@link ControllerDetector} 。
+     */
+    public static class FixedControllerDetector implements ControllerDetector {
+        @Override
+        public List<String> detect() {
+            return Collections.singletonList("fixed");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package nablarch.integration.router;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Result;
+import nablarch.fw.handler.MethodBinding;
+import nablarch.fw.web.HttpRequest;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link MethodHandleRoutesMethodBinder}のテスト。
+ */
+public class MethodHandleRoutesMethodBinderTest {
+
+    private final HttpRequest request = mock(HttpRequest.class);
+
+    /**
+     * 呼び出しメソッドのシグネチャが正しい場合、
+     * メソッドが呼ばれ、メソッドの戻り値がそのまま返されること。
+     * また、呼び出したクラスとメソッドがリクエストスコープに設定されること。
+     */
+    @Test
+    public void bindForCorrectMethod() throws Exception {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("handle");
+        final ExecutionContext context = new ExecutionContext();
+
+        String response = (String) sut.bind(new Action()).handle(request, context);
+
+        assertThat(response, is("invoking!!!"));
+        assertThat(context.<Class<?>>getRequestScopedVar(MethodBinding.SCOPE_VAR_NAME_BOUND_CLASS),
+                is((Object) Action.class));
+        assertThat(context.getRequestScopedVar(MethodBinding.SCOPE_VAR_NAME_BOUND_METHOD),
+                is((Object) Action.class.getMethod("handle", HttpRequest.class, ExecutionContext.class)));
+    }
+
+    /**
+     * 同じメソッドを繰り返し呼び出せること。
+     */
+    @Test
+    public void bindRepeatedly() {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("handle");
+        for (int i = 0; i < 3; i++) {
+            assertThat((String) sut.bind(new Action()).handle(request, new ExecutionContext()), is("invoking!!!"));
+        }
+    }
+
+    /**
+     * 呼び出しメソッドのシグネチャが正しくない場合、
+     * メソッドが呼ばれず、{@link nablarch.fw.Result.NotFound}がスローされること。
+     */
+    @Test(expected = Result.NotFound.class)
+    public void bindForMethodNotFound() {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("incorrectMethod");
+
+        sut.bind(new Action()).handle(request, new ExecutionContext());
+    }
+
+    /**
+     * 呼び出したメソッドが実行時例外を送出した場合、そのまま送出されること。
+     */
+    @Test
+    public void runtimeExceptionIsRethrown() {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("throwRuntimeException");
+        try {
+            sut.bind(new Action()).handle(request, new ExecutionContext());
+            fail("IllegalStateExceptionがスローされる");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("runtime"));
+        }
+    }
+
+    /**
+     * 呼び出したメソッドが検査例外を送出した場合、{@link RuntimeException}でラップされること。
+     */
+    @Test
+    public void checkedExceptionIsWrapped() {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("throwCheckedException");
+        try {
+            sut.bind(new Action()).handle(request, new ExecutionContext());
+            fail("RuntimeExceptionがスローされる");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), instanceOf(IOException.class));
+        }
+    }
+
+    /**
+     * publicなアクションクラスのメソッドは、生成したクラスで呼び出されること。
+     */
+    @Test
+    public void generatedInvokerIsUsed() throws Exception {
+        new MethodHandleRoutesMethodBinder("handle").bind(new Action()).handle(request, new ExecutionContext());
+
+        assertThat(invokerOf(Action.class, "handle"), instanceOf(MethodHandleRoutesMethodBinder.Invoker.class));
+    }
+
+    /**
+     * 戻り値のないメソッドの場合、{@code null}が返されること。
+     */
+    @Test
+    public void bindForVoidMethod() throws Exception {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("handleVoid");
+        final ExecutionContext context = new ExecutionContext();
+
+        assertThat(sut.bind(new Action()).handle(request, context), is(nullValue()));
+        assertThat(context.<String>getRequestScopedVar("handled"), is("void"));
+        assertThat(invokerOf(Action.class, "handleVoid"), instanceOf(MethodHandleRoutesMethodBinder.VoidInvoker.class));
+    }
+
+    /**
+     * 戻り値がプリミティブ型のメソッドの場合、ラッパー型で返されること。
+     */
+    @Test
+    public void bindForPrimitiveMethod() {
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("handlePrimitive");
+
+        assertThat(sut.bind(new Action()).handle(request, new ExecutionContext()), is((Object) 200));
+    }
+
+    /**
+     * アクションクラスにアクセスできない場合、{@link RoutesMethodBinder}と同じくリフレクションで呼び出されること。
+     */
+    @Test
+    public void bindForNonPublicClass() throws Exception {
+        final Class<?> actionClass = Class.forName("nablarch.integration.router.test.MethodHandleRoutesMethodBinderTest"
+                + ".bindForNonPublicClass.NonPublicAction");
+        final Constructor<?> constructor = actionClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        final MethodHandleRoutesMethodBinder sut = new MethodHandleRoutesMethodBinder("handle");
+
+        try {
+            sut.bind(constructor.newInstance()).handle(request, new ExecutionContext());
+            fail("RuntimeExceptionがスローされる");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), instanceOf(IllegalAccessException.class));
+        }
+        assertThat(invokerOf(actionClass, "handle"), is(nullValue()));
+    }
+
+    /**
+     * {@link MethodHandleRoutesMethodBinderFactory}で{@link MethodHandleRoutesMethodBinder}が生成されること。
+     */
+    @Test
+    public void factory() {
+        assertThat(new MethodHandleRoutesMethodBinderFactory().create("handle"),
+                instanceOf(MethodHandleRoutesMethodBinder.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object invokerOf(Class<?> actionClass, String methodName) throws Exception {
+        Field invokersField = MethodHandleRoutesMethodBinder.class.getDeclaredField("INVOKERS");
+        invokersField.setAccessible(true);
+        Object actionInvoker = ((ClassValue<Map<String, ?>>) invokersField.get(null)).get(actionClass).get(methodName);
+        for (String name : new String[] {"invoker", "voidInvoker"}) {
+            Field field = actionInvoker.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            if (field.get(actionInvoker) != null) {
+                return field.get(actionInvoker);
+            }
+        }
+        return null;
+    }
+
+    public static final class Action {
+
+        public String handle(HttpRequest request, ExecutionContext context) {
+            return "invoking!!!";
+        }
+
+        public String incorrectMethod(Object request, ExecutionContext context) {
+            throw new RuntimeException("unreachable");
+        }
+
+        public String throwRuntimeException(HttpRequest request, ExecutionContext context) {
+            throw new IllegalStateException("runtime");
+        }
+
+        public String throwCheckedException(HttpRequest request, ExecutionContext context) throws IOException {
+            throw new IOException("checked");
+        }
+
+        public void handleVoid(HttpRequest request, ExecutionContext context) {
+            context.setRequestScopedVar("handled", "void");
+        }
+
+        public int handlePrimitive(HttpRequest request, ExecutionContext context) {
+            return 200;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link MethodPartitionedRouteMatcherFactory} のテスト。
+ */
+public class MethodPartitionedRouteMatcherFactoryTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final MethodPartitionedRouteMatcherFactory sut = new MethodPartitionedRouteMatcherFactory();
+
+    @Test
+    public void testRecognize() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "GetAction", "get"),
+                pathOptions("POST", "/test/(:id)", "PostAction", "post"),
+                pathOptions("PUT", "/test/simple", "PutAction", "put")));
+
+        Options options = matcher.recognize("/test/123", "POST");
+        assertThat(options.getString("controller"), is("PostAction"));
+        assertThat(options.getString("id"), is("123"));
+        assertThat(matcher.recognize("/test/123", "GET").getString("controller"), is("GetAction"));
+        assertThat(matcher.recognize("/test/simple", "PUT").getString("controller"), is("PutAction"));
+    }
+
+    @Test
+    public void testOnlyRoutesOfRequestMethodAreUsed() {
+        RecordingRouteMatcherFactory delegate = new RecordingRouteMatcherFactory();
+        sut.setRouteMatcherFactory(delegate);
+        sut.create(Arrays.asList(
+                pathOptions("GET", "/test/a", "GetAction", "a"),
+                pathOptions("POST", "/test/b", "PostAction", "b"),
+                pathOptions("GET", "/test/c", "GetAction", "c")));
+
+        assertThat(delegate.paths, contains(
+                Arrays.asList("/test/a", "/test/c"),
+                Arrays.asList("/test/b")));
+    }
+
+    @Test
+    public void testRouteWithoutMethodIsUsedForAllMethods() {
+        PathOptions anyMethod = new PathOptions("/test/any", Options.newInstance()
+                .$("controller", "AnyAction")
+                .$("action", "any")
+                .$("requirements", Options.newInstance().$("controller", "AnyAction").$("action", "any")));
+
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/get", "GetAction", "get"),
+                anyMethod));
+
+        assertThat(matcher.recognize("/test/any", "GET").getString("controller"), is("AnyAction"));
+        assertThat(matcher.recognize("/test/any", "DELETE").getString("controller"), is("AnyAction"));
+    }
+
+    @Test
+    public void testThrowsExceptionIfMethodNotMatched() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/simple", "SimpleAction", "get")));
+
+        exception.expect(RoutingException.class);
+        exception.expectMessage("No route matches /test/simple");
+
+        matcher.recognize("/test/simple", "POST");
+    }
+
+    @Test
+    public void testThrowsExceptionIfPathNotMatched() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/simple", "SimpleAction", "get")));
+
+        exception.expect(RoutingException.class);
+
+        matcher.recognize("/test/unknown", "GET");
+    }
+
+    @Test
+    public void testUnaffectedPartitionsAreReusedOnReload() throws Exception {
+        List<CompiledRoute> previousRoutes = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "GetAction", "get"),
+                pathOptions("POST", "/test/(:id)", "PostAction", "post")));
+        RouteMatcher previous = sut.create(previousRoutes, null, null);
+
+        RoutesDiff diff = RoutesDiff.compute(previousRoutes, Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "GetAction", "get"),
+                pathOptions("POST", "/test/(:id)", "PostAction", "changed")));
+        RouteMatcher matcher = sut.create(diff.getCompiledRoutes(), previous, diff);
+
+        assertThat(routeMatchersOf(matcher).get("GET"), is(sameInstance(routeMatchersOf(previous).get("GET"))));
+        assertThat(routeMatchersOf(matcher).get("POST"), is(not(sameInstance(routeMatchersOf(previous).get("POST")))));
+        assertThat(matcher.recognize("/test/1", "GET").getString("action"), is("get"));
+        assertThat(matcher.recognize("/test/1", "POST").getString("action"), is("changed"));
+    }
+
+    @Test
+    public void testPartitionsAreRebuiltIfRouteMatcherFactoryChanged() throws Exception {
+        List<CompiledRoute> previousRoutes = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "GetAction", "get")));
+        RouteMatcher previous = sut.create(previousRoutes, null, null);
+
+        sut.setRouteMatcherFactory(new SegmentTreeRouteMatcherFactory());
+        RoutesDiff diff = RoutesDiff.compute(previousRoutes, Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "GetAction", "get")));
+        RouteMatcher matcher = sut.create(diff.getCompiledRoutes(), previous, diff);
+
+        assertThat(routeMatchersOf(matcher).get("GET"), is(not(sameInstance(routeMatchersOf(previous).get("GET")))));
+        assertThat(matcher.recognize("/test/1", "GET").getString("action"), is("get"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, RouteMatcher> routeMatchersOf(RouteMatcher matcher) throws Exception {
+        Field field = matcher.getClass().getDeclaredField("routeMatchers");
+        field.setAccessible(true);
+        return (Map<String, RouteMatcher>) field.get(matcher);
+    }
+
+    /**
+     * 生成時に渡されたルーティング定義のパスを記録する {@link RouteMatcherFactory} 。
+     */
+    private static class RecordingRouteMatcherFactory implements RouteMatcherFactory {
+        private final List<List<String>> paths = new ArrayList<List<String>>();
+
+        @Override
+        public RouteMatcher create(List<PathOptions> pathOptionsList) {
+            List<String> list = new ArrayList<String>();
+            for (PathOptions pathOptions : pathOptionsList) {
+                list.add(pathOptions.getPath());
+            }
+            paths.add(list);
+            return new RecognizerRouteMatcherFactory().create(pathOptionsList);
+        }
+    }
+}
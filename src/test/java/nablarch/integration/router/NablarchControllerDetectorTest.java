@@ -0,0 +1,122 @@
+package nablarch.integration.router;
+
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.SystemRepository;
+import net.unit8.http.router.ControllerUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link NablarchControllerDetector} のテスト。
+ */
+public class NablarchControllerDetectorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Before
+    @After
+    public void reset() {
+        SystemRepository.clear();
+    }
+
+    /**
+     * ベースパッケージが複数のリソースに含まれる場合、全てのリソースからコントローラが検出されること。
+     */
+    @Test
+    public void testDetectFromAllResources() {
+        NablarchControllerDetector sut = new NablarchControllerDetector("nablarch.integration.router");
+
+        // src/main/javaとsrc/test/javaのクラスが、それぞれ別のリソースとして検出される
+        assertThat(sut.detect(), hasItems(
+                ControllerUtil.fromClassNameToPath("RoutesMapping"),
+                ControllerUtil.fromClassNameToPath("RoutesMappingTest"),
+                "sub/" + ControllerUtil.fromClassNameToPath("SubRoutesMappingTest")));
+    }
+
+    /**
+     * 検出結果がキャッシュされること。
+     */
+    @Test
+    public void testDetectIsMemoized() {
+        NablarchControllerDetector sut = new NablarchControllerDetector("nablarch.integration.router");
+
+        List<String> controllers = sut.detect();
+
+        assertThat(sut.detect(), sameInstance(controllers));
+    }
+
+    /**
+     * ベースパッケージを指定しない場合、"packageMapping"のベースパッケージが使用されること。
+     */
+    @Test
+    public void testPackageMappingIsUsed() {
+        registerPackageMapping("nablarch.integration.router.sub");
+
+        assertThat(new NablarchControllerDetector().detect(),
+                hasItem(ControllerUtil.fromClassNameToPath("SubRoutesMappingTest")));
+    }
+
+    /**
+     * "packageMapping"のベースパッケージが変わった場合は、検出し直すこと。
+     */
+    @Test
+    public void testDetectAgainIfPackageMappingIsChanged() {
+        NablarchControllerDetector sut = new NablarchControllerDetector();
+
+        RoutesMapping packageMapping = registerPackageMapping("nablarch.integration.router.sub");
+        List<String> sub = sut.detect();
+        assertThat(sub, hasItem(ControllerUtil.fromClassNameToPath("SubRoutesMappingTest")));
+
+        packageMapping.setBasePackage("nablarch.integration.router");
+        assertThat(sut.detect(), not(sameInstance(sub)));
+        assertThat(sut.detect(), hasItem(ControllerUtil.fromClassNameToPath("RoutesMappingTest")));
+    }
+
+    /**
+     * ベースパッケージを指定した場合、"packageMapping"のベースパッケージは使用されないこと。
+     */
+    @Test
+    public void testSpecifiedBasePackageIsPreferred() {
+        registerPackageMapping("nablarch.integration.router.sub");
+
+        assertThat(new NablarchControllerDetector("nablarch.integration.router.jaxrs").detect(),
+                not(hasItem(ControllerUtil.fromClassNameToPath("SubRoutesMappingTest"))));
+    }
+
+    /**
+     * ベースパッケージを特定できない場合、例外が送出されること。
+     */
+    @Test
+    public void testThrowsExceptionIfBasePackageIsNotResolved() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("base package of controllers could not be resolved.");
+
+        new NablarchControllerDetector().detect();
+    }
+
+    private static RoutesMapping registerPackageMapping(String basePackage) {
+        final RoutesMapping packageMapping = new RoutesMapping();
+        packageMapping.setBasePackage(basePackage);
+        SystemRepository.load(new ObjectLoader() {
+            @Override
+            public Map<String, Object> load() {
+                return Collections.<String, Object>singletonMap("packageMapping", packageMapping);
+            }
+        });
+        return packageMapping;
+    }
+}
@@ -4,9 +4,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import nablarch.core.util.StringUtil;
 import nablarch.fw.ExecutionContext;
+import nablarch.fw.jaxrs.JaxRsMethodBinder;
+import nablarch.fw.jaxrs.JaxRsMethodBinderFactory;
 import nablarch.fw.web.HttpErrorResponse;
+import nablarch.fw.web.handler.MethodBinderFactory;
 import nablarch.fw.web.servlet.HttpRequestWrapper;
 import nablarch.fw.web.servlet.ServletExecutionContext;
+import nablarch.integration.router.jaxrs.JaxRsPathOptionsProvider;
+import nablarch.integration.router.jaxrs.test.JaxRsPathOptionsProviderTest.testProvide.FooResource;
 import nablarch.integration.router.test.PathOptionsProviderRoutesMappingTest.testNotServletExecutionContext.FooAction;
 import nablarch.integration.router.test.PathOptionsProviderRoutesMappingTest.testPathParameter.PathParameterAction;
 import nablarch.integration.router.test.PathOptionsProviderRoutesMappingTest.testSimpleRouting.SimpleAction;
@@ -29,6 +34,7 @@ import java.util.Map;
 import static nablarch.integration.router.PathOptionsFactory.pathOptions;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +43,7 @@ import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -247,6 +254,135 @@ public class PathOptionsProviderRoutesMappingTest {
         assertThat((String)executionContext.handleNext(request), is("SimpleAction#get() method is invoked"));
     }
 
+    @Test
+    public void testRouteMatcherFactory() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestPath()).thenReturn("/test/path-param/123/get/hello");
+
+        pathOptionsProvider
+                .add(pathOptions("GET", "/test/simple", SimpleAction.class, "get"))
+                .add(pathOptions("GET", "/test/path-param/(:param1)/get/(:param2)", PathParameterAction.class, "get"));
+        sut.setRouteMatcherFactory(new SegmentTreeRouteMatcherFactory());
+        sut.initialize();
+
+        Class<?> handlerClass = sut.getHandlerClass(request, executionContext);
+        assertThat(handlerClass, Matchers.<Class<?>>sameInstance(PathParameterAction.class));
+
+        verify(request).setParam("param1", "123");
+        verify(request).setParam("param2", "hello");
+    }
+
+    @Test
+    public void testRouteRecognitionCache() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestPath()).thenReturn("/test/path-param/123/get/hello");
+
+        pathOptionsProvider
+                .add(pathOptions("GET", "/test/path-param/(:param1)/get/(:param2)", PathParameterAction.class, "get"));
+        RouteRecognitionCache cache = new RouteRecognitionCache();
+        sut.setRouteRecognitionCache(cache);
+        sut.initialize();
+
+        assertThat(sut.getHandlerClass(request, executionContext), Matchers.<Class<?>>sameInstance(PathParameterAction.class));
+        assertThat(sut.getHandlerClass(request, executionContext), Matchers.<Class<?>>sameInstance(PathParameterAction.class));
+
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+        verify(request, times(2)).setParam("param1", "123");
+        verify(request, times(2)).setParam("param2", "hello");
+    }
+
+    @Test
+    public void testMethodBindersArePreparedOnInitialize() throws Exception {
+        pathOptionsProvider
+                .add(pathOptions("GET", "/test/simple", SimpleAction.class, "get"))
+                .add(pathOptions("POST", "/test/simple", SimpleAction.class, "post"));
+        MethodBinderFactory methodBinderFactory = mock(MethodBinderFactory.class);
+        sut.setMethodBinderFactory(methodBinderFactory);
+        sut.initialize();
+
+        verify(methodBinderFactory).create("get");
+        verify(methodBinderFactory).create("post");
+    }
+
+    @Test
+    public void testEagerResolution() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestPath()).thenReturn("/test/simple");
+
+        pathOptionsProvider
+                .add(pathOptions("GET", "/test/simple", SimpleAction.class, "get"))
+                .add(pathOptions("POST", "/test/simple", SimpleAction.class, "post"));
+        MethodBinderFactory methodBinderFactory = mock(MethodBinderFactory.class);
+        when(methodBinderFactory.create(any())).then(invocation -> new RoutesMethodBinder(invocation.getArgument(0)));
+        sut.setMethodBinderFactory(methodBinderFactory);
+        sut.setEagerResolution(true);
+        sut.initialize();
+
+        verify(methodBinderFactory).create("get");
+        verify(methodBinderFactory).create("post");
+
+        Class<?> handlerClass = sut.getHandlerClass(request, executionContext);
+        assertThat(handlerClass, Matchers.<Class<?>>sameInstance(SimpleAction.class));
+
+        // 初期化時に生成したMethodBinderが使用されること
+        verify(methodBinderFactory, times(1)).create("get");
+        executionContext.addHandler(new SimpleAction());
+        assertThat((String) executionContext.handleNext(request), is("SimpleAction#get() method is invoked"));
+    }
+
+    @Test
+    public void testEagerResolutionFailsIfActionClassNotFound() {
+        pathOptionsProvider.add(pathOptions("GET", "/test/notfound", "nablarch.integration.router.NotFoundAction", "get"));
+        sut.setEagerResolution(true);
+
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("action class could not be loaded. path = [/test/notfound], controller = [nablarch.integration.router.NotFoundAction]");
+        sut.initialize();
+    }
+
+    @Test
+    public void testEagerResolutionFailsIfActionMethodNotFound() {
+        pathOptionsProvider.add(pathOptions("GET", "/test/simple", SimpleAction.class, "delete"));
+        sut.setEagerResolution(true);
+
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("action method could not be found. path = [/test/simple], controller = ["
+                + SimpleAction.class.getName() + "], action = [delete]");
+        sut.initialize();
+    }
+
+    @Test
+    public void testEagerResolutionWithJaxRsResources() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestPath()).thenReturn("/test/foo");
+
+        JaxRsPathOptionsProvider jaxRsPathOptionsProvider = new JaxRsPathOptionsProvider();
+        jaxRsPathOptionsProvider.setApplicationPath("/test");
+        jaxRsPathOptionsProvider.setBasePackage("nablarch.integration.router.jaxrs.test.JaxRsPathOptionsProviderTest.testProvide");
+        sut.setPathOptionsProvider(jaxRsPathOptionsProvider);
+        sut.setMethodBinderFactory(new JaxRsMethodBinderFactory());
+        sut.setEagerResolution(true);
+
+        // リソースメソッドは引数をとらないが、初期化時に例外が送出されないこと
+        sut.initialize();
+
+        assertThat(sut.getHandlerClass(request, executionContext), Matchers.<Class<?>>sameInstance(FooResource.class));
+        assertThat(executionContext.getMethodBinder(), instanceOf(JaxRsMethodBinder.class));
+    }
+
+    @Test
+    public void testEagerResolutionWithJaxRsResourcesFailsIfActionMethodNotFound() {
+        pathOptionsProvider.add(pathOptions("GET", "/test/foo", FooResource.class, "delete"));
+        sut.setMethodBinderFactory(new JaxRsMethodBinderFactory());
+        sut.setEagerResolution(true);
+
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("action method could not be found. path = [/test/foo], controller = ["
+                + FooResource.class.getName() + "], action = [delete]");
+        sut.initialize();
+    }
+
     private static class MockPathOptionsProvider implements PathOptionsProvider {
         private List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
 
@@ -0,0 +1,117 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link PathOptionsSnapshotFile} のテスト。
+ */
+public class PathOptionsSnapshotFileTest {
+
+    private static final byte[] FINGERPRINT = {1, 2, 3};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 書き込んだルーティング定義を、同じフィンガープリントで読み込めること。
+     */
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File file = new File(folder.getRoot(), "sub/test.snapshot");
+        PathOptionsSnapshotFile sut = new PathOptionsSnapshotFile(file.toPath());
+
+        Options requirements = new Options();
+        requirements.put("id", Pattern.compile("\\d+", Pattern.CASE_INSENSITIVE));
+        Options conditions = new Options();
+        conditions.put("method", "GET");
+        Options options = new Options();
+        options.put("controller", "example.FooAction");
+        options.put("action", "パス");
+        options.put("requirements", requirements);
+        options.put("conditions", conditions);
+        options.put("list", Arrays.asList("a", null));
+        options.put("nothing", null);
+        PathOptions pathOptions = new PathOptions("/foo/:id", options);
+
+        sut.write(FINGERPRINT, Collections.singletonList(pathOptions));
+        List<PathOptions> actual = sut.read(FINGERPRINT);
+
+        assertThat(actual.size(), is(1));
+        assertThat(actual.get(0).getPath(), is("/foo/:id"));
+        assertThat(CompiledRoute.definitionOf(actual.get(0)), is(CompiledRoute.definitionOf(pathOptions)));
+    }
+
+    /**
+     * フィンガープリントが一致しない場合は読み込まないこと。
+     */
+    @Test
+    public void testFingerprintIsNotMatched() throws Exception {
+        PathOptionsSnapshotFile sut = new PathOptionsSnapshotFile(folder.getRoot().toPath().resolve("test.snapshot"));
+        sut.write(FINGERPRINT, Collections.singletonList(new PathOptions("/foo", new Options())));
+
+        assertThat(sut.read(new byte[] {1, 2, 4}), is(nullValue()));
+    }
+
+    /**
+     * 読み込んだ後に、同じファイルを書き換えられること。
+     */
+    @Test
+    public void testRewriteAfterRead() throws Exception {
+        PathOptionsSnapshotFile sut = new PathOptionsSnapshotFile(folder.getRoot().toPath().resolve("test.snapshot"));
+        sut.write(FINGERPRINT, Collections.singletonList(new PathOptions("/foo", new Options())));
+        assertThat(sut.read(FINGERPRINT).get(0).getPath(), is("/foo"));
+
+        sut.write(new byte[] {1, 2, 4}, Collections.singletonList(new PathOptions("/bar", new Options())));
+
+        assertThat(sut.read(new byte[] {1, 2, 4}).get(0).getPath(), is("/bar"));
+    }
+
+    /**
+     * ファイルが存在しない場合や、内容が不正な場合は読み込まないこと。
+     */
+    @Test
+    public void testFileIsNotFoundOrBroken() throws Exception {
+        File file = new File(folder.getRoot(), "test.snapshot");
+        PathOptionsSnapshotFile sut = new PathOptionsSnapshotFile(file.toPath());
+        assertThat(sut.read(FINGERPRINT), is(nullValue()));
+
+        Files.write(file.toPath(), "broken".getBytes(StandardCharsets.UTF_8));
+        assertThat(sut.read(FINGERPRINT), is(nullValue()));
+
+        sut.write(FINGERPRINT, Collections.singletonList(new PathOptions("/foo", new Options())));
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 1));
+        assertThat(sut.read(FINGERPRINT), is(nullValue()));
+    }
+
+    /**
+     * 保存できない値を含む場合は書き込まないこと。
+     */
+    @Test
+    public void testUnsupportedValueIsNotWritten() throws Exception {
+        File file = new File(folder.getRoot(), "test.snapshot");
+        PathOptionsSnapshotFile sut = new PathOptionsSnapshotFile(file.toPath());
+        Options options = new Options();
+        options.put("value", 1);
+
+        sut.write(FINGERPRINT, Collections.singletonList(new PathOptions("/foo", options)));
+
+        assertThat(file.exists(), is(false));
+        assertThat(folder.getRoot().list().length, is(0));
+    }
+}
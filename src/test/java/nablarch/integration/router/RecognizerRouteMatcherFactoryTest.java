@@ -0,0 +1,46 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RecognizerRouteMatcherFactory} のテスト。
+ */
+public class RecognizerRouteMatcherFactoryTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final RecognizerRouteMatcherFactory sut = new RecognizerRouteMatcherFactory();
+
+    @Test
+    public void testRecognize() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/simple", "SimpleAction", "get"),
+                pathOptions("GET", "/test/(:id)", "ParamAction", "get")));
+
+        Options options = matcher.recognize("/test/123", "GET");
+        assertThat(options.getString("controller"), is("ParamAction"));
+        assertThat(options.getString("action"), is("get"));
+        assertThat(options.getString("id"), is("123"));
+    }
+
+    @Test
+    public void testThrowsExceptionIfRouteNotFound() {
+        RouteMatcher matcher = sut.create(Collections.<PathOptions>emptyList());
+
+        exception.expect(RoutingException.class);
+
+        matcher.recognize("/test/simple", "GET");
+    }
+}
@@ -0,0 +1,48 @@
+package nablarch.integration.router;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RouteMissCache} のテスト。
+ */
+public class RouteMissCacheTest {
+
+    private final RouteMissCache sut = new RouteMissCache();
+
+    @Test
+    public void testContainsAndPut() {
+        assertThat(sut.contains("GET", "/unknown"), is(false));
+        sut.put("GET", "/unknown");
+
+        assertThat(sut.contains("GET", "/unknown"), is(true));
+        assertThat(sut.contains("POST", "/unknown"), is(false));
+        assertThat(sut.getHitCount(), is(1L));
+        assertThat(sut.getMissCount(), is(2L));
+        assertThat(sut.getSize(), is(1));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        sut.setMaxSize(10);
+        for (int i = 0; i < 100; i++) {
+            sut.put("GET", "/unknown/" + i);
+        }
+
+        assertThat(sut.getSize(), is(10));
+        assertThat(sut.getEvictionCount(), is(90L));
+        assertThat(sut.contains("GET", "/unknown/99"), is(true));
+        assertThat(sut.contains("GET", "/unknown/0"), is(false));
+    }
+
+    @Test
+    public void testClear() {
+        sut.put("GET", "/unknown");
+        sut.clear();
+
+        assertThat(sut.getSize(), is(0));
+        assertThat(sut.contains("GET", "/unknown"), is(false));
+    }
+}
@@ -0,0 +1,111 @@
+package nablarch.integration.router;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link RouteRecognitionCache} のテスト。
+ */
+public class RouteRecognitionCacheTest {
+
+    private final RouteRecognitionCache sut = new RouteRecognitionCache();
+
+    @Test
+    public void testGetAndPut() {
+        RecognizedRoute route = route("get");
+
+        assertThat(sut.get("GET", "/test"), is(nullValue()));
+        sut.put("GET", "/test", route);
+
+        assertThat(sut.get("GET", "/test"), sameInstance(route));
+        assertThat(sut.get("POST", "/test"), is(nullValue()));
+        assertThat(sut.get("GET", "/test/"), is(nullValue()));
+        assertThat(sut.getHitCount(), is(1L));
+        assertThat(sut.getMissCount(), is(3L));
+        assertThat(sut.getSize(), is(1));
+    }
+
+    @Test
+    public void testNullMethod() {
+        RecognizedRoute route = route("get");
+        sut.put(null, "/test", route);
+
+        assertThat(sut.get(null, "/test"), sameInstance(route));
+        assertThat(sut.get("GET", "/test"), is(nullValue()));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        sut.setMaxSize(2);
+        RecognizedRoute first = route("first");
+        RecognizedRoute second = route("second");
+
+        sut.put("GET", "/first", first);
+        sut.put("GET", "/second", second);
+        sut.get("GET", "/first");
+        sut.put("GET", "/third", route("third"));
+
+        assertThat(sut.getSize(), is(2));
+        assertThat(sut.getEvictionCount(), is(1L));
+        assertThat(sut.get("GET", "/first"), sameInstance(first));
+        assertThat(sut.get("GET", "/second"), is(nullValue()));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        sut.setMaxSize(1024);
+        for (int i = 0; i < 5000; i++) {
+            sut.put("GET", "/test/" + i, route("get"));
+        }
+
+        assertThat(sut.getSize(), is(1024));
+        assertThat(sut.getEvictionCount(), is(5000L - 1024L));
+    }
+
+    @Test
+    public void testClear() {
+        sut.put("GET", "/test", route("get"));
+        sut.get("GET", "/test");
+        sut.clear();
+
+        assertThat(sut.getSize(), is(0));
+        assertThat(sut.get("GET", "/test"), is(nullValue()));
+        assertThat(sut.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testRenew() {
+        sut.put("GET", "/test", route("get"));
+        sut.get("GET", "/test");
+        MethodPathLruCache<RecognizedRoute> previous = sut.renew(null);
+        MethodPathLruCache<RecognizedRoute> renewed = sut.renew(null);
+
+        // 生成した後に以前のキャッシュに格納した結果は、生成したキャッシュに反映されないこと
+        previous.put("GET", "/stale", route("stale"));
+        assertThat(sut.get("GET", "/stale"), is(nullValue()));
+        assertThat(renewed.get("GET", "/test"), is(nullValue()));
+        assertThat(sut.getSize(), is(0));
+        assertThat(sut.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void testInvalidMaxSize() {
+        try {
+            sut.setMaxSize(0);
+            fail("IllegalArgumentExceptionがスローされる");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("maxSize must be greater than 0. maxSize = [0]"));
+        }
+    }
+
+    private static RecognizedRoute route(String action) {
+        return new RecognizedRoute(Object.class, action, Collections.<String, String>emptyMap());
+    }
+}
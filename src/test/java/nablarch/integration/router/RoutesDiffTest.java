@@ -0,0 +1,150 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RoutesDiff} のテスト。
+ */
+public class RoutesDiffTest {
+
+    @Test
+    public void testSameRoutesAreReused() {
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/test", "TestAction", "get"),
+                withRequirements("/test/:id")));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                pathOptions("GET", "/test", "TestAction", "get"),
+                withRequirements("/test/:id")));
+
+        assertThat(sut.isEmpty(), is(true));
+        assertThat(sut.getCompiledRoutes().get(0).getRoute(), is(sameInstance(previous.get(0).getRoute())));
+        assertThat(sut.getCompiledRoutes().get(1).getRoute(), is(sameInstance(previous.get(1).getRoute())));
+    }
+
+    @Test
+    public void testAddedAndRemovedRoutes() {
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/a", "TestAction", "a"),
+                pathOptions("GET", "/b", "TestAction", "b"),
+                pathOptions("GET", "/c", "TestAction", "c")));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                pathOptions("GET", "/a", "TestAction", "a"),
+                pathOptions("GET", "/c", "TestAction", "changed"),
+                pathOptions("GET", "/d", "TestAction", "d")));
+
+        assertThat(sut.getCompiledRoutes().get(0).getRoute(), is(sameInstance(previous.get(0).getRoute())));
+        assertThat(sut.getCompiledRoutes().get(1).getOrder(), is(1));
+        assertThat(sut.getAdded().size(), is(2));
+        assertThat(sut.getRemoved().size(), is(2));
+        assertThat(sut.describe(), is("added = [[GET] /d => TestAction#d],"
+                + " removed = [[GET] /b => TestAction#b],"
+                + " changed = [[GET] /c => TestAction#c -> [GET] /c => TestAction#changed]"));
+        assertThat(sut.affects("GET", "/a"), is(false));
+        assertThat(sut.affects("GET", "/b"), is(true));
+        assertThat(sut.affects("GET", "/c"), is(true));
+        assertThat(sut.affects("POST", "/d"), is(false));
+    }
+
+    @Test
+    public void testReorderedRoutesAreNotReusedTogether() {
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/test/new", "TestAction", "create"),
+                pathOptions("GET", "/test/:id", "TestAction", "show")));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                pathOptions("GET", "/test/:id", "TestAction", "show"),
+                pathOptions("GET", "/test/new", "TestAction", "create")));
+
+        assertThat(sut.getAdded().size(), is(1));
+        assertThat(sut.getRemoved().size(), is(1));
+        assertThat(sut.affects("GET", "/test/new"), is(true));
+        assertThat(sut.affects("GET", "/test/1"), is(true));
+    }
+
+    @Test
+    public void testInitialLoad() {
+        RoutesDiff sut = RoutesDiff.compute(null, Arrays.asList(pathOptions("GET", "/a", "TestAction", "a")));
+
+        assertThat(sut.getAdded().size(), is(1));
+        assertThat(sut.getRemoved(), is(empty()));
+        assertThat(sut.isEmpty(), is(not(true)));
+    }
+
+    @Test
+    public void testControllerRoutesWithSameDetectorAreReused() {
+        NablarchControllerDetector detector = new NablarchControllerDetector("nablarch.integration.router");
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                controllerRoute(detector),
+                pathOptions("GET", "/a", "TestAction", "a")));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                controllerRoute(detector),
+                pathOptions("GET", "/a", "TestAction", "changed")));
+
+        assertThat(sut.getCompiledRoutes().get(0).getRoute(), is(sameInstance(previous.get(0).getRoute())));
+        assertThat(sut.getAdded().size(), is(1));
+        assertThat(sut.getRemoved().size(), is(1));
+        assertThat(sut.describe(), is("added = [], removed = [],"
+                + " changed = [[GET] /a => TestAction#a -> [GET] /a => TestAction#changed]"));
+    }
+
+    @Test
+    public void testControllerRoutesWithOtherDetectorAreRebuilt() {
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                controllerRoute(new NablarchControllerDetector("nablarch.integration.router"))));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                controllerRoute(new NablarchControllerDetector("nablarch.integration.router"))));
+
+        assertThat(sut.getCompiledRoutes().get(0).getRoute(), is(not(sameInstance(previous.get(0).getRoute()))));
+        assertThat(sut.getAdded().size(), is(1));
+        assertThat(sut.getRemoved().size(), is(1));
+    }
+
+    @Test
+    public void testAffectsMethod() {
+        PathOptions anyMethod = new PathOptions("/any", Options.newInstance()
+                .$("controller", "TestAction")
+                .$("action", "any"));
+        List<CompiledRoute> previous = CompiledRoute.compile(Arrays.asList(
+                pathOptions("GET", "/a", "TestAction", "a"),
+                pathOptions("POST", "/b", "TestAction", "b"),
+                anyMethod));
+
+        RoutesDiff sut = RoutesDiff.compute(previous, Arrays.asList(
+                pathOptions("GET", "/a", "TestAction", "a"),
+                pathOptions("POST", "/b", "TestAction", "changed"),
+                new PathOptions("/any", Options.newInstance()
+                        .$("controller", "TestAction")
+                        .$("action", "any"))));
+
+        assertThat(sut.affectsMethod("GET"), is(false));
+        assertThat(sut.affectsMethod("POST"), is(true));
+        assertThat(sut.affectsMethod(null), is(false));
+    }
+
+    private static PathOptions controllerRoute(NablarchControllerDetector detector) {
+        return new PathOptions(":controller/:action", Options.newInstance(), detector);
+    }
+
+    private static PathOptions withRequirements(String path) {
+        Options options = Options.newInstance().$("controller", "TestAction")
+                .$("action", "show")
+                .$("requirements", Options.newInstance().$("id", Pattern.compile("\\d+")));
+        return new PathOptions(path, options);
+    }
+}
@@ -0,0 +1,105 @@
+package nablarch.integration.router;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RoutesFileWatcher} のテスト。
+ */
+public class RoutesFileWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final Semaphore called = new Semaphore(0);
+    private RoutesFileWatcher sut;
+
+    @After
+    public void tearDown() {
+        if (sut != null) {
+            sut.close();
+        }
+    }
+
+    @Test
+    public void testListenerIsCalledOnceForSuccessiveWrites() throws Exception {
+        final File file = write(folder.newFile("routes.xml"), "<routes/>");
+        sut = new RoutesFileWatcher(file.toPath(), 300L, listener());
+
+        for (int i = 0; i < 5; i++) {
+            write(file, "<routes>" + i + "</routes>");
+            Thread.sleep(20);
+        }
+
+        assertThat(called.tryAcquire(5, TimeUnit.SECONDS), is(true));
+        Thread.sleep(600);
+        assertThat(count.get(), is(1));
+    }
+
+    @Test
+    public void testOtherFilesAreIgnored() throws Exception {
+        final File file = write(folder.newFile("routes.xml"), "<routes/>");
+        sut = new RoutesFileWatcher(file.toPath(), 50L, listener());
+
+        write(folder.newFile("other.xml"), "<other/>");
+        assertThat(called.tryAcquire(500, TimeUnit.MILLISECONDS), is(false));
+
+        write(file, "<routes></routes>");
+        assertThat(called.tryAcquire(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void testOtherFilesDoNotExtendDebounce() throws Exception {
+        final File file = write(folder.newFile("routes.xml"), "<routes/>");
+        final File other = write(folder.newFile("other.xml"), "<other/>");
+        sut = new RoutesFileWatcher(file.toPath(), 200L, listener());
+
+        write(file, "<routes></routes>");
+        final long deadline = System.currentTimeMillis() + 2000L;
+        int i = 0;
+        while (System.currentTimeMillis() < deadline && count.get() == 0) {
+            write(other, "<other>" + i++ + "</other>");
+            Thread.sleep(20);
+        }
+
+        assertThat(count.get(), is(1));
+    }
+
+    @Test
+    public void testListenerIsNotCalledAfterClose() throws Exception {
+        final File file = write(folder.newFile("routes.xml"), "<routes/>");
+        sut = new RoutesFileWatcher(file.toPath(), 50L, listener());
+        sut.close();
+
+        write(file, "<routes></routes>");
+        assertThat(called.tryAcquire(500, TimeUnit.MILLISECONDS), is(false));
+    }
+
+    private Runnable listener() {
+        return new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+                called.release();
+            }
+        };
+    }
+
+    private static File write(final File file, final String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
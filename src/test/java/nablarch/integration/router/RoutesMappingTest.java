@@ -13,24 +13,57 @@ import nablarch.fw.web.servlet.HttpRequestWrapper;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 import nablarch.integration.router.sub.SubRoutesMappingTestAction;
 import nablarch.test.support.reflection.ReflectionUtil;
+import net.unit8.http.router.Options;
 import net.unit8.http.router.RoutingException;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
 
+import java.io.ByteArrayInputStream;
+import javax.tools.ToolProvider;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,6 +80,9 @@ public class RoutesMappingTest {
     private HttpRequestWrapper request;
     private final HttpServletRequest servletRequest = mock(HttpServletRequest.class, RETURNS_DEEP_STUBS);
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private RoutesMapping sut;
     private ServletExecutionContext context;
 
@@ -58,6 +94,8 @@ public class RoutesMappingTest {
 
         sut = new RoutesMapping();
         sut.setBasePackage("nablarch.integration.router");
+        // 再読み込みはテストから明示的に行う。
+        sut.setCheckInterval(-1L);
         sut.initialize();
 
         SystemRepository.clear();
@@ -75,6 +113,7 @@ public class RoutesMappingTest {
 
     @After
     public void tearDown() {
+        sut.dispose();
         httpRequestWrapperMock.close();
     }
 
@@ -156,6 +195,39 @@ public class RoutesMappingTest {
         assertThat((String) context.handleNext(request), is("controllerActionForSubPackage method was invoked."));
     }
 
+    /**
+     * ベースパッケージの異なる複数のインスタンスを使用した場合、
+     * :controllerにマッチするコントローラがインスタンスごとのベースパッケージから検出されること。
+     */
+    @Test
+    public void controllerActionForMultipleInstances() throws Exception {
+        final RoutesMapping other = new RoutesMapping();
+        other.setBasePackage("nablarch.integration.router.sub");
+        other.setCheckInterval(-1L);
+        other.initialize();
+        try {
+            when(request.getRequestPath()).thenReturn("/SubRoutesMappingTest/controllerActionForSubPackage");
+            assertThat(other.getHandlerClass(request, context).getName(), is(SubRoutesMappingTestAction.class.getName()));
+            try {
+                sut.getHandlerClass(request, context);
+                fail("HttpErrorResponseがスローされる");
+            } catch (HttpErrorResponse e) {
+                assertThat(e.getResponse().getStatusCode(), is(404));
+            }
+
+            when(request.getRequestPath()).thenReturn("/sub/SubRoutesMappingTest/controllerActionForSubPackage");
+            assertThat(sut.getHandlerClass(request, context).getName(), is(SubRoutesMappingTestAction.class.getName()));
+            try {
+                other.getHandlerClass(request, context);
+                fail("HttpErrorResponseがスローされる");
+            } catch (HttpErrorResponse e) {
+                assertThat(e.getResponse().getStatusCode(), is(404));
+            }
+        } finally {
+            other.dispose();
+        }
+    }
+
     /**
      * パスパラメータを使ったマッピングができること。
      */
@@ -266,8 +338,10 @@ public class RoutesMappingTest {
     public void multipleInvoking() throws Exception {
         get();
         updateLastModified();
+        sut.reloadRoutes();
         post();
         updateLastModified();
+        sut.reloadRoutes();
         pathParameter();
     }
 
@@ -278,6 +352,306 @@ public class RoutesMappingTest {
         }
     }
 
+    /**
+     * routes.xmlを再読み込みした場合、新しく構築したルーティング定義に差し替えられること。
+     * また、差し替える前のルーティング定義は変更されずにマッチングできること。
+     */
+    @Test
+    public void reloadSwapsSnapshot() throws Exception {
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot before = snapshot.get();
+        assertThat(before.isLoaded(), is(true));
+
+        Thread.sleep(10);
+        updateLastModified();
+        sut.reloadRoutes();
+        get();
+
+        final RoutesSnapshot after = snapshot.get();
+        assertThat(after, is(not(sameInstance(before))));
+        assertThat(after.getLastLoaded() >= before.getLastLoaded(), is(true));
+        assertThat(before.getRouteMatcher().recognize("/method", "GET").getString("controller"),
+                is("RoutesMappingTest"));
+    }
+
+    /**
+     * routes.xmlを再読み込みしても、:controllerにマッチするコントローラを検出し直さないこと。
+     */
+    @Test
+    public void reloadDoesNotRedetectControllers() throws Exception {
+        controllerAction();
+        final Object detector = ReflectionUtil.getFieldValue(sut, "controllerDetector");
+        final Object detected = ReflectionUtil.getFieldValue(detector, "detected");
+        assertThat(detected, is(notNullValue()));
+
+        Thread.sleep(10);
+        updateLastModified();
+        sut.reloadRoutes();
+
+        assertThat(ReflectionUtil.getFieldValue(sut, "controllerDetector"), is(sameInstance(detector)));
+        assertThat(ReflectionUtil.getFieldValue(detector, "detected"), is(sameInstance(detected)));
+        controllerAction();
+    }
+
+    /**
+     * {@link RoutesMapping#redetectControllers()}を呼び出した場合、
+     * :controllerにマッチするコントローラを検出し直してルーティング定義を構築し直すこと。
+     */
+    @Test
+    public void redetectControllers() throws Exception {
+        final Object detector = ReflectionUtil.getFieldValue(sut, "controllerDetector");
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot before = snapshot.get();
+
+        sut.redetectControllers();
+
+        assertThat(ReflectionUtil.getFieldValue(sut, "controllerDetector"), is(not(sameInstance(detector))));
+        assertThat(snapshot.get(), is(not(sameInstance(before))));
+        controllerAction();
+    }
+
+    /**
+     * 再読み込みを繰り返している間に複数のスレッドからリクエストを処理しても、
+     * 全てのリクエストが再読み込み前後のいずれかのルーティング定義でマッチングされること。
+     */
+    @Test
+    public void concurrentRequestsDuringReload() throws Exception {
+        final RouteRecognitionCache recognitionCache = new RouteRecognitionCache();
+        sut.setRouteRecognitionCache(recognitionCache);
+        sut.setRouteMissCache(new RouteMissCache());
+
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger reloads = new AtomicInteger();
+        try {
+            final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        final HttpRequest request = mock(HttpRequest.class);
+                        when(request.getRequestPath()).thenReturn("/method");
+                        when(request.getMethod()).thenReturn("GET");
+                        final HttpRequest notFound = mock(HttpRequest.class);
+                        when(notFound.getRequestPath()).thenReturn("/unknown/path/value/foo");
+                        when(notFound.getMethod()).thenReturn("GET");
+                        start.await();
+                        int count = 0;
+                        while (running.get()) {
+                            final ExecutionContext executionContext = new ExecutionContext();
+                            assertThat(sut.getHandlerClass(request, executionContext).getName(),
+                                    is(RoutesMappingTestAction.class.getName()));
+                            assertThat(executionContext.getMethodBinder(), is(notNullValue()));
+                            try {
+                                sut.getHandlerClass(notFound, new ExecutionContext());
+                                fail("HttpErrorResponseがスローされる");
+                            } catch (HttpErrorResponse e) {
+                                assertThat(e.getResponse().getStatusCode(), is(404));
+                            }
+                            count++;
+                        }
+                        return count;
+                    }
+                }));
+            }
+            final Future<?> reloader = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int i = 0; i < 20; i++) {
+                        Thread.sleep(5);
+                        updateLastModified();
+                        sut.reloadRoutes();
+                        reloads.incrementAndGet();
+                    }
+                    return null;
+                }
+            });
+
+            start.countDown();
+            try {
+                reloader.get(30, TimeUnit.SECONDS);
+            } finally {
+                running.set(false);
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS) > 0, is(true));
+            }
+            assertThat(reloads.get(), is(20));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * routes.xmlが更新された場合、バックグラウンドのスレッドで再読み込みされること。
+     */
+    @Test
+    public void backgroundReload() throws Exception {
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.setCheckInterval(0L);
+        sut.initialize();
+        try {
+            firstRequest(sut);
+            final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+            final RoutesSnapshot before = snapshot.get();
+
+            Thread.sleep(10);
+            updateLastModified();
+
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (snapshot.get() == before && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(snapshot.get(), is(not(sameInstance(before))));
+        } finally {
+            sut.dispose();
+        }
+    }
+
+    /**
+     * routes.xmlの更新を監視する場合、更新を検知した時点で再読み込みされること。
+     */
+    @Test
+    public void watchRoutes() throws Exception {
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.setWatchRoutes(true);
+        sut.setWatchDebounceMillis(50L);
+        sut.initialize();
+        try {
+            firstRequest(sut);
+            assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(nullValue()));
+            final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+            final RoutesSnapshot before = snapshot.get();
+
+            Thread.sleep(10);
+            updateLastModified();
+
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (snapshot.get() == before && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(snapshot.get(), is(not(sameInstance(before))));
+        } finally {
+            sut.dispose();
+        }
+        assertThat(ReflectionUtil.getFieldValue(sut, "routesFileWatcher"), is(nullValue()));
+    }
+
+    /**
+     * checkIntervalに負の値を設定した場合、バックグラウンドのスレッドを開始しないこと。
+     * また、バックグラウンドのスレッドは初期化時ではなく最初のリクエストで開始し、
+     * {@link RoutesMapping#dispose()}で停止すること。
+     */
+    @Test
+    public void reloadTaskLifecycle() throws Exception {
+        firstRequest(sut);
+        assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(nullValue()));
+
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.initialize();
+        assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(nullValue()));
+
+        firstRequest(sut);
+        final ScheduledExecutorService executor = ReflectionUtil.getFieldValue(sut, "reloadExecutor");
+        assertThat(executor.isShutdown(), is(false));
+        firstRequest(sut);
+        assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(sameInstance(executor)));
+
+        sut.dispose();
+        assertThat(executor.isShutdown(), is(true));
+        assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(nullValue()));
+    }
+
+    /**
+     * リクエストを処理する前に{@link RoutesMapping#dispose()}を呼び出した場合、
+     * 以降のリクエストでバックグラウンドのスレッドを開始しないこと。
+     */
+    @Test
+    public void reloadTaskIsNotStartedAfterDispose() throws Exception {
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.initialize();
+        sut.dispose();
+
+        firstRequest(sut);
+        assertThat(ReflectionUtil.getFieldValue(sut, "reloadExecutor"), is(nullValue()));
+    }
+
+    private void firstRequest(final RoutesMapping sut) throws Exception {
+        when(request.getRequestPath()).thenReturn("/method");
+        when(request.getMethod()).thenReturn("GET");
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+    }
+
+    /**
+     * {@link RouteRecognitionCache}を設定した場合、ルーティングの結果がキャッシュされること。
+     * また、routes.xmlを再読み込みしても定義が変わっていない場合は、キャッシュが破棄されないこと。
+     */
+    @Test
+    public void routeRecognitionCache() throws Exception {
+        final RouteRecognitionCache cache = new RouteRecognitionCache();
+        sut.setRouteRecognitionCache(cache);
+
+        when(request.getRequestPath()).thenReturn("/method");
+        when(request.getMethod()).thenReturn("GET");
+
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+
+        Thread.sleep(10);
+        updateLastModified();
+        sut.reloadRoutes();
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getSize(), is(1));
+    }
+
+    /**
+     * {@link RouteMissCache}を設定した場合、マッチしなかったリクエストがキャッシュされること。
+     * また、routes.xmlを再読み込みしても定義が変わっていない場合は、キャッシュが破棄されないこと。
+     */
+    @Test
+    public void routeMissCache() throws Exception {
+        final RouteMissCache cache = new RouteMissCache();
+        sut.setRouteMissCache(cache);
+
+        when(request.getRequestPath()).thenReturn("/unknown/path/value/foo");
+        when(request.getMethod()).thenReturn("GET");
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                sut.getHandlerClass(request, context);
+                fail("HttpErrorResponseがスローされる");
+            } catch (HttpErrorResponse e) {
+                assertThat(e.getResponse().getStatusCode(), is(404));
+                assertThat(e.getCause(), instanceOf(RoutingException.class));
+            }
+        }
+        assertThat(cache.getSize(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+
+        Thread.sleep(10);
+        updateLastModified();
+        sut.reloadRoutes();
+        try {
+            sut.getHandlerClass(request, context);
+            fail("HttpErrorResponseがスローされる");
+        } catch (HttpErrorResponse e) {
+            assertThat(e.getResponse().getStatusCode(), is(404));
+        }
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getSize(), is(1));
+    }
+
     /**
      * routes.xmlがfileプロトコル以外でも読み込めること。
      */
@@ -306,6 +680,456 @@ public class RoutesMappingTest {
         assertThat((String) context.handleNext(request), is("controllerAction method was invoked."));
     }
 
+    /**
+     * チェックサムで更新を判定する場合、routes.xmlがfileプロトコル以外でも、
+     * 内容が変わった場合のみ再読み込みされること。
+     */
+    @Test
+    public void checksumOfRoutesFileIsNotFile() throws Exception {
+        final URL mockUrl = mock(URL.class);
+        final URLConnection connection = mock(URLConnection.class);
+
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.setChecksumEnabled(true);
+        sut.setCheckInterval(-1L);
+
+        final URL originalUrl = ReflectionUtil.getFieldValue(sut, "routesUrl");
+        final byte[] content = originalUrl.openStream().readAllBytes();
+        final byte[] modified = (new String(content, StandardCharsets.UTF_8) + "\n").getBytes(StandardCharsets.UTF_8);
+        ReflectionUtil.setFieldValue(sut, "routesUrl", mockUrl);
+        when(mockUrl.getProtocol()).thenReturn("jar");
+        when(mockUrl.openConnection()).thenReturn(connection);
+        when(connection.getInputStream()).thenReturn(
+                new ByteArrayInputStream(content), new ByteArrayInputStream(content), new ByteArrayInputStream(modified));
+
+        sut.initialize();
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot initial = snapshot.get();
+        assertThat(initial.isLoaded(), is(true));
+        verify(connection).setUseCaches(false);
+
+        // 内容が同じ場合は再読み込みしない
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+
+        // 内容が変わった場合は再読み込みする
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(not(sameInstance(initial))));
+
+        when(request.getRequestPath()).thenReturn("/method");
+        when(request.getMethod()).thenReturn("GET");
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+        sut.dispose();
+    }
+
+    /**
+     * チェックサムで更新を判定する場合、routes.xmlの更新日時が変わっても内容が同じであれば再読み込みされないこと。
+     */
+    @Test
+    public void checksumIgnoresLastModified() throws Exception {
+        final RoutesMapping sut = new RoutesMapping();
+        sut.setBasePackage("nablarch.integration.router");
+        sut.setChecksumEnabled(true);
+        sut.setCheckInterval(-1L);
+        sut.initialize();
+
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot initial = snapshot.get();
+
+        Thread.sleep(10);
+        updateLastModified();
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+        sut.dispose();
+    }
+
+    /**
+     * 再読み込みしたroutes.xmlが不正な場合、再読み込み前のルーティング定義が使われること。
+     * また、正しく修正されたroutes.xmlは再読み込みされること。
+     */
+    @Test
+    public void invalidRoutesAreNotReloaded() throws Exception {
+        final File routes = folder.newFile("routes.xml");
+        Files.copy(new File(FileUtil.getResourceURL("classpath:routes.xml").getPath()).toPath(), routes.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot initial = snapshot.get();
+
+        // XMLとして不正
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"RoutesMappingTest#get\"></routes>");
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+
+        // アクションクラスをロードできない
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"Unknown#get\"/></routes>");
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+
+        // 前の定義に全てマッチしてしまい到達できない
+        writeRoutes(routes, "<routes>"
+                + "<get path=\"method\" to=\"RoutesMappingTest#get\"/>"
+                + "<get path=\"method\" to=\"RoutesMappingTest#post\"/>"
+                + "</routes>");
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+        get();
+
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"RoutesMappingTest#post\"/></routes>");
+        sut.reloadRoutes();
+        assertThat(snapshot.get(), is(not(sameInstance(initial))));
+        assertThat(snapshot.get().getRouteMatcher().recognize("/method", "GET").getString("action"), is("post"));
+    }
+
+    /**
+     * routes.xmlを再読み込みした場合、変更のない定義は構築済みのものが再利用され、
+     * 追加または削除された定義にマッチするリクエストのキャッシュのみが破棄されること。
+     */
+    @Test
+    public void reloadInvalidatesOnlyAffectedRoutes() throws Exception {
+        final RouteRecognitionCache recognitionCache = new RouteRecognitionCache();
+        final RouteMissCache missCache = new RouteMissCache();
+        sut.setRouteRecognitionCache(recognitionCache);
+        sut.setRouteMissCache(missCache);
+        final File routes = folder.newFile("routes.xml");
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        writeRoutes(routes, "<routes>"
+                + "<get path=\"method\" to=\"RoutesMappingTest#get\"/>"
+                + "<post path=\"method\" to=\"RoutesMappingTest#post\"/>"
+                + "</routes>");
+        sut.reloadRoutes();
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final List<CompiledRoute> before = snapshot.get().getCompiledRoutes();
+
+        when(request.getRequestPath()).thenReturn("/method");
+        for (String method : new String[] {"GET", "POST", "PATCH"}) {
+            when(request.getMethod()).thenReturn(method);
+            try {
+                sut.getHandlerClass(request, context);
+            } catch (HttpErrorResponse e) {
+                assertThat(e.getResponse().getStatusCode(), is(404));
+            }
+        }
+        assertThat(recognitionCache.getSize(), is(2));
+        assertThat(missCache.getSize(), is(1));
+
+        writeRoutes(routes, "<routes>"
+                + "<get path=\"method\" to=\"RoutesMappingTest#get\"/>"
+                + "<post path=\"method\" to=\"RoutesMappingTest#patch\"/>"
+                + "<patch path=\"method\" to=\"RoutesMappingTest#patch\"/>"
+                + "</routes>");
+        sut.reloadRoutes();
+
+        final List<CompiledRoute> after = snapshot.get().getCompiledRoutes();
+        assertThat(after.size(), is(3));
+        assertThat(after.get(0).getRoute(), is(sameInstance(before.get(0).getRoute())));
+        assertThat(after.get(1).getRoute(), is(not(sameInstance(before.get(1).getRoute()))));
+        assertThat(recognitionCache.get("GET", "/method"), is(notNullValue()));
+        assertThat(recognitionCache.get("POST", "/method"), is(nullValue()));
+        assertThat(missCache.contains("PATCH", "/method"), is(false));
+
+        when(request.getMethod()).thenReturn("POST");
+        sut.getHandlerClass(request, context);
+        context.addHandler(new RoutesMappingTestAction());
+        assertThat((String) context.handleNext(request), is("patch method was invoked."));
+    }
+
+    /**
+     * 再読み込み前のルーティング定義でマッチングしている間に再読み込みした場合、
+     * 再読み込み前の定義で特定した結果が、再読み込み後のキャッシュに残らないこと。
+     */
+    @Test
+    public void recognitionDuringReloadIsNotCached() throws Exception {
+        final RouteRecognitionCache recognitionCache = new RouteRecognitionCache();
+        sut.setRouteRecognitionCache(recognitionCache);
+        final BlockingRouteMatcherFactory routeMatcherFactory = new BlockingRouteMatcherFactory();
+        sut.setRouteMatcherFactory(routeMatcherFactory);
+        final File routes = folder.newFile("routes.xml");
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        writeRoutes(routes, "<routes><get path=\"method/:id\" to=\"RoutesMappingTest#get\"/></routes>");
+        sut.reloadRoutes();
+
+        when(request.getRequestPath()).thenReturn("/method/1");
+        when(request.getMethod()).thenReturn("GET");
+        final Future<Class<?>> recognizing = routeMatcherFactory.recognizeBlocking(new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+                return sut.getHandlerClass(request, context);
+            }
+        });
+
+        writeRoutes(routes, "<routes><get path=\"method/:id\" to=\"RoutesMappingTest#post\"/></routes>");
+        sut.reloadRoutes();
+        routeMatcherFactory.release();
+        assertThat(recognizing.get(5, TimeUnit.SECONDS).getName(), is(RoutesMappingTestAction.class.getName()));
+
+        assertThat(recognitionCache.get("GET", "/method/1"), is(nullValue()));
+        sut.getHandlerClass(request, context);
+        assertThat(recognitionCache.get("GET", "/method/1").getAction(), is("post"));
+    }
+
+    /**
+     * 再読み込み前のルーティング定義でマッチしなかった間に再読み込みした場合、
+     * マッチしなかったことが再読み込み後のキャッシュに残らないこと。
+     */
+    @Test
+    public void missDuringReloadIsNotCached() throws Exception {
+        final RouteMissCache missCache = new RouteMissCache();
+        sut.setRouteMissCache(missCache);
+        final BlockingRouteMatcherFactory routeMatcherFactory = new BlockingRouteMatcherFactory();
+        sut.setRouteMatcherFactory(routeMatcherFactory);
+        final File routes = folder.newFile("routes.xml");
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        writeRoutes(routes, "<routes><get path=\"method/:id\" to=\"RoutesMappingTest#get\"/></routes>");
+        sut.reloadRoutes();
+
+        when(request.getRequestPath()).thenReturn("/method/1");
+        when(request.getMethod()).thenReturn("POST");
+        final Future<Class<?>> recognizing = routeMatcherFactory.recognizeBlocking(new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+                return sut.getHandlerClass(request, context);
+            }
+        });
+
+        writeRoutes(routes, "<routes>"
+                + "<get path=\"method/:id\" to=\"RoutesMappingTest#get\"/>"
+                + "<post path=\"method/:id\" to=\"RoutesMappingTest#post\"/>"
+                + "</routes>");
+        sut.reloadRoutes();
+        routeMatcherFactory.release();
+        try {
+            recognizing.get(5, TimeUnit.SECONDS);
+            fail("再読み込み前の定義にはマッチしない");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(HttpErrorResponse.class)));
+        }
+
+        assertThat(missCache.contains("POST", "/method/1"), is(false));
+        assertThat(sut.getHandlerClass(request, context).getName(), is(RoutesMappingTestAction.class.getName()));
+    }
+
+    /**
+     * 他のスレッドが再読み込みしている間に要求された再読み込みは、
+     * 再読み込みしているスレッドが完了後に改めて行うこと。
+     */
+    @Test
+    public void reloadRequestedDuringReloadIsNotLost() throws Exception {
+        final BlockingLoadRouteMatcherFactory routeMatcherFactory = new BlockingLoadRouteMatcherFactory();
+        sut.setRouteMatcherFactory(routeMatcherFactory);
+        final File routes = folder.newFile("routes.xml");
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"RoutesMappingTest#get\"/></routes>");
+        sut.reloadRoutes();
+
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"RoutesMappingTest#post\"/></routes>");
+        final Future<Void> reloading = routeMatcherFactory.loadBlocking(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                sut.reloadRoutes();
+                return null;
+            }
+        });
+
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"RoutesMappingTest#patch\"/></routes>");
+        sut.reloadRoutes();
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        assertThat(snapshot.get().getRouteMatcher().recognize("/method", "GET").getString("action"), is("get"));
+
+        routeMatcherFactory.release();
+        reloading.get(5, TimeUnit.SECONDS);
+        assertThat(snapshot.get().getRouteMatcher().recognize("/method", "GET").getString("action"), is("patch"));
+    }
+
+    /**
+     * 同じ内容の不正なroutes.xmlは、更新されるまで再度読み込まれないこと。
+     */
+    @Test
+    public void rejectedRoutesAreNotReadAgain() throws Exception {
+        final File routes = folder.newFile("routes.xml");
+        ReflectionUtil.setFieldValue(sut, "routesUrl", routes.toURI().toURL());
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+        final RoutesSnapshot initial = snapshot.get();
+
+        writeRoutes(routes, "<routes><get path=\"method\" to=\"Unknown#get\"/></routes>");
+        sut.reloadRoutes();
+        assertThat(ReflectionUtil.getFieldValue(sut, "rejectedVersion"), is((Object) routes.lastModified()));
+
+        try (MockedStatic<RoutesValidator> validator = mockStatic(RoutesValidator.class)) {
+            sut.reloadRoutes();
+            validator.verifyNoInteractions();
+        }
+        assertThat(snapshot.get(), is(sameInstance(initial)));
+    }
+
+    /**
+     * スナップショットファイルのディレクトリを設定した場合、2回目以降の初期化ではroutes.xmlを解析せずに
+     * スナップショットファイルからルーティング定義を読み込むこと。
+     */
+    @Test
+    public void snapshotDirectory() throws Exception {
+        final File directory = new File(folder.getRoot(), "snapshot");
+
+        final RoutesMapping first = new RoutesMapping();
+        first.setBasePackage("nablarch.integration.router");
+        first.setSnapshotDirectory(directory.getPath());
+        first.setCheckInterval(-1L);
+        first.initialize();
+        first.dispose();
+        assertThat(directory.list().length, is(1));
+
+        final RoutesMapping second = new RoutesMapping();
+        second.setBasePackage("nablarch.integration.router");
+        second.setSnapshotDirectory(directory.getPath());
+        second.setCheckInterval(-1L);
+        try (MockedStatic<RoutesXmlReader> reader = mockStatic(RoutesXmlReader.class)) {
+            second.initialize();
+            reader.verifyNoInteractions();
+        } finally {
+            second.dispose();
+        }
+
+        final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(second, "snapshot");
+        assertThat(snapshot.get().getRouteMatcher().recognize("/method", "GET").getString("action"), is("get"));
+    }
+
+    /**
+     * 事前に生成したクラスを設定した場合、生成元とroutes.xmlの内容が一致すれば、routes.xmlを解析せずに
+     * 生成したクラスからルーティング定義を取得すること。内容が異なる場合はroutes.xmlを解析すること。
+     */
+    @Test
+    public void precompiledRoutes() throws Exception {
+        final File routes = new File(FileUtil.getResourceURL("classpath:routes.xml").getPath());
+        final File changed = folder.newFile("changed-routes.xml");
+        writeRoutes(changed, "<routes><get path=\"method\" to=\"RoutesMappingTest#post\"/></routes>");
+
+        for (File generatedFrom : new File[] {routes, changed}) {
+            final File sources = folder.newFolder();
+            final File classes = folder.newFolder();
+            RoutesSourceGenerator.generate(generatedFrom, "example.PrecompiledRoutes", sources);
+            assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, "-encoding", "UTF-8",
+                    "-d", classes.getPath(), "-classpath", System.getProperty("java.class.path"),
+                    new File(sources, "example/PrecompiledRoutes.java").getPath()), is(0));
+
+            final ClassLoader original = Thread.currentThread().getContextClassLoader();
+            final RoutesMapping sut = new RoutesMapping();
+            sut.setBasePackage("nablarch.integration.router");
+            sut.setPrecompiledRoutes("example.PrecompiledRoutes");
+            sut.setCheckInterval(-1L);
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, original);
+                 MockedStatic<RoutesXmlReader> reader = mockStatic(RoutesXmlReader.class, CALLS_REAL_METHODS)) {
+                Thread.currentThread().setContextClassLoader(loader);
+                sut.initialize();
+                if (generatedFrom == routes) {
+                    reader.verifyNoInteractions();
+                } else {
+                    reader.verify(() -> RoutesXmlReader.read(any(InputStream.class)));
+                }
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+                sut.dispose();
+            }
+
+            final AtomicReference<RoutesSnapshot> snapshot = ReflectionUtil.getFieldValue(sut, "snapshot");
+            assertThat(snapshot.get().getRouteMatcher().recognize("/method", "GET").getString("action"), is("get"));
+        }
+    }
+
+    /**
+     * 指定したタイミングで、ルーティング定義の読み込みを一時停止させる {@link RouteMatcherFactory} 。
+     */
+    private static class BlockingLoadRouteMatcherFactory implements RouteMatcherFactory {
+        private final RouteMatcherFactory delegate = new MethodPartitionedRouteMatcherFactory();
+        private final AtomicBoolean blocking = new AtomicBoolean();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        @Override
+        public RouteMatcher create(final List<PathOptions> pathOptionsList) {
+            if (blocking.compareAndSet(true, false)) {
+                entered.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return delegate.create(pathOptionsList);
+        }
+
+        /**
+         * 別のスレッドで処理を実行し、その処理がルーティング定義の読み込みを開始するまで待つ。
+         * 読み込みは {@link #release()} を呼び出すまで一時停止する。
+         */
+        private <T> Future<T> loadBlocking(final Callable<T> task) throws InterruptedException {
+            blocking.set(true);
+            final Future<T> future = executor.submit(task);
+            assertThat(entered.await(5, TimeUnit.SECONDS), is(true));
+            return future;
+        }
+
+        private void release() {
+            released.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 指定したタイミングで、マッチングを一時停止させる {@link RouteMatcherFactory} 。
+     */
+    private static class BlockingRouteMatcherFactory implements RouteMatcherFactory {
+        private final RouteMatcherFactory delegate = new MethodPartitionedRouteMatcherFactory();
+        private final AtomicBoolean blocking = new AtomicBoolean();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        @Override
+        public RouteMatcher create(final List<PathOptions> pathOptionsList) {
+            final RouteMatcher routeMatcher = delegate.create(pathOptionsList);
+            return new RouteMatcher() {
+                @Override
+                public Options recognize(final String path, final String method) {
+                    if (blocking.compareAndSet(true, false)) {
+                        entered.countDown();
+                        try {
+                            released.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return routeMatcher.recognize(path, method);
+                }
+            };
+        }
+
+        /**
+         * 別のスレッドで処理を実行し、その処理がマッチングを開始するまで待つ。
+         * マッチングは {@link #release()} を呼び出すまで一時停止する。
+         */
+        private <T> Future<T> recognizeBlocking(final Callable<T> task) throws InterruptedException {
+            blocking.set(true);
+            final Future<T> future = executor.submit(task);
+            assertThat(entered.await(5, TimeUnit.SECONDS), is(true));
+            return future;
+        }
+
+        private void release() {
+            released.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void writeRoutes(final File routes, final String content) throws Exception {
+        Files.write(routes.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        // 更新日時の分解能に依存しないよう、読み込み済みの時刻より後の更新日時を設定する。
+        if (!routes.setLastModified(routes.lastModified() + 60000L)) {
+            throw new RuntimeException("routes.xml could not be update last modified time.");
+        }
+    }
+
     /**
      * カスタムの{@link MethodBinderFactory}を設定した場合、
      * カスタムの{@link MethodBinderFactory}によって生成された
@@ -325,5 +1149,6 @@ public class RoutesMappingTest {
         sut.getHandlerClass(request, context);
 
         assertThat(context.getMethodBinder(), instanceOf(CustomMethodBinderFactory.CustomMethodBinder.class));
+        sut.dispose();
     }
 }
@@ -9,6 +9,8 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -32,6 +34,28 @@ public class RoutesMethodBinderFactoryTest {
         assertThat(result.getBodyString(), is("success"));
     }
 
+    /**
+     * 同じメソッド名に対しては、同じインスタンスが返されること。
+     */
+    @Test
+    public void testCreateReturnsSameInstanceForSameMethodName() throws Exception {
+        MethodBinder<HttpRequest, Object> binder = sut.create("handle");
+
+        assertThat(sut.create("handle"), is(sameInstance(binder)));
+        assertThat(sut.create("other"), is(not(sameInstance(binder))));
+    }
+
+    /**
+     * 保持する件数の上限を超えても、{@link RoutesMethodBinder}が生成されること。
+     */
+    @Test
+    public void testCreateOverMaxSize() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            assertThat(sut.create("method" + i), is(instanceOf(RoutesMethodBinder.class)));
+        }
+        assertThat(sut.create(null), is(instanceOf(RoutesMethodBinder.class)));
+    }
+
     /**
      * テスト用のアクションクラス。
      */
@@ -0,0 +1,110 @@
+package nablarch.integration.router;
+
+import nablarch.core.util.FileUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RoutesSourceGenerator} のテスト。
+ */
+public class RoutesSourceGeneratorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 生成したクラスが返すルーティング定義が、routes定義ファイルを解析した結果と一致すること。
+     */
+    @Test
+    public void testGeneratedRoutesAreSameAsParsedRoutes() throws Exception {
+        File routes = new File(FileUtil.getResourceURL("classpath:routes.xml").getPath());
+
+        List<PathOptions> generated = provideGenerated(routes, "example.GeneratedRoutes");
+
+        assertThat(definitionsOf(generated), is(definitionsOf(RoutesXmlReader.read(routes))));
+    }
+
+    /**
+     * 文字列リテラルで表現できない文字を含む場合でも、生成したクラスが同じ値を返すこと。
+     */
+    @Test
+    public void testValuesAreEscaped() throws Exception {
+        File routes = folder.newFile("routes.xml");
+        Files.write(routes.toPath(), ("<routes>"
+                + "<get path=\"&quot;パス&quot;\\u0041\\\" to=\"Quote&quot;Test#get\"/>"
+                + "</routes>").getBytes(StandardCharsets.UTF_8));
+
+        List<PathOptions> generated = provideGenerated(routes, "GeneratedRoutesInDefaultPackage");
+
+        assertThat(generated.get(0).getPath(), is("\"パス\"\\u0041\\"));
+        assertThat(definitionsOf(generated), is(definitionsOf(RoutesXmlReader.read(routes))));
+    }
+
+    /**
+     * 生成したクラスに、routes定義ファイルの内容のチェックサムが出力されること。
+     */
+    @Test
+    public void testChecksumIsGenerated() throws Exception {
+        File routes = new File(FileUtil.getResourceURL("classpath:routes.xml").getPath());
+        File output = folder.newFolder("src");
+
+        File source = RoutesSourceGenerator.generate(routes, "example.GeneratedRoutes", output);
+
+        assertThat(source, is(new File(output, "example/GeneratedRoutes.java")));
+        String expected = "public static final String ROUTES_CHECKSUM = \""
+                + Checksums.toHex(Checksums.of(Files.readAllBytes(routes.toPath()))) + "\";";
+        assertThat(new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8).contains(expected), is(true));
+    }
+
+    @Test
+    public void testThrowsExceptionIfArgumentsAreInvalid() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("usage: RoutesSourceGenerator <routes file> <class name> <output directory>");
+
+        RoutesSourceGenerator.main(new String[] {"routes.xml"});
+    }
+
+    private List<PathOptions> provideGenerated(File routes, String className) throws Exception {
+        File sources = folder.newFolder();
+        File classes = folder.newFolder();
+        RoutesSourceGenerator.main(new String[] {routes.getPath(), className, sources.getPath()});
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-encoding", "UTF-8", "-d", classes.getPath(),
+                "-classpath", System.getProperty("java.class.path"),
+                new File(sources, className.replace('.', '/') + ".java").getPath());
+        assertThat(result, is(0));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader())) {
+            PathOptionsProvider provider = (PathOptionsProvider) loader.loadClass(className)
+                    .getDeclaredConstructor().newInstance();
+            return provider.provide();
+        }
+    }
+
+    private static List<List<Object>> definitionsOf(List<PathOptions> pathOptionsList) {
+        List<List<Object>> definitions = new ArrayList<List<Object>>();
+        for (PathOptions pathOptions : pathOptionsList) {
+            definitions.add(CompiledRoute.definitionOf(pathOptions));
+        }
+        return definitions;
+    }
+}
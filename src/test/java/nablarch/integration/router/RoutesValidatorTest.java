@@ -0,0 +1,55 @@
+package nablarch.integration.router;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RoutesValidator} のテスト。
+ */
+public class RoutesValidatorTest {
+
+    private final ClassLoader loader = getClass().getClassLoader();
+
+    @Test
+    public void testValidRoutes() {
+        List<String> errors = validate(
+                pathOptions("GET", "/test", "RoutesMappingTest", "get"),
+                pathOptions("POST", "/test", "RoutesMappingTest", "post"),
+                pathOptions("GET", "/test/new", "RoutesMappingTest", "get"),
+                pathOptions("GET", "/test/(:id)", "RoutesMappingTest", "get"));
+
+        assertThat(errors, is(empty()));
+    }
+
+    @Test
+    public void testActionClassCouldNotBeLoaded() {
+        List<String> errors = validate(pathOptions("GET", "/test", "Unknown", "get"));
+
+        assertThat(errors, contains("action class could not be loaded. path = [/test],"
+                + " class = [nablarch.integration.router.UnknownAction]"));
+    }
+
+    @Test
+    public void testUnreachableRoute() {
+        List<String> errors = validate(
+                pathOptions("GET", "/test/:id", "RoutesMappingTest", "get"),
+                pathOptions("GET", "/test/new", "RoutesMappingTest", "post"),
+                pathOptions("POST", "/test/new", "RoutesMappingTest", "post"));
+
+        assertThat(errors, contains("route is unreachable because preceding routes match the same request."
+                + " path = [/test/new], methods = [GET]"));
+    }
+
+    private List<String> validate(PathOptions... pathOptions) {
+        return RoutesValidator.validate(
+                CompiledRoute.compile(Arrays.asList(pathOptions)), "nablarch.integration.router", loader);
+    }
+}
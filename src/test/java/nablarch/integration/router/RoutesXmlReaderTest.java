@@ -0,0 +1,61 @@
+package nablarch.integration.router;
+
+import nablarch.core.util.FileUtil;
+import net.unit8.http.router.Options;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link RoutesXmlReader} のテスト。
+ */
+public class RoutesXmlReaderTest {
+
+    @Test
+    public void testReadFile() {
+        List<PathOptions> pathOptionsList = RoutesXmlReader.read(
+                new File(FileUtil.getResourceURL("classpath:routes.xml").getPath()));
+
+        assertThat(pathsOf(pathOptionsList), contains("/", "method", "method", "method", ":controller/:action/:id"));
+
+        Options options = pathOptionsList.get(1).getOptions();
+        assertThat(options.getString("controller"), is("RoutesMappingTest"));
+        assertThat(options.getString("action"), is("get"));
+        assertThat(((Options) options.get("conditions")).getList("method"), contains((Object) "GET"));
+    }
+
+    @Test
+    public void testReadInputStream() throws Exception {
+        InputStream in = FileUtil.getResourceURL("classpath:routes.xml").openStream();
+        try {
+            List<PathOptions> pathOptionsList = RoutesXmlReader.read(in);
+            assertThat(pathsOf(pathOptionsList), contains("/", "method", "method", "method", ":controller/:action/:id"));
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    @Test
+    public void testReadOptionsCanBeBuiltAgain() {
+        List<PathOptions> pathOptionsList = RoutesXmlReader.read(
+                new File(FileUtil.getResourceURL("classpath:routes.xml").getPath()));
+
+        RouteMatcher matcher = new RecognizerRouteMatcherFactory().create(pathOptionsList);
+        assertThat(matcher.recognize("/method", "PATCH").getString("action"), is("patch"));
+    }
+
+    private static List<String> pathsOf(List<PathOptions> pathOptionsList) {
+        List<String> paths = new ArrayList<String>();
+        for (PathOptions pathOptions : pathOptionsList) {
+            paths.add(pathOptions.getPath());
+        }
+        return paths;
+    }
+}
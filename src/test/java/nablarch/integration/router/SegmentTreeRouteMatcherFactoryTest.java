@@ -0,0 +1,185 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link SegmentTreeRouteMatcherFactory} のテスト。
+ */
+public class SegmentTreeRouteMatcherFactoryTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final SegmentTreeRouteMatcherFactory sut = new SegmentTreeRouteMatcherFactory();
+
+    @Test
+    public void testStaticPath() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/foo", "FooAction", "get"),
+                pathOptions("GET", "/test/bar", "BarAction", "get"),
+                pathOptions("POST", "/test/bar", "BarAction", "post")));
+
+        assertThat(matcher.recognize("/test/bar", "GET").getString("controller"), is("BarAction"));
+        assertThat(matcher.recognize("/test/bar", "POST").getString("action"), is("post"));
+        assertThat(matcher.recognize("/test/foo", "GET").getString("controller"), is("FooAction"));
+    }
+
+    @Test
+    public void testPathParameter() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/(:id)/detail/(:name)", "FooAction", "get")));
+
+        Options options = matcher.recognize("/test/123/detail/hello", "GET");
+        assertThat(options.getString("controller"), is("FooAction"));
+        assertThat(options.getString("id"), is("123"));
+        assertThat(options.getString("name"), is("hello"));
+    }
+
+    @Test
+    public void testTrailingPathParameterIsOptional() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "FooAction", "get")));
+
+        assertThat(matcher.recognize("/test", "GET").getString("controller"), is("FooAction"));
+        assertThat(matcher.recognize("/test/", "GET").getString("controller"), is("FooAction"));
+        assertThat(matcher.recognize("/test/1", "GET").getString("id"), is("1"));
+    }
+
+    @Test
+    public void testRootPath() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test", "FooAction", "get"),
+                pathOptions("GET", "/", "RootAction", "get")));
+
+        assertThat(matcher.recognize("/", "GET").getString("controller"), is("RootAction"));
+    }
+
+    @Test
+    public void testFirstDefinedRouteIsUsed() {
+        // JaxRsPathOptionsProviderと同様にパスの昇順で並べると、パスパラメータの定義が先になる
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/(:id)", "ParamAction", "get"),
+                pathOptions("GET", "/test/simple", "SimpleAction", "get")));
+
+        assertThat(matcher.recognize("/test/simple", "GET").getString("controller"), is("ParamAction"));
+    }
+
+    @Test
+    public void testRequirements() {
+        PathOptions numeric = pathOptions("GET", "/test/(:id)", "NumericAction", "get");
+        requirements(numeric).put("id", Pattern.compile("\\d+"));
+
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                numeric,
+                pathOptions("GET", "/test/(:name)", "NameAction", "get")));
+
+        assertThat(matcher.recognize("/test/123", "GET").getString("controller"), is("NumericAction"));
+        assertThat(matcher.recognize("/test/abc", "GET").getString("controller"), is("NameAction"));
+    }
+
+    @Test
+    public void testRequirementsMatchingSlash() {
+        PathOptions any = pathOptions("GET", "/files/(:path)", "FileAction", "get");
+        requirements(any).put("path", Pattern.compile(".*"));
+
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/files/index", "IndexAction", "get"),
+                any));
+
+        assertThat(matcher.recognize("/files/a/b/c", "GET").getString("path"), is("a/b/c"));
+        assertThat(matcher.recognize("/files/index", "GET").getString("controller"), is("IndexAction"));
+    }
+
+    @Test
+    public void testPathParameterInTheMiddleOfSegment() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/foo-(:id)", "FooAction", "get")));
+
+        Options options = matcher.recognize("/test/foo-9", "GET");
+        assertThat(options.getString("controller"), is("FooAction"));
+        assertThat(options.getString("id"), is("9"));
+    }
+
+    @Test
+    public void testThrowsExceptionIfMethodNotMatched() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/simple", "SimpleAction", "get")));
+
+        exception.expect(RoutingException.class);
+        exception.expectMessage("No route matches /test/simple");
+
+        matcher.recognize("/test/simple", "PUT");
+    }
+
+    @Test
+    public void testThrowsExceptionIfPathNotMatched() {
+        RouteMatcher matcher = sut.create(Arrays.asList(
+                pathOptions("GET", "/test/simple", "SimpleAction", "get")));
+
+        exception.expect(RoutingException.class);
+
+        matcher.recognize("/test/simple/", "GET");
+    }
+
+    @Test
+    public void testSameResultAsRecognizer() {
+        PathOptions numeric = pathOptions("GET", "/api/users/(:id)/items", "UserItemAction", "numeric");
+        requirements(numeric).put("id", Pattern.compile("[0-9]+"));
+        List<PathOptions> pathOptionsList = Arrays.asList(
+                pathOptions("GET", "/", "RootAction", "get"),
+                pathOptions("GET", "/api/users", "UserAction", "list"),
+                pathOptions("POST", "/api/users", "UserAction", "create"),
+                pathOptions("GET", "/api/users/(:id)", "UserAction", "find"),
+                pathOptions("PUT", "/api/users/(:id)", "UserAction", "update"),
+                numeric,
+                pathOptions("GET", "/api/users/(:id)/items", "UserItemAction", "list"),
+                pathOptions("GET", "/api/users/(:id)/items/(:itemId)", "UserItemAction", "find"),
+                pathOptions("GET", "/api/groups/g-(:id)", "GroupAction", "find"),
+                pathOptions("DELETE", "/api/(:resource)/(:id)", "GenericAction", "delete"));
+
+        RouteMatcher expected = new RecognizerRouteMatcherFactory().create(pathOptionsList);
+        RouteMatcher actual = sut.create(pathOptionsList);
+
+        List<String> paths = Arrays.asList("/", "/api", "/api/users", "/api/users/", "/api/users/1", "/api/users/abc",
+                "/api/users/1/items", "/api/users/abc/items", "/api/users/1/items/2", "/api/users/1/items/2/3",
+                "/api/groups/g-1", "/api/groups/1", "/api/groups/g-1/x", "/api/foo/1", "/unknown", "/api/users/1.json");
+        for (String method : Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH")) {
+            for (String path : paths) {
+                assertThat(method + " " + path, recognizeOrNull(actual, path, method), is(recognizeOrNull(expected, path, method)));
+            }
+        }
+        assertThat(recognizeOrNull(actual, "/api/users/1/items/2/3", "GET"), is(nullValue()));
+    }
+
+    private static Options requirements(PathOptions pathOptions) {
+        return (Options) pathOptions.getOptions().get("requirements");
+    }
+
+    private static List<String> recognizeOrNull(RouteMatcher matcher, String path, String method) {
+        try {
+            Options options = matcher.recognize(path, method);
+            List<String> result = new ArrayList<String>();
+            for (String key : new TreeSet<String>(options.keySet())) {
+                result.add(key + "=" + options.get(key));
+            }
+            return result;
+        } catch (RoutingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link SnapshotPathOptionsProvider} のテスト。
+ */
+public class SnapshotPathOptionsProviderTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThrowsExceptionIfPathOptionsProviderIsNull() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("pathOptionsProvider is not set.");
+
+        SnapshotPathOptionsProvider sut = new SnapshotPathOptionsProvider();
+        sut.setSnapshotDirectory("test");
+        sut.setBasePackage("test");
+        sut.provide();
+    }
+
+    @Test
+    public void testThrowsExceptionIfSnapshotDirectoryIsNull() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("snapshotDirectory is not set.");
+
+        SnapshotPathOptionsProvider sut = new SnapshotPathOptionsProvider();
+        sut.setPathOptionsProvider(new CountingProvider());
+        sut.setBasePackage("test");
+        sut.provide();
+    }
+
+    @Test
+    public void testThrowsExceptionIfBasePackageIsNull() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("basePackage is not set.");
+
+        SnapshotPathOptionsProvider sut = new SnapshotPathOptionsProvider();
+        sut.setPathOptionsProvider(new CountingProvider());
+        sut.setSnapshotDirectory("test");
+        sut.provide();
+    }
+
+    /**
+     * スナップショットファイルが有効な場合は、ルーティング定義を収集せずにスナップショットファイルから読み込むこと。
+     */
+    @Test
+    public void testProvideFromSnapshot() throws Exception {
+        File classes = folder.newFolder("classes");
+        writeClassFile(classes, "snapshottest/FooAction.class");
+        CountingProvider delegate = new CountingProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+
+        assertThat(provideWith(classes, sut), contains(hasProperty("path", is("/api/foo"))));
+        assertThat(delegate.count.get(), is(1));
+
+        assertThat(provideWith(classes, sut), contains(hasProperty("path", is("/api/foo"))));
+        assertThat(delegate.count.get(), is(1));
+    }
+
+    /**
+     * クラスファイルが追加、更新された場合は、ルーティング定義を収集し直すこと。
+     */
+    @Test
+    public void testProvideIfClassFileIsChanged() throws Exception {
+        File classes = folder.newFolder("classes");
+        File foo = writeClassFile(classes, "snapshottest/FooAction.class");
+        CountingProvider delegate = new CountingProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+
+        provideWith(classes, sut);
+        assertThat(delegate.count.get(), is(1));
+
+        writeClassFile(classes, "snapshottest/sub/BarAction.class");
+        provideWith(classes, sut);
+        assertThat(delegate.count.get(), is(2));
+
+        assertThat(foo.setLastModified(foo.lastModified() + 60000L), is(true));
+        provideWith(classes, sut);
+        assertThat(delegate.count.get(), is(3));
+
+        provideWith(classes, sut);
+        assertThat(delegate.count.get(), is(3));
+    }
+
+    /**
+     * ベースパッケージ以外のクラスパスの要素が変わった場合も、ルーティング定義を収集し直すこと。
+     */
+    @Test
+    public void testProvideIfClassPathOutsideBasePackageIsChanged() throws Exception {
+        File classes = folder.newFolder("classes");
+        writeClassFile(classes, "snapshottest/FooAction.class");
+        File lib = folder.newFolder("lib");
+        CountingProvider delegate = new CountingProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+
+        provideWith(sut, classes, lib);
+        assertThat(delegate.count.get(), is(1));
+
+        writeClassFile(lib, "other/BaseAction.class");
+        provideWith(sut, classes, lib);
+        assertThat(delegate.count.get(), is(2));
+
+        provideWith(sut, classes, lib);
+        assertThat(delegate.count.get(), is(2));
+    }
+
+    /**
+     * スナップショットファイルを保存するディレクトリがクラスパスに含まれていても、スナップショットファイルを使用すること。
+     */
+    @Test
+    public void testProvideFromSnapshotInClassPath() throws Exception {
+        File classes = folder.newFolder("classes");
+        writeClassFile(classes, "snapshottest/FooAction.class");
+        CountingProvider delegate = new CountingProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+        sut.setSnapshotDirectory(new File(classes, "snapshot").getPath());
+
+        provideWith(sut, classes);
+        provideWith(sut, classes);
+        assertThat(delegate.count.get(), is(1));
+    }
+
+    /**
+     * {@link CacheablePathOptionsProvider} を実装していない {@link PathOptionsProvider} でキーを設定しない場合、例外を送出すること。
+     */
+    @Test
+    public void testThrowsExceptionIfCacheKeyIsNull() throws Exception {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("cacheKey is not set.");
+
+        SnapshotPathOptionsProvider sut = createProvider(new CountingProvider());
+        sut.setCacheKey(null);
+        sut.provide();
+    }
+
+    /**
+     * {@link CacheablePathOptionsProvider} のキーが変わった場合は、ルーティング定義を収集し直すこと。
+     */
+    @Test
+    public void testProvideIfProviderCacheKeyIsChanged() throws Exception {
+        File classes = folder.newFolder("classes");
+        writeClassFile(classes, "snapshottest/FooAction.class");
+        CacheableProvider delegate = new CacheableProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+        sut.setCacheKey(null);
+
+        provideWith(sut, classes);
+        provideWith(sut, classes);
+        assertThat(delegate.count.get(), is(1));
+
+        delegate.applicationPath = "/other";
+
+        assertThat(provideWith(sut, classes), contains(hasProperty("path", is("/other/foo"))));
+        assertThat(delegate.count.get(), is(2));
+    }
+
+    /**
+     * キーが変わった場合は、ルーティング定義を収集し直すこと。
+     */
+    @Test
+    public void testProvideIfCacheKeyIsChanged() throws Exception {
+        File classes = folder.newFolder("classes");
+        writeClassFile(classes, "snapshottest/FooAction.class");
+        CountingProvider delegate = new CountingProvider();
+        SnapshotPathOptionsProvider sut = createProvider(delegate);
+        sut.setCacheKey("/api");
+
+        provideWith(sut, classes);
+        delegate.applicationPath = "/other";
+        sut.setCacheKey("/other");
+
+        assertThat(provideWith(sut, classes), contains(hasProperty("path", is("/other/foo"))));
+        assertThat(delegate.count.get(), is(2));
+    }
+
+    private SnapshotPathOptionsProvider createProvider(PathOptionsProvider delegate) {
+        SnapshotPathOptionsProvider sut = new SnapshotPathOptionsProvider();
+        sut.setPathOptionsProvider(delegate);
+        sut.setSnapshotDirectory(new File(folder.getRoot(), "snapshot").getPath());
+        sut.setBasePackage("snapshottest");
+        sut.setCacheKey("/api");
+        return sut;
+    }
+
+    private static File writeClassFile(File root, String name) throws Exception {
+        File file = new File(root, name);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        return file;
+    }
+
+    private static List<PathOptions> provideWith(File root, PathOptionsProvider provider) throws Exception {
+        return provideWith(provider, root);
+    }
+
+    private static List<PathOptions> provideWith(PathOptionsProvider provider, File... roots) throws Exception {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toURI().toURL();
+        }
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(urls, original)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            return provider.provide();
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * 呼び出された回数を記録する {@link PathOptionsProvider} 。
+     */
+    private static class CountingProvider implements PathOptionsProvider {
+        String applicationPath = "/api";
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public List<PathOptions> provide() {
+            count.incrementAndGet();
+            Options options = new Options();
+            options.put("controller", "snapshottest.FooAction");
+            options.put("action", "get");
+            List<PathOptions> pathOptionsList = new ArrayList<PathOptions>();
+            pathOptionsList.add(new PathOptions(applicationPath + "/foo", options));
+            return pathOptionsList;
+        }
+    }
+
+    /**
+     * アプリケーションパスをキーとする {@link CacheablePathOptionsProvider} 。
+     */
+    private static class CacheableProvider extends CountingProvider implements CacheablePathOptionsProvider {
+
+        @Override
+        public String getCacheKey() {
+            return applicationPath;
+        }
+    }
+}
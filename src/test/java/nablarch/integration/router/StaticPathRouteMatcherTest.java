@@ -0,0 +1,115 @@
+package nablarch.integration.router;
+
+import net.unit8.http.router.Options;
+import net.unit8.http.router.RoutingException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static nablarch.integration.router.PathOptionsFactory.pathOptions;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link StaticPathRouteMatcher} のテスト。
+ */
+public class StaticPathRouteMatcherTest {
+
+    private final RecordingRouteMatcher delegate = new RecordingRouteMatcher();
+
+    @Test
+    public void testStaticPathIsRecognizedWithoutDelegate() {
+        RouteMatcher sut = create(
+                pathOptions("GET", "/test/simple", "GetAction", "get"),
+                pathOptions("POST", "/test/simple", "PostAction", "post"),
+                pathOptions("GET", "/", "RootAction", "get"));
+
+        assertThat(sut.recognize("/test/simple", "GET").getString("controller"), is("GetAction"));
+        assertThat(sut.recognize("/test/simple", "POST").getString("controller"), is("PostAction"));
+        assertThat(sut.recognize("/", "GET").getString("controller"), is("RootAction"));
+        assertThat(delegate.paths, is(empty()));
+    }
+
+    @Test
+    public void testDelegateIsUsedIfPathNotMatched() {
+        RouteMatcher sut = create(
+                pathOptions("GET", "/test/simple", "GetAction", "get"),
+                pathOptions("GET", "/test/(:id)", "ParamAction", "get"));
+
+        assertThat(sut.recognize("/test/123", "GET").getString("controller"), is("ParamAction"));
+        assertThat(sut.recognize("/test/", "GET").getString("controller"), is("ParamAction"));
+        assertThat(delegate.paths, contains("/test/123", "/test/"));
+    }
+
+    @Test
+    public void testDelegateIsUsedIfMethodNotMatched() {
+        RouteMatcher sut = create(
+                pathOptions("GET", "/test/simple", "GetAction", "get"));
+
+        try {
+            sut.recognize("/test/simple", "PUT");
+        } catch (RoutingException ignored) {
+            // do nothing.
+        }
+        assertThat(delegate.paths, contains("/test/simple"));
+    }
+
+    @Test
+    public void testStaticPathAfterMatchableRouteIsNotUsed() {
+        RouteMatcher sut = create(
+                pathOptions("GET", "/test/(:id)", "ParamAction", "get"),
+                pathOptions("GET", "/test/simple", "SimpleAction", "get"),
+                pathOptions("POST", "/test/simple", "PostAction", "post"));
+
+        assertThat(sut.recognize("/test/simple", "GET").getString("controller"), is("ParamAction"));
+        assertThat(sut.recognize("/test/simple", "POST").getString("controller"), is("PostAction"));
+        assertThat(delegate.paths, contains("/test/simple"));
+    }
+
+    @Test
+    public void testRouteWithoutMethod() {
+        PathOptions anyMethod = new PathOptions("/test/any", Options.newInstance()
+                .$("controller", "AnyAction")
+                .$("action", "any")
+                .$("requirements", Options.newInstance().$("controller", "AnyAction").$("action", "any")));
+
+        RouteMatcher sut = create(anyMethod, pathOptions("GET", "/test/any", "GetAction", "get"));
+
+        assertThat(sut.recognize("/test/any", "GET").getString("controller"), is("AnyAction"));
+        assertThat(sut.recognize("/test/any", "DELETE").getString("controller"), is("AnyAction"));
+        assertThat(delegate.paths, is(empty()));
+    }
+
+    @Test
+    public void testResultIsNotShared() {
+        RouteMatcher sut = create(pathOptions("GET", "/test/simple", "GetAction", "get"));
+
+        sut.recognize("/test/simple", "GET").put("controller", "Changed");
+
+        assertThat(sut.recognize("/test/simple", "GET").getString("controller"), is("GetAction"));
+    }
+
+    private RouteMatcher create(PathOptions... pathOptions) {
+        List<PathOptions> pathOptionsList = Arrays.asList(pathOptions);
+        delegate.routeMatcher = new RecognizerRouteMatcherFactory().create(pathOptionsList);
+        return new StaticPathRouteMatcher(CompiledRoute.compile(pathOptionsList), delegate);
+    }
+
+    /**
+     * 委譲されたパスを記録する {@link RouteMatcher} 。
+     */
+    private static class RecordingRouteMatcher implements RouteMatcher {
+        private final List<String> paths = new ArrayList<String>();
+        private RouteMatcher routeMatcher;
+
+        @Override
+        public Options recognize(String path, String method) {
+            paths.add(path);
+            return routeMatcher.recognize(path, method);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package nablarch.integration.router.jaxrs;
+
+import nablarch.integration.router.PathOptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link JaxRsIndexedPathOptionsProvider} のテスト。
+ */
+public class JaxRsIndexedPathOptionsProviderTest {
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThrowsExceptionIfApplicationPathIsNull() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("applicationPath is not set.");
+
+        JaxRsIndexedPathOptionsProvider sut = new JaxRsIndexedPathOptionsProvider();
+        sut.setBasePackage("test");
+        sut.provide();
+    }
+
+    @Test
+    public void testThrowsExceptionIfBasePackageIsNull() {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("basePackage is not set.");
+
+        JaxRsIndexedPathOptionsProvider sut = new JaxRsIndexedPathOptionsProvider();
+        sut.setApplicationPath("test");
+        sut.provide();
+    }
+
+    @Test
+    public void testThrowsExceptionIfIndexIsNotFound() throws Exception {
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("jax-rs route index could not be found.");
+
+        JaxRsIndexedPathOptionsProvider sut = new JaxRsIndexedPathOptionsProvider();
+        sut.setApplicationPath("test");
+        sut.setBasePackage("example");
+        provideWith(sut, folder.newFolder("empty"));
+    }
+
+    @Test
+    public void testProvide() throws Exception {
+        File first = writeIndex("first",
+                "example.FooResource\tget\tGET\t/foo\t\texample.FooResource",
+                "example.sub.BarResource\tpost\tPOST\t/bar\t/{id}\texample.sub.BarResource",
+                "other.BazResource\tget\tGET\t/baz\t\tother.BazResource");
+        File second = writeIndex("second",
+                "example.FooResource\tput\tPUT\t/foo\t\texample.FooResource",
+                "example.QuxResource\tget\tGET\t/qux\t\texample.QuxResource");
+
+        JaxRsIndexedPathOptionsProvider sut = new JaxRsIndexedPathOptionsProvider();
+        sut.setApplicationPath("test");
+        sut.setBasePackage("example");
+
+        List<PathOptions> pathOptionsList = provideWith(sut, first, second);
+
+        assertThat(pathOptionsList, contains(
+            allOf(
+                hasProperty("path", is("test/bar/(:id)")),
+                hasProperty("options", allOf(
+                    hasEntry("controller", "example.sub.BarResource"),
+                    hasEntry("action", "post")))
+            ),
+            allOf(
+                hasProperty("path", is("test/foo")),
+                hasProperty("options", allOf(
+                    hasEntry("controller", "example.FooResource"),
+                    hasEntry("action", "get")))
+            ),
+            allOf(
+                hasProperty("path", is("test/qux")),
+                hasProperty("options", allOf(
+                    hasEntry("controller", "example.QuxResource"),
+                    hasEntry("action", "get")))
+            )
+        ));
+    }
+
+    private File writeIndex(String name, String... lines) throws Exception {
+        File root = folder.newFolder(name);
+        File index = new File(root, JaxRsRouteIndex.RESOURCE_NAME);
+        Files.createDirectories(index.getParentFile().toPath());
+        Files.write(index.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return root;
+    }
+
+    private static List<PathOptions> provideWith(JaxRsIndexedPathOptionsProvider sut, File... roots) throws Exception {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toURI().toURL();
+        }
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(urls, null)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            return sut.provide();
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+}
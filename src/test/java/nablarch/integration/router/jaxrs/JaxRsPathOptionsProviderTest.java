@@ -89,4 +89,22 @@ public class JaxRsPathOptionsProviderTest {
             hasProperty("path", is("/test/foo/fizz/beta"))
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCacheKeyChangesWithSettings() {
+        JaxRsPathOptionsProvider sut = new JaxRsPathOptionsProvider();
+        sut.setApplicationPath("/test");
+        sut.setBasePackage("example");
+        String cacheKey = sut.getCacheKey();
+
+        sut.setParallelism(4);
+        assertThat(sut.getCacheKey(), is(cacheKey));
+
+        sut.setApplicationPath("/other");
+        assertThat(sut.getCacheKey(), is(not(cacheKey)));
+
+        sut.setApplicationPath("/test");
+        sut.setBasePackage("other");
+        assertThat(sut.getCacheKey(), is(not(cacheKey)));
+    }
+}
@@ -90,6 +90,18 @@ public class JaxRsResourceFinderTest {
         ));
     }
     
+    @Test
+    public void testResourceMethodAnnotationsAreRead() throws Exception {
+        JaxRsResource jaxRsResource = sut.find("nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceMethods").get(0);
+
+        // 検索時に読み取ったアノテーションの情報が格納されていること
+        ResourceMethod get = jaxRsResource.getResourceMethod(ResourceClass.class.getDeclaredMethod("get"));
+        assertThat(get.getHttpMethod(), is("GET"));
+        assertThat(get.getPath(), is(nullValue()));
+        ResourceMethod myHttpMethod = jaxRsResource.getResourceMethod(ResourceClass.class.getDeclaredMethod("myHttpMethod"));
+        assertThat(myHttpMethod.getHttpMethod(), is("TEST"));
+    }
+
     @Test
     public void testThrowsExceptionIfClassNotFound() {
         ResourcesUtil.addResourcesFactory("file", new ResourcesUtil.ResourcesFactory() {
@@ -176,6 +188,57 @@ public class JaxRsResourceFinderTest {
         assertThat(jaxRsResources.get(NoResourceClass.class), nullValue());
     }
 
+    @Test
+    public void testClassFileScanning() {
+        JaxRsResourceFinder scanning = new JaxRsResourceFinder();
+        scanning.setClassFileScanning(true);
+
+        for (String basePackage : new String[] {
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceClasses",
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceMethods",
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations"}) {
+            assertThat(basePackage, describe(scanning.find(basePackage)), is(describe(sut.find(basePackage))));
+        }
+    }
+
+    @Test
+    public void testParallelism() {
+        JaxRsResourceFinder parallel = new JaxRsResourceFinder();
+        parallel.setParallelism(4);
+
+        for (String basePackage : new String[] {
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceClasses",
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceMethods",
+                "nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations"}) {
+            // 並列で検索した場合も、逐次で検索した場合と同じ順序となること
+            assertThat(basePackage, describeInOrder(parallel.find(basePackage)), is(describeInOrder(sut.find(basePackage))));
+        }
+    }
+
+    @Test
+    public void testThrowsExceptionIfHttpMethodAnnotationIsDuplicateInParallel() {
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("'get' method has multiple HTTP method annotations.");
+
+        sut.setParallelism(4);
+        sut.find("nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testThrowsExceptionIfHttpMethodAnnotationIsDuplicate");
+    }
+
+    private static List<String> describeInOrder(List<JaxRsResource> jaxRsResourceList) {
+        return jaxRsResourceList.stream()
+                .map(r -> r.getActionClass().getName() + " " + r.getResourceClass().getName() + " "
+                        + r.getResourceMethodList().stream().map(Method::getName).sorted().toList())
+                .toList();
+    }
+
+    private static List<String> describe(List<JaxRsResource> jaxRsResourceList) {
+        return jaxRsResourceList.stream()
+                .map(r -> r.getActionClass().getName() + " " + r.getResourceClass().getName() + " "
+                        + r.getResourceMethodList().stream().map(Method::getName).sorted().toList())
+                .sorted()
+                .toList();
+    }
+
     @Test
     public void testResourceMethodInherit() {
         List<JaxRsResource> jaxRsResourceList = sut.find("nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations");
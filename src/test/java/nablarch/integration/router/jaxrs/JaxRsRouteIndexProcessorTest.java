@@ -0,0 +1,252 @@
+package nablarch.integration.router.jaxrs;
+
+import nablarch.integration.router.PathOptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link JaxRsRouteIndexProcessor} のテスト。
+ */
+public class JaxRsRouteIndexProcessorTest {
+
+    private static final String TEST_SOURCES = "src/test/java/nablarch/integration/router/jaxrs/test/";
+
+    private static final String TEST_PACKAGE = "nablarch.integration.router.jaxrs.test.";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 索引から作成したルーティング定義が、クラスパスを探索して作成したルーティング定義と一致すること。
+     */
+    @Test
+    public void testIndexIsSameAsClasspathScanning() throws Exception {
+        File output = folder.newFolder("classes");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(output,
+                sources("JaxRsResourceFinderTest/testInheritAnnotations"),
+                sources("JaxRsResourceFinderTest/testFindResourceMethods"),
+                sources("JaxRsResourceFinderTest/testFindResourceClasses"),
+                sources("JaxRsPathOptionsProviderTest"));
+        assertThat(diagnostics.toString(), errorsOf(diagnostics).isEmpty(), is(true));
+
+        for (String basePackage : Arrays.asList(
+                "JaxRsResourceFinderTest.testInheritAnnotations",
+                "JaxRsResourceFinderTest.testFindResourceMethods",
+                "JaxRsResourceFinderTest.testFindResourceClasses",
+                "JaxRsPathOptionsProviderTest.testProvide",
+                "JaxRsPathOptionsProviderTest.testPathOptionsAreSortedByPathAscending")) {
+            JaxRsPathOptionsProvider scanning = new JaxRsPathOptionsProvider();
+            scanning.setApplicationPath("/api");
+            scanning.setBasePackage(TEST_PACKAGE + basePackage);
+
+            JaxRsIndexedPathOptionsProvider indexed = new JaxRsIndexedPathOptionsProvider();
+            indexed.setApplicationPath("/api");
+            indexed.setBasePackage(TEST_PACKAGE + basePackage);
+
+            assertThat(basePackage, describe(provideWith(output, indexed)), is(describe(scanning.provide())));
+        }
+    }
+
+    /**
+     * リソースメソッドに複数のHTTPメソッドのアノテーションが設定されている場合、コンパイルエラーとなること。
+     */
+    @Test
+    public void testHttpMethodAnnotationIsDuplicate() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(folder.newFolder("classes"),
+                sources("JaxRsResourceFinderTest/testThrowsExceptionIfHttpMethodAnnotationIsDuplicate"));
+
+        List<Diagnostic<? extends JavaFileObject>> errors = errorsOf(diagnostics);
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0).getMessage(null), containsString("'get' method has multiple HTTP method annotations."));
+    }
+
+    /**
+     * 一部のクラスだけをコンパイルした場合、コンパイルしていないクラスの情報が索引に引き継がれること。
+     */
+    @Test
+    public void testIndexIsMergedWithPreviousIndex() throws Exception {
+        File output = folder.newFolder("classes");
+        File foo = write("example/FooResource.java",
+                "package example; @jakarta.ws.rs.Path(\"foo\") public class FooResource {"
+                        + " @jakarta.ws.rs.GET public void get() {} }");
+        File bar = write("example/BarResource.java",
+                "package example; @jakarta.ws.rs.Path(\"bar\") public class BarResource {"
+                        + " @jakarta.ws.rs.GET public void get() {} }");
+        compile(output, Arrays.asList(foo, bar));
+
+        write("example/FooResource.java",
+                "package example; @jakarta.ws.rs.Path(\"foo\") public class FooResource {"
+                        + " @jakarta.ws.rs.POST @jakarta.ws.rs.Path(\"{id}\") public void post() {} }");
+        compile(output, Collections.singletonList(foo));
+
+        assertThat(readIndex(output), contains(
+                "example.BarResource#get GET /bar null",
+                "example.FooResource#post POST /foo /{id}"));
+    }
+
+    /**
+     * 親クラスのリソースクラスだけをコンパイルした場合、引き継ぐサブクラスの情報が作成し直されること。
+     */
+    @Test
+    public void testSubclassIsRegeneratedIfResourceClassIsCompiled() throws Exception {
+        File output = folder.newFolder("classes");
+        File base = write("example/BaseResource.java",
+                "package example; @jakarta.ws.rs.Path(\"base\") public abstract class BaseResource {"
+                        + " @jakarta.ws.rs.GET public void get() {} }");
+        File sub = write("example/SubResource.java",
+                "package example; public class SubResource extends BaseResource {}");
+        compile(output, Arrays.asList(base, sub));
+        assertThat(readIndex(output), contains("example.SubResource#get GET /base null"));
+
+        write("example/BaseResource.java",
+                "package example; @jakarta.ws.rs.Path(\"changed\") public abstract class BaseResource {"
+                        + " @jakarta.ws.rs.PUT @jakarta.ws.rs.Path(\"{id}\") public void put() {} }");
+        compile(output, Collections.singletonList(base));
+
+        assertThat(readIndex(output), contains("example.SubResource#put PUT /changed /{id}"));
+        assertThat(readResourceTypes(output), contains("example.BaseResource"));
+    }
+
+    /**
+     * リソースクラスのインターフェースだけをコンパイルした場合、引き継ぐ実装クラスの情報が作成し直されること。
+     */
+    @Test
+    public void testImplementationIsRegeneratedIfResourceInterfaceIsCompiled() throws Exception {
+        File output = folder.newFolder("classes");
+        File api = write("example/Api.java",
+                "package example; @jakarta.ws.rs.Path(\"api\") public interface Api {"
+                        + " @jakarta.ws.rs.GET void get(); }");
+        File impl = write("example/ApiImpl.java",
+                "package example; public class ApiImpl implements Api { public void get() {} public void post() {} }");
+        File other = write("example/OtherResource.java",
+                "package example; @jakarta.ws.rs.Path(\"other\") public class OtherResource {"
+                        + " @jakarta.ws.rs.GET public void get() {} }");
+        compile(output, Arrays.asList(api, impl, other));
+
+        write("example/Api.java",
+                "package example; @jakarta.ws.rs.Path(\"api\") public interface Api {"
+                        + " @jakarta.ws.rs.GET void get(); @jakarta.ws.rs.POST void post(); }");
+        compile(output, Collections.singletonList(api));
+
+        assertThat(readIndex(output), contains(
+                "example.OtherResource#get GET /other null",
+                "example.ApiImpl#get GET /api null",
+                "example.ApiImpl#post POST /api null"));
+    }
+
+    /**
+     * 索引のパスの値がエスケープされ、読み込み時に元に戻ること。
+     */
+    @Test
+    public void testIndexEscapesValues() throws Exception {
+        File output = folder.newFolder("classes");
+        File resource = write("example/EscapedResource.java",
+                "package example; @jakarta.ws.rs.Path(\"a\\tb\\\\c\") public class EscapedResource {"
+                        + " @jakarta.ws.rs.GET @jakarta.ws.rs.Path(\"\") public void get() {} }");
+        compile(output, Collections.singletonList(resource));
+
+        assertThat(readIndex(output), contains("example.EscapedResource#get GET /a\tb\\c /"));
+    }
+
+    private List<PathOptions> provideWith(File output, JaxRsIndexedPathOptionsProvider provider) throws Exception {
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {output.toURI().toURL()}, null)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            return provider.provide();
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private static List<String> describe(List<PathOptions> pathOptionsList) {
+        List<String> descriptions = new ArrayList<>();
+        for (PathOptions pathOptions : pathOptionsList) {
+            descriptions.add(pathOptions.getPath() + " " + pathOptions.getOptions());
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    private static List<String> readIndex(File output) throws Exception {
+        try (InputStream in = new FileInputStream(new File(output, JaxRsRouteIndex.RESOURCE_NAME))) {
+            return JaxRsRouteIndex.read(in).stream()
+                    .map(e -> e.getController() + "#" + e.getAction() + " " + e.getHttpMethod()
+                            + " " + e.getClassPath() + " " + e.getMethodPath())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> readResourceTypes(File output) throws Exception {
+        try (InputStream in = new FileInputStream(new File(output, JaxRsRouteIndex.RESOURCE_NAME))) {
+            return JaxRsRouteIndex.read(in).stream()
+                    .map(JaxRsRouteIndex.Entry::getResourceType)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private File write(String name, String source) throws Exception {
+        Path path = folder.getRoot().toPath().resolve("src").resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.write(path, source.getBytes(StandardCharsets.UTF_8));
+        return path.toFile();
+    }
+
+    private static List<File> sources(String directory) throws Exception {
+        try (Stream<Path> paths = Files.walk(new File(TEST_SOURCES + directory).toPath())) {
+            return paths.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).collect(Collectors.toList());
+        }
+    }
+
+    @SafeVarargs
+    private static List<Diagnostic<? extends JavaFileObject>> compile(File output, List<File>... sources)
+            throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (List<File> source : sources) {
+                files.addAll(source);
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-d", output.getPath(), "-classpath",
+                            output.getPath() + File.pathSeparator + System.getProperty("java.class.path"),
+                            "-implicit:none"),
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new JaxRsRouteIndexProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> errorsOf(
+            List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR).collect(Collectors.toList());
+    }
+}
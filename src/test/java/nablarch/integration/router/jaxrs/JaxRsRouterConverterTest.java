@@ -10,7 +10,9 @@ import static org.junit.Assert.assertThat;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
@@ -241,6 +243,27 @@ public class JaxRsRouterConverterTest {
         ));
     }
 
+    @Test
+    public void testResourceMethodReadByFinderIsUsed() throws Exception {
+        @Path("test-resource")
+        class TestResource {
+            @GET
+            void get() {
+            }
+        }
+        Map<Method, ResourceMethod> resourceMethods = new LinkedHashMap<Method, ResourceMethod>();
+        resourceMethods.put(TestResource.class.getDeclaredMethod("get"), new ResourceMethod("POST", "read-by-finder"));
+
+        JaxRsRouterConverter sut = new JaxRsRouterConverter("test");
+
+        // 検索時に読み取った情報があれば、アノテーションを再度読み取らずにその情報を使用すること
+        List<PathOptions> pathOptionsList = sut.parse(new JaxRsResource(TestResource.class, TestResource.class, resourceMethods));
+
+        assertThat(pathOptionsList, contains(hasProperty("path", is("test/test-resource/read-by-finder"))));
+        Options conditions = (Options) pathOptionsList.get(0).getOptions().get("conditions");
+        assertThat(conditions.getString("method"), is("POST"));
+    }
+
     private JaxRsResource jaxRsResource(Class<?> actionClass, Class<?> resourceClass, String... methodNames) {
         return new JaxRsResource(actionClass, resourceClass, methods(resourceClass, methodNames));
     }
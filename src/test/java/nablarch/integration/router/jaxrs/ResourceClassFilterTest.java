@@ -0,0 +1,77 @@
+package nablarch.integration.router.jaxrs;
+
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceClasses.ClassIsAnnotatedByPath;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceClasses.MethodIsAnnotatedByPath;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testFindResourceClasses.NotResource;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.NoResourceClass;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ParentResourceClass;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ResourceClassExtendsGrandParentImplementsPlainInterface;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ResourceClassExtendsParent;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ResourceClassExtendsPlainParentImplementsInterface;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ResourceClassImplementsInterface;
+import nablarch.integration.router.jaxrs.test.JaxRsResourceFinderTest.testInheritAnnotations.ResourceInterface;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * {@link ResourceClassFilter} のテスト。
+ */
+public class ResourceClassFilterTest {
+
+    private final RecordingClassLoader classLoader = new RecordingClassLoader(getClass().getClassLoader());
+
+    private final ResourceClassFilter sut = new ResourceClassFilter(classLoader);
+
+    @Test
+    public void testResourceClasses() {
+        assertThat(sut.mayBeResource(ClassIsAnnotatedByPath.class.getName()), is(true));
+        assertThat(sut.mayBeResource(ResourceClassImplementsInterface.class.getName()), is(true));
+        assertThat(sut.mayBeResource(ResourceClassExtendsParent.class.getName()), is(true));
+        assertThat(sut.mayBeResource(ResourceClassExtendsPlainParentImplementsInterface.class.getName()), is(true));
+        assertThat(sut.mayBeResource(ResourceClassExtendsGrandParentImplementsPlainInterface.class.getName()), is(true));
+        assertThat(classLoader.loadedClasses, is(empty()));
+    }
+
+    @Test
+    public void testNotResourceClasses() {
+        assertThat(sut.mayBeResource(NotResource.class.getName()), is(false));
+        assertThat(sut.mayBeResource(MethodIsAnnotatedByPath.class.getName()), is(false));
+        assertThat(sut.mayBeResource(NoResourceClass.class.getName()), is(false));
+        assertThat(classLoader.loadedClasses, is(empty()));
+    }
+
+    @Test
+    public void testInterfaceAndAbstractClassAreExcluded() {
+        assertThat(sut.mayBeResource(ResourceInterface.class.getName()), is(false));
+        assertThat(sut.mayBeResource(ParentResourceClass.class.getName()), is(false));
+    }
+
+    @Test
+    public void testClassFileNotFound() {
+        assertThat(sut.mayBeResource("not_exists_package.NotExistsClass"), is(true));
+    }
+
+    /**
+     * ロードしたクラスを記録するクラスローダ。
+     */
+    private static class RecordingClassLoader extends ClassLoader {
+
+        private final List<String> loadedClasses = new ArrayList<>();
+
+        RecordingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            loadedClasses.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package nablarch.integration.router.test.MethodHandleRoutesMethodBinderTest.bindForNonPublicClass;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+
+class NonPublicAction {
+
+    public String handle(HttpRequest request, ExecutionContext context) {
+        return "non public";
+    }
+}